@@ -0,0 +1,62 @@
+package io.github.xiaochenxt.benchmark;
+
+import com.querydsl.sql.RelationalPathBase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成的Q类在运行时的构造开销，配合 -prof gc 查看每次操作的分配字节数
+ *
+ * @author xiaochen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QClassBenchmark {
+
+    @Param({"WIDE10", "WIDE50", "WIDE200", "DEEP"})
+    public QClassFactory entity;
+
+    private RelationalPathBase<?> prototype;
+
+    @Setup
+    public void setup() {
+        prototype = entity.variable("prototype");
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> variableConstructor() {
+        return entity.variable("o2");
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> schemaTableConstructor() {
+        return entity.schemaTable("o2", "bench", "shard_2026_10");
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> pathConstructor() {
+        return entity.path(prototype);
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> metadataConstructor() {
+        return entity.metadata("o2");
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> aliasFactory() {
+        return entity.alias("o2");
+    }
+
+    @Benchmark
+    public RelationalPathBase<?> addMetadata() {
+        entity.addMetadata(prototype);
+        return prototype;
+    }
+
+}
@@ -0,0 +1,205 @@
+package io.github.xiaochenxt.benchmark;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLQuery;
+import io.github.xiaochenxt.benchmark.entity.*;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * 各基准实体生成的Q类的统一入口，分别调用生成的四个构造方法
+ *
+ * @author xiaochen
+ */
+public enum QClassFactory {
+
+    WIDE10 {
+        @Override
+        public RelationalPathBase<?> variable(String variable) {
+            return new QWide10Entity(variable);
+        }
+
+        @Override
+        public RelationalPathBase<?> schemaTable(String variable, String schema, String table) {
+            return new QWide10Entity(variable, schema, table);
+        }
+
+        @Override
+        public RelationalPathBase<?> path(RelationalPathBase<?> path) {
+            return new QWide10Entity((QWide10Entity) path);
+        }
+
+        @Override
+        public RelationalPathBase<?> metadata(String variable) {
+            return new QWide10Entity(forVariable(variable));
+        }
+
+        @Override
+        public RelationalPathBase<?> alias(String variable) {
+            return QWide10Entity.alias(variable);
+        }
+
+        @Override
+        public void addMetadata(RelationalPathBase<?> path) {
+            ((QWide10Entity) path).addMetadata();
+        }
+
+        @Override
+        public SQLQuery<?> typicalSelect(Configuration configuration) {
+            QWide10Entity q = QWide10Entity.wide10Entity;
+            return new SQLQuery<Void>(configuration).select(q.id, q.column1, q.column2, q.column3).from(q)
+                    .where(q.id.gt(100L), q.column1.eq("x")).orderBy(q.column3.desc()).limit(20);
+        }
+    },
+    WIDE50 {
+        @Override
+        public RelationalPathBase<?> variable(String variable) {
+            return new QWide50Entity(variable);
+        }
+
+        @Override
+        public RelationalPathBase<?> schemaTable(String variable, String schema, String table) {
+            return new QWide50Entity(variable, schema, table);
+        }
+
+        @Override
+        public RelationalPathBase<?> path(RelationalPathBase<?> path) {
+            return new QWide50Entity((QWide50Entity) path);
+        }
+
+        @Override
+        public RelationalPathBase<?> metadata(String variable) {
+            return new QWide50Entity(forVariable(variable));
+        }
+
+        @Override
+        public RelationalPathBase<?> alias(String variable) {
+            return QWide50Entity.alias(variable);
+        }
+
+        @Override
+        public void addMetadata(RelationalPathBase<?> path) {
+            ((QWide50Entity) path).addMetadata();
+        }
+
+        @Override
+        public SQLQuery<?> typicalSelect(Configuration configuration) {
+            QWide50Entity q = QWide50Entity.wide50Entity;
+            return new SQLQuery<Void>(configuration).select(q.id, q.column1, q.column2, q.column3).from(q)
+                    .where(q.id.gt(100L), q.column1.eq("x")).orderBy(q.column3.desc()).limit(20);
+        }
+    },
+    WIDE200 {
+        @Override
+        public RelationalPathBase<?> variable(String variable) {
+            return new QWide200Entity(variable);
+        }
+
+        @Override
+        public RelationalPathBase<?> schemaTable(String variable, String schema, String table) {
+            return new QWide200Entity(variable, schema, table);
+        }
+
+        @Override
+        public RelationalPathBase<?> path(RelationalPathBase<?> path) {
+            return new QWide200Entity((QWide200Entity) path);
+        }
+
+        @Override
+        public RelationalPathBase<?> metadata(String variable) {
+            return new QWide200Entity(forVariable(variable));
+        }
+
+        @Override
+        public RelationalPathBase<?> alias(String variable) {
+            return QWide200Entity.alias(variable);
+        }
+
+        @Override
+        public void addMetadata(RelationalPathBase<?> path) {
+            ((QWide200Entity) path).addMetadata();
+        }
+
+        @Override
+        public SQLQuery<?> typicalSelect(Configuration configuration) {
+            QWide200Entity q = QWide200Entity.wide200Entity;
+            return new SQLQuery<Void>(configuration).select(q.id, q.column1, q.column2, q.column3).from(q)
+                    .where(q.id.gt(100L), q.column1.eq("x")).orderBy(q.column3.desc()).limit(20);
+        }
+    },
+    DEEP {
+        @Override
+        public RelationalPathBase<?> variable(String variable) {
+            return new QDeepEntity(variable);
+        }
+
+        @Override
+        public RelationalPathBase<?> schemaTable(String variable, String schema, String table) {
+            return new QDeepEntity(variable, schema, table);
+        }
+
+        @Override
+        public RelationalPathBase<?> path(RelationalPathBase<?> path) {
+            return new QDeepEntity((QDeepEntity) path);
+        }
+
+        @Override
+        public RelationalPathBase<?> metadata(String variable) {
+            return new QDeepEntity(forVariable(variable));
+        }
+
+        @Override
+        public RelationalPathBase<?> alias(String variable) {
+            return QDeepEntity.alias(variable);
+        }
+
+        @Override
+        public void addMetadata(RelationalPathBase<?> path) {
+            ((QDeepEntity) path).addMetadata();
+        }
+
+        @Override
+        public SQLQuery<?> typicalSelect(Configuration configuration) {
+            QDeepEntity q = QDeepEntity.deepEntity;
+            return new SQLQuery<Void>(configuration).select(q.id, q.orderNo, q.tenantId, q.createTime).from(q)
+                    .where(q.tenantId.eq("t1"), q.deleted.isFalse()).orderBy(q.createTime.desc()).limit(20);
+        }
+    };
+
+    /**
+     * 调用 QFoo(String variable)
+     */
+    public abstract RelationalPathBase<?> variable(String variable);
+
+    /**
+     * 调用 QFoo(String variable, String schema, String table)
+     */
+    public abstract RelationalPathBase<?> schemaTable(String variable, String schema, String table);
+
+    /**
+     * 调用 QFoo(Path&lt;? extends QFoo&gt; path)
+     */
+    public abstract RelationalPathBase<?> path(RelationalPathBase<?> path);
+
+    /**
+     * 调用 QFoo(PathMetadata metadata)
+     */
+    public abstract RelationalPathBase<?> metadata(String variable);
+
+    /**
+     * 调用生成的别名工厂 QFoo.alias(String variable)
+     */
+    public abstract RelationalPathBase<?> alias(String variable);
+
+    /**
+     * 调用生成的 addMetadata()
+     */
+    public abstract void addMetadata(RelationalPathBase<?> path);
+
+    /**
+     * 典型的分页查询：少量列、主键范围与等值条件、排序和limit
+     */
+    public abstract SQLQuery<?> typicalSelect(Configuration configuration);
+
+}
@@ -0,0 +1,37 @@
+package io.github.xiaochenxt.benchmark;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于生成的Q类构建并序列化一条典型select的开销
+ *
+ * @author xiaochen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"WIDE10", "WIDE50", "WIDE200", "DEEP"})
+    public QClassFactory entity;
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        configuration = new Configuration(PostgreSQLTemplates.builder().build());
+    }
+
+    @Benchmark
+    public String serializeTypicalSelect() {
+        return entity.typicalSelect(configuration).getSQL().getSQL();
+    }
+
+}
@@ -0,0 +1,19 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * 继承层级的第一层：主键与审计时间
+ */
+public abstract class AuditBase {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+
+}
@@ -0,0 +1,28 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 多层父类继承的实体
+ */
+@Table(value = "deep_entity", schema = "bench")
+public class DeepEntity extends SoftDeleteBase {
+
+    @Column("order_no")
+    private String orderNo;
+
+    private Long customerId;
+
+    private BigDecimal amount;
+
+    private Integer quantity;
+
+    private LocalDate bizDate;
+
+    private String remark;
+
+}
@@ -0,0 +1,10 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+/**
+ * 继承层级的第四层：逻辑删除
+ */
+public abstract class SoftDeleteBase extends VersionBase {
+
+    private Boolean deleted;
+
+}
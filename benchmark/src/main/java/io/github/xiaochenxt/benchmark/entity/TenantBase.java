@@ -0,0 +1,10 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+/**
+ * 继承层级的第二层：租户
+ */
+public abstract class TenantBase extends AuditBase {
+
+    private String tenantId;
+
+}
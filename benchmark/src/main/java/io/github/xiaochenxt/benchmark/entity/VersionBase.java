@@ -0,0 +1,10 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+/**
+ * 继承层级的第三层：乐观锁版本号
+ */
+public abstract class VersionBase extends TenantBase {
+
+    private Integer version;
+
+}
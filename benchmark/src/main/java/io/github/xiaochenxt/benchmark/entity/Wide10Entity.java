@@ -0,0 +1,35 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 10列的宽表实体
+ */
+@Table("wide_10")
+public class Wide10Entity {
+
+    @Id
+    private Long id;
+
+    private String column1;
+
+    private Integer column2;
+
+    private LocalDateTime column3;
+
+    private BigDecimal column4;
+
+    private Boolean column5;
+
+    private Long column6;
+
+    private String column7;
+
+    private Integer column8;
+
+    private LocalDateTime column9;
+}
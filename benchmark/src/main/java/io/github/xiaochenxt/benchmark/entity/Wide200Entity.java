@@ -0,0 +1,415 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 200列的宽表实体
+ */
+@Table("wide_200")
+public class Wide200Entity {
+
+    @Id
+    private Long id;
+
+    private String column1;
+
+    private Integer column2;
+
+    private LocalDateTime column3;
+
+    private BigDecimal column4;
+
+    private Boolean column5;
+
+    private Long column6;
+
+    private String column7;
+
+    private Integer column8;
+
+    private LocalDateTime column9;
+
+    private BigDecimal column10;
+
+    private Boolean column11;
+
+    private Long column12;
+
+    private String column13;
+
+    private Integer column14;
+
+    private LocalDateTime column15;
+
+    private BigDecimal column16;
+
+    private Boolean column17;
+
+    private Long column18;
+
+    private String column19;
+
+    private Integer column20;
+
+    private LocalDateTime column21;
+
+    private BigDecimal column22;
+
+    private Boolean column23;
+
+    private Long column24;
+
+    private String column25;
+
+    private Integer column26;
+
+    private LocalDateTime column27;
+
+    private BigDecimal column28;
+
+    private Boolean column29;
+
+    private Long column30;
+
+    private String column31;
+
+    private Integer column32;
+
+    private LocalDateTime column33;
+
+    private BigDecimal column34;
+
+    private Boolean column35;
+
+    private Long column36;
+
+    private String column37;
+
+    private Integer column38;
+
+    private LocalDateTime column39;
+
+    private BigDecimal column40;
+
+    private Boolean column41;
+
+    private Long column42;
+
+    private String column43;
+
+    private Integer column44;
+
+    private LocalDateTime column45;
+
+    private BigDecimal column46;
+
+    private Boolean column47;
+
+    private Long column48;
+
+    private String column49;
+
+    private Integer column50;
+
+    private LocalDateTime column51;
+
+    private BigDecimal column52;
+
+    private Boolean column53;
+
+    private Long column54;
+
+    private String column55;
+
+    private Integer column56;
+
+    private LocalDateTime column57;
+
+    private BigDecimal column58;
+
+    private Boolean column59;
+
+    private Long column60;
+
+    private String column61;
+
+    private Integer column62;
+
+    private LocalDateTime column63;
+
+    private BigDecimal column64;
+
+    private Boolean column65;
+
+    private Long column66;
+
+    private String column67;
+
+    private Integer column68;
+
+    private LocalDateTime column69;
+
+    private BigDecimal column70;
+
+    private Boolean column71;
+
+    private Long column72;
+
+    private String column73;
+
+    private Integer column74;
+
+    private LocalDateTime column75;
+
+    private BigDecimal column76;
+
+    private Boolean column77;
+
+    private Long column78;
+
+    private String column79;
+
+    private Integer column80;
+
+    private LocalDateTime column81;
+
+    private BigDecimal column82;
+
+    private Boolean column83;
+
+    private Long column84;
+
+    private String column85;
+
+    private Integer column86;
+
+    private LocalDateTime column87;
+
+    private BigDecimal column88;
+
+    private Boolean column89;
+
+    private Long column90;
+
+    private String column91;
+
+    private Integer column92;
+
+    private LocalDateTime column93;
+
+    private BigDecimal column94;
+
+    private Boolean column95;
+
+    private Long column96;
+
+    private String column97;
+
+    private Integer column98;
+
+    private LocalDateTime column99;
+
+    private BigDecimal column100;
+
+    private Boolean column101;
+
+    private Long column102;
+
+    private String column103;
+
+    private Integer column104;
+
+    private LocalDateTime column105;
+
+    private BigDecimal column106;
+
+    private Boolean column107;
+
+    private Long column108;
+
+    private String column109;
+
+    private Integer column110;
+
+    private LocalDateTime column111;
+
+    private BigDecimal column112;
+
+    private Boolean column113;
+
+    private Long column114;
+
+    private String column115;
+
+    private Integer column116;
+
+    private LocalDateTime column117;
+
+    private BigDecimal column118;
+
+    private Boolean column119;
+
+    private Long column120;
+
+    private String column121;
+
+    private Integer column122;
+
+    private LocalDateTime column123;
+
+    private BigDecimal column124;
+
+    private Boolean column125;
+
+    private Long column126;
+
+    private String column127;
+
+    private Integer column128;
+
+    private LocalDateTime column129;
+
+    private BigDecimal column130;
+
+    private Boolean column131;
+
+    private Long column132;
+
+    private String column133;
+
+    private Integer column134;
+
+    private LocalDateTime column135;
+
+    private BigDecimal column136;
+
+    private Boolean column137;
+
+    private Long column138;
+
+    private String column139;
+
+    private Integer column140;
+
+    private LocalDateTime column141;
+
+    private BigDecimal column142;
+
+    private Boolean column143;
+
+    private Long column144;
+
+    private String column145;
+
+    private Integer column146;
+
+    private LocalDateTime column147;
+
+    private BigDecimal column148;
+
+    private Boolean column149;
+
+    private Long column150;
+
+    private String column151;
+
+    private Integer column152;
+
+    private LocalDateTime column153;
+
+    private BigDecimal column154;
+
+    private Boolean column155;
+
+    private Long column156;
+
+    private String column157;
+
+    private Integer column158;
+
+    private LocalDateTime column159;
+
+    private BigDecimal column160;
+
+    private Boolean column161;
+
+    private Long column162;
+
+    private String column163;
+
+    private Integer column164;
+
+    private LocalDateTime column165;
+
+    private BigDecimal column166;
+
+    private Boolean column167;
+
+    private Long column168;
+
+    private String column169;
+
+    private Integer column170;
+
+    private LocalDateTime column171;
+
+    private BigDecimal column172;
+
+    private Boolean column173;
+
+    private Long column174;
+
+    private String column175;
+
+    private Integer column176;
+
+    private LocalDateTime column177;
+
+    private BigDecimal column178;
+
+    private Boolean column179;
+
+    private Long column180;
+
+    private String column181;
+
+    private Integer column182;
+
+    private LocalDateTime column183;
+
+    private BigDecimal column184;
+
+    private Boolean column185;
+
+    private Long column186;
+
+    private String column187;
+
+    private Integer column188;
+
+    private LocalDateTime column189;
+
+    private BigDecimal column190;
+
+    private Boolean column191;
+
+    private Long column192;
+
+    private String column193;
+
+    private Integer column194;
+
+    private LocalDateTime column195;
+
+    private BigDecimal column196;
+
+    private Boolean column197;
+
+    private Long column198;
+
+    private String column199;
+}
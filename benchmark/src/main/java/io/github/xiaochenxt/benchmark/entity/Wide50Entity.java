@@ -0,0 +1,115 @@
+package io.github.xiaochenxt.benchmark.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 50列的宽表实体
+ */
+@Table("wide_50")
+public class Wide50Entity {
+
+    @Id
+    private Long id;
+
+    private String column1;
+
+    private Integer column2;
+
+    private LocalDateTime column3;
+
+    private BigDecimal column4;
+
+    private Boolean column5;
+
+    private Long column6;
+
+    private String column7;
+
+    private Integer column8;
+
+    private LocalDateTime column9;
+
+    private BigDecimal column10;
+
+    private Boolean column11;
+
+    private Long column12;
+
+    private String column13;
+
+    private Integer column14;
+
+    private LocalDateTime column15;
+
+    private BigDecimal column16;
+
+    private Boolean column17;
+
+    private Long column18;
+
+    private String column19;
+
+    private Integer column20;
+
+    private LocalDateTime column21;
+
+    private BigDecimal column22;
+
+    private Boolean column23;
+
+    private Long column24;
+
+    private String column25;
+
+    private Integer column26;
+
+    private LocalDateTime column27;
+
+    private BigDecimal column28;
+
+    private Boolean column29;
+
+    private Long column30;
+
+    private String column31;
+
+    private Integer column32;
+
+    private LocalDateTime column33;
+
+    private BigDecimal column34;
+
+    private Boolean column35;
+
+    private Long column36;
+
+    private String column37;
+
+    private Integer column38;
+
+    private LocalDateTime column39;
+
+    private BigDecimal column40;
+
+    private Boolean column41;
+
+    private Long column42;
+
+    private String column43;
+
+    private Integer column44;
+
+    private LocalDateTime column45;
+
+    private BigDecimal column46;
+
+    private Boolean column47;
+
+    private Long column48;
+
+    private String column49;
+}
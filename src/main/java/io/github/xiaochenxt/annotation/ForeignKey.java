@@ -0,0 +1,25 @@
+package io.github.xiaochenxt.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明字段为外键，在Q类中生成 字段名Fk = createForeignKey(...)
+ *
+ * @author xiaochen
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.CLASS)
+public @interface ForeignKey {
+
+    /**
+     * 引用的实体，须有@Table注解
+     */
+    Class<?> references();
+
+    /**
+     * 引用的数据库字段名，默认为引用实体的主键
+     */
+    String column() default "";
+
+}
@@ -0,0 +1,28 @@
+package io.github.xiaochenxt.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明表的索引，生成到Q类的INDEXES中，供运行时检查查询条件是否命中索引
+ *
+ * @author xiaochen
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+@Repeatable(Indexes.class)
+public @interface Index {
+
+    /**
+     * 索引名，默认为 idx_表名_字段名，唯一索引为 uk_表名_字段名
+     */
+    String name() default "";
+
+    /**
+     * 数据库字段名，按索引中的顺序排列
+     */
+    String[] columns();
+
+    boolean unique() default false;
+
+}
@@ -0,0 +1,17 @@
+package io.github.xiaochenxt.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * {@link Index}的容器
+ *
+ * @author xiaochen
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface Indexes {
+
+    Index[] value();
+
+}
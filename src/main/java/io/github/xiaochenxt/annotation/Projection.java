@@ -0,0 +1,16 @@
+package io.github.xiaochenxt.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 为DTO生成名为Q+类名的querydsl投影，参数为与构造方法参数一一对应的表达式，每行直接调用构造方法创建实例，不使用反射
+ * <p>
+ * 标注在构造方法上时每个构造方法生成一个投影构造方法；标注在类或record上时使用唯一的非私有构造方法，record使用规范构造方法
+ *
+ * @author xiaochen
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
+@Retention(RetentionPolicy.CLASS)
+public @interface Projection {
+}
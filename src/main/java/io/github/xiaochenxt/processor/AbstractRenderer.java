@@ -0,0 +1,53 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 基于表模型生成源码的渲染器
+ *
+ * @author xiaochen
+ */
+public abstract class AbstractRenderer {
+
+    protected final String generator;
+
+    protected AbstractRenderer(String generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * 生成类的文档注释和@Generated注解
+     *
+     * @param description 生成类的说明，可为空
+     */
+    protected void appendHeader(StringBuilder sb, TableModel model, String description) {
+        appendHeader(sb, model.getEntityName(), description);
+    }
+
+    /**
+     * 生成类的文档注释和@Generated注解
+     *
+     * @param source 据以生成的类的全限定名
+     * @param description 生成类的说明，可为空
+     */
+    protected void appendHeader(StringBuilder sb, String source, String description) {
+        sb.append("/**\n * 根据").append(source).append("自动生成");
+        if (description != null && !description.isEmpty()) {
+            sb.append("\n * ").append(description);
+        }
+        sb.append("\n * @author 小郴\n */\n");
+        sb.append("@Generated(value =\"").append(generator).append("\", comments =\"根据").append(source).append("自动生成\")\n");
+    }
+
+    /**
+     * java字符串字面量，转义引号和反斜杠
+     */
+    protected static String literal(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+}
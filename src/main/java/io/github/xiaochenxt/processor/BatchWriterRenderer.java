@@ -0,0 +1,166 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成实体的批量写入器：按块用addBatch批量执行单行语句，或拼接多行values一次执行，支持按主键插入或更新
+ *
+ * @author xiaochen
+ */
+public class BatchWriterRenderer extends AbstractRenderer {
+
+    /**
+     * 默认每块的行数
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    public BatchWriterRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "BatchWriter";
+    }
+
+    /**
+     * 能否生成，所有字段都须可读
+     */
+    public static boolean supports(TableModel model) {
+        for (ColumnInfo column : model.getColumns()) {
+            if (column.getReadAccessor(model.getPackageName()) == null) return false;
+        }
+        return true;
+    }
+
+    public String render(TableModel model, SqlStatements statements) {
+        List<ColumnInfo> columns = model.getColumns();
+        String entity = model.getClassName();
+        String className = className(model);
+        boolean upsert = statements.hasPrimaryKey();
+        StringBuilder sb = new StringBuilder(4096 + columns.size() * 256);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import javax.annotation.processing.Generated;\n" +
+                "import java.sql.Connection;\n" +
+                "import java.sql.PreparedStatement;\n" +
+                "import java.sql.SQLException;\n" +
+                "import java.sql.Statement;\n" +
+                "import java.util.Collection;\n" +
+                "import java.util.Iterator;\n\n");
+        appendHeader(sb, model, "批量写入器，方言：" + statements.getDialect().name().toLowerCase(java.util.Locale.ROOT) +
+                "，不管理事务，由调用方控制提交");
+        sb.append("public class ").append(className).append(" {\n\n");
+        sb.append("    public static final int DEFAULT_CHUNK_SIZE = ").append(DEFAULT_CHUNK_SIZE).append(";\n\n");
+        sb.append("    /**\n     * 每行的参数个数\n     */\n");
+        sb.append("    public static final int COLUMN_COUNT = ").append(columns.size()).append(";\n\n");
+        sb.append("    private static final String INSERT_PREFIX = ").append(literal(statements.insertPrefix())).append(";\n\n");
+        sb.append("    private static final String VALUES_ROW = ").append(literal(statements.valuesRow())).append(";\n\n");
+        sb.append("    public static final String SQL_INSERT = INSERT_PREFIX + VALUES_ROW;\n\n");
+        if (upsert) {
+            sb.append("    private static final String UPSERT_PREFIX = ").append(literal(statements.upsertPrefix())).append(";\n\n");
+            sb.append("    private static final String UPSERT_SUFFIX = ").append(literal(statements.upsertSuffix())).append(";\n\n");
+            sb.append("    /**\n     * 按主键插入或更新\n     */\n");
+            sb.append("    public static final String SQL_UPSERT = UPSERT_PREFIX + VALUES_ROW + UPSERT_SUFFIX;\n\n");
+        }
+        sb.append("    private final int chunkSize;\n\n");
+        sb.append("    /**\n     * 整块的多行插入语句，首次使用时生成\n     */\n");
+        sb.append("    private String chunkInsert;\n\n");
+        if (upsert) {
+            sb.append("    private String chunkUpsert;\n\n");
+        }
+        sb.append("    public ").append(className).append("() {\n        this(DEFAULT_CHUNK_SIZE);\n    }\n\n");
+        sb.append("    /**\n     * @param chunkSize 每块的行数，多行values时每块的参数个数为chunkSize * COLUMN_COUNT，须在数据库的参数上限之内\n     */\n");
+        sb.append("    public ").append(className).append("(int chunkSize) {\n");
+        sb.append("        if (chunkSize < 1) throw new IllegalArgumentException(\"chunkSize必须大于0：\" + chunkSize);\n");
+        sb.append("        this.chunkSize = chunkSize;\n    }\n\n");
+
+        sb.append("    /**\n     * 用addBatch逐行绑定，每chunkSize行执行一次\n     *\n     * @return 驱动报告的影响行数合计\n     */\n");
+        sb.append("    public long insert(Connection connection, Collection<? extends ").append(entity).append("> entities) throws SQLException {\n");
+        sb.append("        return executeBatch(connection, SQL_INSERT, entities);\n    }\n\n");
+        sb.append("    /**\n     * 拼接多行values，每chunkSize行执行一次\n     *\n     * @return 驱动报告的影响行数合计\n     */\n");
+        sb.append("    public long insertMultiRow(Connection connection, Collection<? extends ").append(entity).append("> entities) throws SQLException {\n");
+        sb.append("        if (chunkInsert == null) chunkInsert = multiRow(INSERT_PREFIX, \"\", chunkSize);\n");
+        sb.append("        return executeMultiRow(connection, chunkInsert, INSERT_PREFIX, \"\", entities);\n    }\n\n");
+        if (upsert) {
+            sb.append("    /**\n     * 按主键插入或更新，用addBatch逐行绑定\n     *\n     * @return 驱动报告的影响行数合计\n     */\n");
+            sb.append("    public long upsert(Connection connection, Collection<? extends ").append(entity).append("> entities) throws SQLException {\n");
+            sb.append("        return executeBatch(connection, SQL_UPSERT, entities);\n    }\n\n");
+            sb.append("    /**\n     * 按主键插入或更新，拼接多行values\n     *\n     * @return 驱动报告的影响行数合计\n     */\n");
+            sb.append("    public long upsertMultiRow(Connection connection, Collection<? extends ").append(entity).append("> entities) throws SQLException {\n");
+            sb.append("        if (chunkUpsert == null) chunkUpsert = multiRow(UPSERT_PREFIX, UPSERT_SUFFIX, chunkSize);\n");
+            sb.append("        return executeMultiRow(connection, chunkUpsert, UPSERT_PREFIX, UPSERT_SUFFIX, entities);\n    }\n\n");
+        }
+
+        sb.append("    /**\n     * 从parameterIndex开始按字段顺序绑定实体的全部字段\n     */\n");
+        sb.append("    public static void bind(PreparedStatement ps, int parameterIndex, ").append(entity).append(" entity) throws SQLException {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            sb.append("        ").append(JdbcAccessors.variableType(column)).append(" v").append(i).append(" = ")
+                    .append(column.getReadAccessor(model.getPackageName()).read("entity")).append(";\n");
+            JdbcAccessors.appendBind(sb, column, "ps", i == 0 ? "parameterIndex" : "parameterIndex + " + i, "v" + i, "        ");
+        }
+        sb.append("    }\n\n");
+
+        sb.append("    private long executeBatch(Connection connection, String sql, Collection<? extends ").append(entity).append("> entities) throws SQLException {\n");
+        sb.append("        long count = 0;\n");
+        sb.append("        try (PreparedStatement ps = connection.prepareStatement(sql)) {\n");
+        sb.append("            int pending = 0;\n");
+        sb.append("            for (").append(entity).append(" entity : entities) {\n");
+        sb.append("                bind(ps, 1, entity);\n");
+        sb.append("                ps.addBatch();\n");
+        sb.append("                if (++pending == chunkSize) {\n");
+        sb.append("                    count += sum(ps.executeBatch());\n");
+        sb.append("                    pending = 0;\n");
+        sb.append("                }\n");
+        sb.append("            }\n");
+        sb.append("            if (pending > 0) count += sum(ps.executeBatch());\n");
+        sb.append("        }\n");
+        sb.append("        return count;\n    }\n\n");
+
+        sb.append("    /**\n     * 整块使用同一个预编译语句，不足一块的剩余行单独生成语句\n     */\n");
+        sb.append("    private long executeMultiRow(Connection connection, String chunkSql, String prefix, String suffix, Collection<? extends ")
+                .append(entity).append("> entities) throws SQLException {\n");
+        sb.append("        int size = entities.size();\n");
+        sb.append("        int full = size - size % chunkSize;\n");
+        sb.append("        Iterator<? extends ").append(entity).append("> iterator = entities.iterator();\n");
+        sb.append("        long count = 0;\n");
+        sb.append("        if (full > 0) {\n");
+        sb.append("            try (PreparedStatement ps = connection.prepareStatement(chunkSql)) {\n");
+        sb.append("                for (int start = 0; start < full; start += chunkSize) {\n");
+        sb.append("                    for (int row = 0; row < chunkSize; row++) {\n");
+        sb.append("                        bind(ps, row * COLUMN_COUNT + 1, iterator.next());\n");
+        sb.append("                    }\n");
+        sb.append("                    count += ps.executeUpdate();\n");
+        sb.append("                }\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        if (full < size) {\n");
+        sb.append("            try (PreparedStatement ps = connection.prepareStatement(multiRow(prefix, suffix, size - full))) {\n");
+        sb.append("                for (int row = 0; row < size - full; row++) {\n");
+        sb.append("                    bind(ps, row * COLUMN_COUNT + 1, iterator.next());\n");
+        sb.append("                }\n");
+        sb.append("                count += ps.executeUpdate();\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        return count;\n    }\n\n");
+
+        sb.append("    private static String multiRow(String prefix, String suffix, int rows) {\n");
+        sb.append("        StringBuilder sb = new StringBuilder(prefix.length() + suffix.length() + rows * (VALUES_ROW.length() + 2));\n");
+        sb.append("        sb.append(prefix);\n");
+        sb.append("        for (int i = 0; i < rows; i++) {\n");
+        sb.append("            if (i > 0) sb.append(\", \");\n");
+        sb.append("            sb.append(VALUES_ROW);\n");
+        sb.append("        }\n");
+        sb.append("        return sb.append(suffix).toString();\n    }\n\n");
+
+        sb.append("    /**\n     * 合计批量执行的影响行数，驱动返回SUCCESS_NO_INFO时按1行计\n     */\n");
+        sb.append("    private static long sum(int[] counts) {\n");
+        sb.append("        long sum = 0;\n");
+        sb.append("        for (int count : counts) {\n");
+        sb.append("            sum += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);\n");
+        sb.append("        }\n");
+        sb.append("        return sum;\n    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,191 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成实体的字段变更记录：按Q类中字段的序号用位图记录变更的字段，只更新变更的字段并按主键过滤
+ *
+ * @author xiaochen
+ */
+public class ChangeTrackerRenderer extends AbstractRenderer {
+
+    public ChangeTrackerRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "Changes";
+    }
+
+    /**
+     * 能否生成，须有主键且所有字段都可读
+     */
+    public static boolean supports(TableModel model) {
+        return model.getPrimaryKey() != null && BatchWriterRenderer.supports(model);
+    }
+
+    public String render(TableModel model) {
+        List<ColumnInfo> columns = model.getColumns();
+        String entity = model.getClassName();
+        String className = className(model);
+        String qClassName = model.getQClassName();
+        String packageName = model.getPackageName();
+        ColumnInfo primaryKey = model.getPrimaryKey();
+        int words = (columns.size() + 63) >>> 6;
+        StringBuilder sb = new StringBuilder(4096 + columns.size() * 384);
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("import com.querydsl.core.types.Path;\n" +
+                "import com.querydsl.sql.ColumnMetadata;\n" +
+                "import com.querydsl.sql.RelationalPath;\n" +
+                "import com.querydsl.sql.SQLQueryFactory;\n" +
+                "import com.querydsl.sql.dml.SQLUpdateClause;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.Objects;\n\n");
+        appendHeader(sb, model, "字段变更记录，位序号与Q类中字段的序号ColumnMetadata.getIndex()一致，update只设置变更的字段，主键不会被更新");
+        sb.append("public class ").append(className).append(" {\n\n");
+        sb.append("    public static final int COLUMN_COUNT = ").append(columns.size()).append(";\n\n");
+        sb.append("    /**\n     * 除主键外的字段\n     */\n");
+        sb.append("    private static final long[] UPDATABLE = {");
+        for (int w = 0; w < words; w++) {
+            long mask = 0;
+            for (int i = w << 6; i < Math.min(columns.size(), (w + 1) << 6); i++) {
+                if (columns.get(i) != primaryKey) mask |= 1L << i;
+            }
+            sb.append(w == 0 ? "" : ", ").append("0x").append(Long.toHexString(mask)).append('L');
+        }
+        sb.append("};\n\n");
+        sb.append("    private final long[] bits = new long[").append(words).append("];\n\n");
+
+        sb.append("    /**\n     * 比较两个实体，记录值不同的字段，引用类型用Objects.deepEquals比较，JSON字段与Snapshot一样比较序列化后的文本\n     */\n");
+        sb.append("    public static ").append(className).append(" diff(").append(entity).append(" before, ").append(entity).append(" after) {\n");
+        sb.append("        ").append(className).append(" changes = new ").append(className).append("();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            PropertyAccessor accessor = columns.get(i).getReadAccessor(packageName);
+            sb.append("        if (").append(changed(columns.get(i), accessor.read("before"), accessor.read("after")))
+                    .append(") changes.bits[").append(i >>> 6).append("] |= 1L << ").append(i & 63).append(";\n");
+        }
+        sb.append("        return changes;\n    }\n\n");
+
+        sb.append("    /**\n     * 记录实体当前的字段值，之后通过Snapshot.changes比较，数组字段会复制，JSON字段记录序列化后的文本\n     */\n");
+        sb.append("    public static Snapshot snapshot(").append(entity).append(" entity) {\n");
+        sb.append("        Object[] values = new Object[COLUMN_COUNT];\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String read = column.getReadAccessor(packageName).read("entity");
+            if (serializesJson(column)) {
+                sb.append("        values[").append(i).append("] = ").append(json(column, read)).append(";\n");
+            } else if (column.getJavaType().endsWith("[]")) {
+                sb.append("        ").append(PathKind.shortName(column.getJavaType())).append(" v").append(i).append(" = ").append(read).append(";\n");
+                sb.append("        values[").append(i).append("] = v").append(i).append(" == null ? null : v").append(i).append(".clone();\n");
+            } else {
+                sb.append("        values[").append(i).append("] = ").append(read).append(";\n");
+            }
+        }
+        sb.append("        return new Snapshot(values);\n    }\n\n");
+
+        sb.append("    public ").append(className).append(" mark(int ordinal) {\n");
+        sb.append("        if (ordinal < 1 || ordinal > COLUMN_COUNT) throw new IndexOutOfBoundsException(\"字段序号超出范围：\" + ordinal);\n");
+        sb.append("        bits[(ordinal - 1) >>> 6] |= 1L << (ordinal - 1);\n");
+        sb.append("        return this;\n    }\n\n");
+        sb.append("    /**\n     * @param path ").append(qClassName).append("或其别名的字段\n     */\n");
+        sb.append("    public ").append(className).append(" mark(Path<?> path) {\n");
+        sb.append("        return mark(ordinal(path));\n    }\n\n");
+        sb.append("    public boolean isChanged(int ordinal) {\n");
+        sb.append("        return ordinal >= 1 && ordinal <= COLUMN_COUNT && (bits[(ordinal - 1) >>> 6] & 1L << (ordinal - 1)) != 0;\n    }\n\n");
+        sb.append("    public boolean isChanged(Path<?> path) {\n");
+        sb.append("        return isChanged(ordinal(path));\n    }\n\n");
+        sb.append("    public boolean isEmpty() {\n");
+        sb.append("        for (long word : bits) {\n");
+        sb.append("            if (word != 0) return false;\n");
+        sb.append("        }\n");
+        sb.append("        return true;\n    }\n\n");
+        sb.append("    /**\n     * 变更的字段数\n     */\n");
+        sb.append("    public int count() {\n");
+        sb.append("        int count = 0;\n");
+        sb.append("        for (long word : bits) {\n");
+        sb.append("            count += Long.bitCount(word);\n");
+        sb.append("        }\n");
+        sb.append("        return count;\n    }\n\n");
+        sb.append("    public void clear() {\n");
+        sb.append("        Arrays.fill(bits, 0L);\n    }\n\n");
+
+        sb.append("    /**\n     * 是否有主键以外的字段变更\n     */\n");
+        sb.append("    public boolean hasUpdates() {\n");
+        sb.append("        for (int i = 0; i < bits.length; i++) {\n");
+        sb.append("            if ((bits[i] & UPDATABLE[i]) != 0) return true;\n");
+        sb.append("        }\n");
+        sb.append("        return false;\n    }\n\n");
+
+        sb.append("    /**\n     * 将变更字段的当前值设置到update语句，并按主键过滤，须先判断hasUpdates()\n     */\n");
+        sb.append("    public SQLUpdateClause applyTo(SQLUpdateClause update, ").append(qClassName).append(" q, ").append(entity).append(" entity) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            if (column == primaryKey) continue;
+            sb.append("        if ((bits[").append(i >>> 6).append("] & 1L << ").append(i & 63).append(") != 0) update.set(q.")
+                    .append(column.getJavaField()).append(", ").append(column.getReadAccessor(packageName).read("entity")).append(");\n");
+        }
+        sb.append("        return update.where(q.").append(primaryKey.getJavaField()).append(".eq(")
+                .append(primaryKey.getReadAccessor(packageName).read("entity")).append("));\n    }\n\n");
+        sb.append("    /**\n     * 按主键更新变更的字段，没有主键以外的字段变更时不执行\n     *\n     * @return 影响行数\n     */\n");
+        sb.append("    public long update(SQLQueryFactory queryFactory, ").append(entity).append(" entity) {\n");
+        sb.append("        if (!hasUpdates()) return 0;\n");
+        sb.append("        ").append(qClassName).append(" q = ").append(qClassName).append('.').append(model.getVariableName()).append(";\n");
+        sb.append("        return applyTo(queryFactory.update(q), q, entity).execute();\n    }\n\n");
+
+        sb.append("    private static int ordinal(Path<?> path) {\n");
+        sb.append("        Path<?> parent = path.getMetadata().getParent();\n");
+        sb.append("        if (parent instanceof ").append(qClassName).append(") {\n");
+        sb.append("            ColumnMetadata metadata = ((RelationalPath<?>) parent).getMetadata(path);\n");
+        sb.append("            if (metadata != null) return metadata.getIndex();\n");
+        sb.append("        }\n");
+        sb.append("        throw new IllegalArgumentException(\"不是").append(qClassName).append("的字段：\" + path);\n    }\n\n");
+
+        sb.append("    /**\n     * 实体字段值的快照\n     */\n");
+        sb.append("    public static final class Snapshot {\n\n");
+        sb.append("        private final Object[] values;\n\n");
+        sb.append("        private Snapshot(Object[] values) {\n            this.values = values;\n        }\n\n");
+        sb.append("        /**\n         * 与快照相比值不同的字段\n         */\n");
+        sb.append("        public ").append(className).append(" changes(").append(entity).append(" entity) {\n");
+        sb.append("            ").append(className).append(" changes = new ").append(className).append("();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String read = column.getReadAccessor(packageName).read("entity");
+            if (serializesJson(column)) read = json(column, read);
+            sb.append("            if (!Objects.deepEquals(values[").append(i).append("], ").append(read)
+                    .append(")) changes.bits[").append(i >>> 6).append("] |= 1L << ").append(i & 63).append(";\n");
+        }
+        sb.append("            return changes;\n        }\n    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 非String类型的JSON字段按序列化后的文本比较，与是否开启querydsl.jsonPath无关，String类型的JSON字段直接比较
+     */
+    private static boolean serializesJson(ColumnInfo column) {
+        return column.isJson() && !column.getJavaType().equals("java.lang.String");
+    }
+
+    /**
+     * JSON字段序列化后的文本，字段对象被原地修改后也能比较出变更
+     */
+    private static String json(ColumnInfo column, String read) {
+        return JdbcAccessors.jsonType(column) + ".toJson(" + read + ")";
+    }
+
+    /**
+     * 字段值是否不同的条件，基本类型直接比较，浮点数按compare比较，JSON字段比较序列化后的文本
+     */
+    private static String changed(ColumnInfo column, String before, String after) {
+        if (serializesJson(column)) {
+            return "!Objects.equals(" + json(column, before) + ", " + json(column, after) + ")";
+        }
+        String primitive = column.isPrimitive() ? JdbcAccessors.primitiveType(column.getJavaType()) : null;
+        if (primitive == null) return "!Objects.deepEquals(" + before + ", " + after + ")";
+        if (primitive.equals("double")) return "Double.compare(" + before + ", " + after + ") != 0";
+        if (primitive.equals("float")) return "Float.compare(" + before + ", " + after + ") != 0";
+        return before + " != " + after;
+    }
+
+}
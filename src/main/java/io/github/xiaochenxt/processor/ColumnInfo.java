@@ -0,0 +1,360 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 表字段信息，构建完成后不可变
+ *
+ * @author xiaochen
+ */
+public final class ColumnInfo {
+
+    /**
+     * java字段类型
+     */
+    private final String javaType;
+
+    /**
+     * java字段名
+     */
+    private final String javaField;
+
+    /**
+     * 数据库字段名
+     */
+    private final String column;
+
+    /**
+     * 字段文档注释
+     */
+    private final String javadoc;
+
+    /**
+     * 字段长度
+     */
+    private final int length;
+
+    private final boolean nullable;
+
+    private final boolean isJson;
+
+    /**
+     * JSON字段是否以PostgreSQL的json、jsonb类型绑定参数
+     */
+    private final boolean jsonb;
+
+    /**
+     * 是否主键
+     */
+    private final boolean id;
+
+    /**
+     * 生成的SQL以创建推断类型的列
+     */
+    private final String columnDefinition;
+
+    private final int precision;
+
+    private final int scale;
+
+    /**
+     * 类型映射
+     */
+    private final TypeMapping typeMapping;
+
+    /**
+     * java字段是否基本类型
+     */
+    private final boolean primitive;
+
+    /**
+     * 外键，未声明时为null
+     */
+    private final ForeignKeyInfo foreignKey;
+
+    /**
+     * 声明该字段的类的二进制名，父类字段为父类
+     */
+    private final String declaringClass;
+
+    /**
+     * 字段直接访问
+     */
+    private final PropertyAccessor field;
+
+    /**
+     * getter方法，不存在时为null
+     */
+    private final PropertyAccessor getter;
+
+    /**
+     * setter方法，不存在时为null
+     */
+    private final PropertyAccessor setter;
+
+    private ColumnInfo(Builder builder) {
+        this.javaType = builder.javaType;
+        this.javaField = builder.javaField;
+        this.column = builder.column;
+        this.javadoc = builder.javadoc;
+        this.length = builder.length;
+        this.nullable = builder.nullable;
+        this.isJson = builder.isJson;
+        this.jsonb = builder.jsonb;
+        this.id = builder.id;
+        this.columnDefinition = builder.columnDefinition;
+        this.precision = builder.precision;
+        this.scale = builder.scale;
+        this.typeMapping = builder.typeMapping;
+        this.primitive = builder.primitive;
+        this.foreignKey = builder.foreignKey;
+        this.declaringClass = builder.declaringClass;
+        this.field = builder.field;
+        this.getter = builder.getter;
+        this.setter = builder.setter;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getJavaType() {
+        return javaType;
+    }
+
+    public String getJavaField() {
+        return javaField;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getJavadoc() {
+        return javadoc;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getColumnDefinition() {
+        return columnDefinition;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale != 0 ? scale : 2;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isJson() {
+        return isJson;
+    }
+
+    public boolean isJsonb() {
+        return jsonb;
+    }
+
+    public boolean isId() {
+        return id;
+    }
+
+    public TypeMapping getTypeMapping() {
+        return typeMapping;
+    }
+
+    public boolean isPrimitive() {
+        return primitive;
+    }
+
+    public ForeignKeyInfo getForeignKey() {
+        return foreignKey;
+    }
+
+    public String getDeclaringClass() {
+        return declaringClass;
+    }
+
+    public PropertyAccessor getField() {
+        return field;
+    }
+
+    public PropertyAccessor getGetter() {
+        return getter;
+    }
+
+    public PropertyAccessor getSetter() {
+        return setter;
+    }
+
+    /**
+     * 生成在指定包中的代码读取该属性的方式，优先直接访问字段
+     *
+     * @return 无法访问时返回null
+     */
+    public PropertyAccessor getReadAccessor(String packageName) {
+        if (field != null && field.isAccessibleFrom(packageName)) return field;
+        if (getter != null && getter.isAccessibleFrom(packageName)) return getter;
+        return null;
+    }
+
+    /**
+     * 生成在指定包中的代码写入该属性的方式，优先直接访问字段
+     *
+     * @return 无法访问时返回null
+     */
+    public PropertyAccessor getWriteAccessor(String packageName) {
+        if (field != null && field.isAccessibleFrom(packageName)) return field;
+        if (setter != null && setter.isAccessibleFrom(packageName)) return setter;
+        return null;
+    }
+
+    public static final class Builder {
+
+        private String javaType;
+
+        private String javaField;
+
+        private String column;
+
+        private String javadoc;
+
+        private int length;
+
+        private boolean nullable = true;
+
+        private boolean isJson;
+
+        private boolean jsonb;
+
+        private boolean id;
+
+        private String columnDefinition = "";
+
+        private int precision;
+
+        private int scale;
+
+        private TypeMapping typeMapping;
+
+        private boolean primitive;
+
+        private ForeignKeyInfo foreignKey;
+
+        private String declaringClass;
+
+        private PropertyAccessor field;
+
+        private PropertyAccessor getter;
+
+        private PropertyAccessor setter;
+
+        private Builder() {
+        }
+
+        public Builder javaType(String javaType) {
+            this.javaType = javaType;
+            return this;
+        }
+
+        public Builder javaField(String javaField) {
+            this.javaField = javaField;
+            return this;
+        }
+
+        public Builder column(String column) {
+            this.column = column;
+            return this;
+        }
+
+        public Builder javadoc(String javadoc) {
+            this.javadoc = javadoc;
+            return this;
+        }
+
+        public Builder length(int length) {
+            this.length = length;
+            return this;
+        }
+
+        public Builder nullable(boolean nullable) {
+            this.nullable = nullable;
+            return this;
+        }
+
+        public Builder json(boolean json) {
+            this.isJson = json;
+            return this;
+        }
+
+        public Builder jsonb(boolean jsonb) {
+            this.jsonb = jsonb;
+            return this;
+        }
+
+        public Builder id(boolean id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder columnDefinition(String columnDefinition) {
+            this.columnDefinition = columnDefinition;
+            return this;
+        }
+
+        public Builder precision(int precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        public Builder scale(int scale) {
+            this.scale = scale;
+            return this;
+        }
+
+        public Builder typeMapping(TypeMapping typeMapping) {
+            this.typeMapping = typeMapping;
+            return this;
+        }
+
+        public Builder primitive(boolean primitive) {
+            this.primitive = primitive;
+            return this;
+        }
+
+        public Builder foreignKey(ForeignKeyInfo foreignKey) {
+            this.foreignKey = foreignKey;
+            return this;
+        }
+
+        public Builder declaringClass(String declaringClass) {
+            this.declaringClass = declaringClass;
+            return this;
+        }
+
+        public Builder field(PropertyAccessor field) {
+            this.field = field;
+            return this;
+        }
+
+        public Builder getter(PropertyAccessor getter) {
+            this.getter = getter;
+            return this;
+        }
+
+        public Builder setter(PropertyAccessor setter) {
+            this.setter = setter;
+            return this;
+        }
+
+        public ColumnInfo build() {
+            return new ColumnInfo(this);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 内置的类型映射
+ *
+ * @author xiaochen
+ */
+class DefaultTypeMappingProvider implements TypeMappingProvider {
+
+    @Override
+    public void register(TypeMappings mappings) {
+        mappings.register("java.lang.String", TypeMapping.of(PathKind.STRING, column -> column.isJson()
+                ? "ofType(Types.VARCHAR).withSize(" + Integer.MAX_VALUE + ")"
+                : "ofType(Types.VARCHAR).withSize(" + column.getLength() + ")"));
+        mappings.register("java.lang.Integer", TypeMapping.of(PathKind.NUMBER, column -> {
+            if (column.getColumnDefinition().contains("tinyint")) return "ofType(Types.TINYINT).withSize(3)";
+            if (column.getColumnDefinition().contains("smallint")) return "ofType(Types.SMALLINT).withSize(3)";
+            return "ofType(Types.INTEGER).withSize(10)";
+        }));
+        mappings.register("java.lang.Long", TypeMapping.of(PathKind.NUMBER, "BIGINT", 19));
+        mappings.register("java.util.Date", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP", 19));
+        mappings.register("java.time.LocalDateTime", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP", 29, 6));
+        mappings.register("java.time.LocalDate", TypeMapping.of(PathKind.DATE_TIME, "DATE", 10));
+        mappings.register("java.time.LocalTime", TypeMapping.of(PathKind.DATE_TIME, "TIME", 10));
+        mappings.register("java.time.Instant", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP", 29, 6));
+        mappings.register("java.time.OffsetDateTime", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP_WITH_TIMEZONE", 35, 6));
+        mappings.register("java.time.ZonedDateTime", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP_WITH_TIMEZONE", 35, 6));
+        mappings.register("java.sql.Timestamp", TypeMapping.of(PathKind.DATE_TIME, "TIMESTAMP", 19));
+        mappings.register("java.math.BigDecimal", TypeMapping.of(PathKind.NUMBER, column ->
+                "ofType(Types.NUMERIC).withSize(" + column.getPrecision() + ").withDigits(" + column.getScale() + ")"));
+        mappings.register("java.math.BigInteger", TypeMapping.of(PathKind.NUMBER, "NUMERIC", 38, 0));
+        mappings.register("java.lang.Float", TypeMapping.of(PathKind.NUMBER, "FLOAT", 5));
+        mappings.register("java.lang.Double", TypeMapping.of(PathKind.NUMBER, "DOUBLE", 5));
+        mappings.register("java.lang.Byte", TypeMapping.of(PathKind.NUMBER, "CHAR", 1));
+        mappings.register("java.lang.Short", TypeMapping.of(PathKind.NUMBER, "NUMERIC", 5));
+        mappings.register("java.lang.Boolean", TypeMapping.of(PathKind.BOOLEAN, "BIT", 1));
+        mappings.register("java.util.UUID", TypeMapping.of(PathKind.COMPARABLE, "OTHER", 36));
+        mappings.register("byte[]", TypeMapping.of(PathKind.ARRAY, "VARBINARY", Integer.MAX_VALUE));
+    }
+
+}
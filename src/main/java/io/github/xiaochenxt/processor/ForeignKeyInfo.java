@@ -0,0 +1,33 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 字段上声明的外键
+ *
+ * @author xiaochen
+ */
+public final class ForeignKeyInfo {
+
+    /**
+     * 引用实体对应Q类的全限定名
+     */
+    private final String qClassName;
+
+    /**
+     * 引用的数据库字段名
+     */
+    private final String column;
+
+    public ForeignKeyInfo(String qClassName, String column) {
+        this.qClassName = qClassName;
+        this.column = column;
+    }
+
+    public String getQClassName() {
+        return qClassName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 实体上声明的索引
+ *
+ * @author xiaochen
+ */
+public final class IndexInfo {
+
+    private final String name;
+
+    private final boolean unique;
+
+    /**
+     * 数据库字段名，按索引中的顺序排列
+     */
+    private final List<String> columns;
+
+    public IndexInfo(String name, boolean unique, List<String> columns) {
+        this.name = name;
+        this.unique = unique;
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+}
@@ -0,0 +1,249 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按java类型生成ResultSet读取和PreparedStatement绑定代码，包装类型用基本类型getter/setter并单独处理空值
+ *
+ * @author xiaochen
+ */
+final class JdbcAccessors {
+
+    /**
+     * 包装类型到基本类型
+     */
+    private static final Map<String, String> PRIMITIVES = new HashMap<>();
+
+    /**
+     * 包装类型到ResultSet的基本类型getter
+     */
+    private static final Map<String, String> PRIMITIVE_GETTERS = new HashMap<>();
+
+    /**
+     * 包装类型为null时setNull使用的jdbc类型
+     */
+    private static final Map<String, String> NULL_TYPES = new HashMap<>();
+
+    /**
+     * 直接返回对象的ResultSet getter
+     */
+    private static final Map<String, String> OBJECT_GETTERS = new HashMap<>();
+
+    /**
+     * 基本类型到数组元素的拆箱表达式，数值类型按Number转换以兼容驱动返回的其他数值类型
+     */
+    private static final Map<String, String> UNBOXERS = new HashMap<>();
+
+    static {
+        primitive("java.lang.Long", "long", "getLong", "BIGINT");
+        primitive("java.lang.Integer", "int", "getInt", "INTEGER");
+        primitive("java.lang.Short", "short", "getShort", "SMALLINT");
+        primitive("java.lang.Byte", "byte", "getByte", "TINYINT");
+        primitive("java.lang.Double", "double", "getDouble", "DOUBLE");
+        primitive("java.lang.Float", "float", "getFloat", "REAL");
+        primitive("java.lang.Boolean", "boolean", "getBoolean", "BOOLEAN");
+        OBJECT_GETTERS.put("java.lang.String", "getString");
+        OBJECT_GETTERS.put("java.math.BigDecimal", "getBigDecimal");
+        OBJECT_GETTERS.put("java.util.Date", "getTimestamp");
+        OBJECT_GETTERS.put("java.sql.Timestamp", "getTimestamp");
+        OBJECT_GETTERS.put("java.sql.Date", "getDate");
+        OBJECT_GETTERS.put("java.sql.Time", "getTime");
+        OBJECT_GETTERS.put("byte[]", "getBytes");
+        UNBOXERS.put("long", "((Number) %s).longValue()");
+        UNBOXERS.put("int", "((Number) %s).intValue()");
+        UNBOXERS.put("short", "((Number) %s).shortValue()");
+        UNBOXERS.put("byte", "((Number) %s).byteValue()");
+        UNBOXERS.put("double", "((Number) %s).doubleValue()");
+        UNBOXERS.put("float", "((Number) %s).floatValue()");
+        UNBOXERS.put("boolean", "(Boolean) %s");
+        UNBOXERS.put("char", "(Character) %s");
+    }
+
+    private JdbcAccessors() {
+    }
+
+    private static void primitive(String javaType, String primitive, String getter, String nullType) {
+        PRIMITIVES.put(javaType, primitive);
+        PRIMITIVE_GETTERS.put(javaType, getter);
+        NULL_TYPES.put(javaType, nullType);
+    }
+
+    /**
+     * getter对应的setter，如 getLong -> setLong
+     */
+    private static String setter(String getter) {
+        return "s" + getter.substring(1);
+    }
+
+    /**
+     * 基本类型名，非包装类型返回null
+     */
+    static String primitiveType(String javaType) {
+        return PRIMITIVES.get(javaType);
+    }
+
+    /**
+     * 包装类型对应的ResultSet基本类型getter，非包装类型返回null
+     */
+    static String primitiveGetter(String javaType) {
+        return PRIMITIVE_GETTERS.get(javaType);
+    }
+
+    /**
+     * 基本类型的默认值字面量
+     */
+    static String defaultValue(String javaType) {
+        switch (javaType) {
+            case "java.lang.Boolean":
+                return "false";
+            case "java.lang.Long":
+                return "0L";
+            case "java.lang.Float":
+                return "0F";
+            case "java.lang.Double":
+                return "0D";
+            case "java.lang.Short":
+                return "(short) 0";
+            case "java.lang.Byte":
+                return "(byte) 0";
+            default:
+                return "0";
+        }
+    }
+
+    /**
+     * 局部变量的声明类型，基本类型字段使用基本类型
+     */
+    static String variableType(ColumnInfo column) {
+        String primitive = PRIMITIVES.get(column.getJavaType());
+        return column.isPrimitive() && primitive != null ? primitive : PathKind.shortName(column.getJavaType());
+    }
+
+    /**
+     * 生成读取一列到局部变量的语句
+     *
+     * @param resultSet ResultSet变量名
+     * @param index 列序号表达式
+     * @param variable 局部变量名
+     * @param indent 每行缩进
+     */
+    static void appendRead(StringBuilder sb, ColumnInfo column, String resultSet, String index, String variable, String indent) {
+        String javaType = column.getJavaType();
+        String type = PathKind.shortName(javaType);
+        String primitiveGetter = PRIMITIVE_GETTERS.get(javaType);
+        if (primitiveGetter != null) {
+            if (column.isPrimitive()) {
+                sb.append(indent).append(PRIMITIVES.get(javaType)).append(' ').append(variable).append(" = ")
+                        .append(resultSet).append('.').append(primitiveGetter).append('(').append(index).append(");\n");
+            } else {
+                sb.append(indent).append(PRIMITIVES.get(javaType)).append(' ').append(variable).append("$ = ")
+                        .append(resultSet).append('.').append(primitiveGetter).append('(').append(index).append(");\n");
+                sb.append(indent).append(type).append(' ').append(variable).append(" = ").append(resultSet)
+                        .append(".wasNull() ? null : ").append(variable).append("$;\n");
+            }
+            return;
+        }
+        String objectGetter = OBJECT_GETTERS.get(javaType);
+        if (column.getTypeMapping().getPathKind() == PathKind.JSON) {
+            sb.append(indent).append(type).append(' ').append(variable).append(" = ").append(jsonType(column))
+                    .append(".getValue(").append(resultSet).append(", ").append(index).append(");\n");
+        } else if (objectGetter != null) {
+            sb.append(indent).append(type).append(' ').append(variable).append(" = ")
+                    .append(resultSet).append('.').append(objectGetter).append('(').append(index).append(");\n");
+        } else if (javaType.equals("java.time.Instant")) {
+            sb.append(indent).append("java.sql.Timestamp ").append(variable).append("$ = ").append(resultSet).append(".getTimestamp(").append(index).append(");\n");
+            sb.append(indent).append(type).append(' ').append(variable).append(" = ").append(variable).append("$ == null ? null : ").append(variable).append("$.toInstant();\n");
+        } else if (column.getTypeMapping().getPathKind() == PathKind.ENUM) {
+            sb.append(indent).append("String ").append(variable).append("$ = ").append(resultSet).append(".getString(").append(index).append(");\n");
+            sb.append(indent).append(type).append(' ').append(variable).append(" = ").append(variable).append("$ == null ? null : ")
+                    .append(type).append(".valueOf(").append(variable).append("$);\n");
+        } else if (column.getTypeMapping().getPathKind() == PathKind.ARRAY) {
+            appendArrayRead(sb, type, resultSet, index, variable, indent);
+        } else {
+            sb.append(indent).append(type).append(' ').append(variable).append(" = ")
+                    .append(resultSet).append(".getObject(").append(index).append(", ").append(type).append(".class);\n");
+        }
+    }
+
+    /**
+     * 驱动返回的数组是包装类型的Integer[]、Long[]等（H2为Object[]），基本类型数组逐个拆箱，元素为null时抛出NullPointerException，
+     * 引用类型数组复制为字段的数组类型
+     */
+    private static void appendArrayRead(StringBuilder sb, String type, String resultSet, String index, String variable, String indent) {
+        String component = type.substring(0, type.length() - 2);
+        String unbox = UNBOXERS.get(component);
+        sb.append(indent).append("java.sql.Array ").append(variable).append("$ = ").append(resultSet).append(".getArray(").append(index).append(");\n");
+        sb.append(indent).append("Object ").append(variable).append("$a = ").append(variable).append("$ == null ? null : ").append(variable).append("$.getArray();\n");
+        sb.append(indent).append(type).append(' ').append(variable).append(";\n");
+        sb.append(indent).append("if (").append(variable).append("$a == null || ").append(variable).append("$a instanceof ").append(type).append(") {\n");
+        sb.append(indent).append("    ").append(variable).append(" = (").append(type).append(") ").append(variable).append("$a;\n");
+        sb.append(indent).append("} else {\n");
+        sb.append(indent).append("    Object[] ").append(variable).append("$o = (Object[]) ").append(variable).append("$a;\n");
+        if (unbox == null) {
+            sb.append(indent).append("    ").append(variable).append(" = java.util.Arrays.copyOf(").append(variable).append("$o, ")
+                    .append(variable).append("$o.length, ").append(type).append(".class);\n");
+        } else {
+            sb.append(indent).append("    ").append(variable).append(" = new ").append(component).append('[').append(variable).append("$o.length];\n");
+            sb.append(indent).append("    for (int ").append(variable).append("$i = 0; ").append(variable).append("$i < ").append(variable)
+                    .append("$o.length; ").append(variable).append("$i++) {\n");
+            sb.append(indent).append("        ").append(variable).append('[').append(variable).append("$i] = ")
+                    .append(String.format(unbox, variable + "$o[" + variable + "$i]")).append(";\n");
+            sb.append(indent).append("    }\n");
+        }
+        sb.append(indent).append("}\n");
+    }
+
+    /**
+     * 生成将一个值绑定到PreparedStatement参数的语句
+     *
+     * @param statement PreparedStatement变量名
+     * @param index 参数序号表达式
+     * @param variable 已读取属性值的局部变量名
+     * @param indent 每行缩进
+     */
+    static void appendBind(StringBuilder sb, ColumnInfo column, String statement, String index, String variable, String indent) {
+        String javaType = column.getJavaType();
+        String primitiveGetter = PRIMITIVE_GETTERS.get(javaType);
+        if (primitiveGetter != null) {
+            if (column.isPrimitive()) {
+                sb.append(indent).append(statement).append('.').append(setter(primitiveGetter)).append('(').append(index).append(", ").append(variable).append(");\n");
+            } else {
+                sb.append(indent).append("if (").append(variable).append(" == null) ").append(statement).append(".setNull(").append(index)
+                        .append(", java.sql.Types.").append(NULL_TYPES.get(javaType)).append(");\n");
+                sb.append(indent).append("else ").append(statement).append('.').append(setter(primitiveGetter)).append('(').append(index)
+                        .append(", ").append(variable).append(");\n");
+            }
+            return;
+        }
+        String objectGetter = OBJECT_GETTERS.get(javaType);
+        if (column.getTypeMapping().getPathKind() == PathKind.JSON) {
+            sb.append(indent).append(jsonType(column)).append(".setValue(").append(statement).append(", ").append(index)
+                    .append(", ").append(variable).append(");\n");
+            return;
+        }
+        sb.append(indent).append(statement);
+        if (javaType.equals("java.util.Date")) {
+            sb.append(".setTimestamp(").append(index).append(", ").append(variable).append(" == null ? null : new java.sql.Timestamp(")
+                    .append(variable).append(".getTime()));\n");
+        } else if (objectGetter != null) {
+            sb.append('.').append(setter(objectGetter)).append('(').append(index).append(", ").append(variable).append(");\n");
+        } else if (javaType.equals("java.time.Instant")) {
+            sb.append(".setTimestamp(").append(index).append(", ").append(variable).append(" == null ? null : java.sql.Timestamp.from(")
+                    .append(variable).append("));\n");
+        } else if (column.getTypeMapping().getPathKind() == PathKind.ENUM) {
+            sb.append(".setString(").append(index).append(", ").append(variable).append(" == null ? null : ").append(variable).append(".name());\n");
+        } else {
+            sb.append(".setObject(").append(index).append(", ").append(variable).append(");\n");
+        }
+    }
+
+    /**
+     * JSON字段共享的JsonType，与Q类中JsonPath使用的实例相同
+     */
+    static String jsonType(ColumnInfo column) {
+        String type = PathKind.shortName(column.getJavaType());
+        return "io.github.xiaochenxt.sql.JsonType.of(" + type + ".class, " + column.isJsonb() + ")";
+    }
+
+}
@@ -0,0 +1,223 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 生成实体的键集分页和分块扫描：按主键或唯一索引排序，用上一页最后一行的键过滤，深分页与第一页的开销相同
+ *
+ * @author xiaochen
+ */
+public class KeysetRenderer extends AbstractRenderer {
+
+    public KeysetRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "Keyset";
+    }
+
+    /**
+     * 能否生成，须有可比较的主键或唯一索引
+     */
+    public static boolean supports(TableModel model) {
+        return !keys(model).isEmpty();
+    }
+
+    /**
+     * 可用作分页的键：主键在前，其后为字段都可比较的唯一索引
+     */
+    static List<List<ColumnInfo>> keys(TableModel model) {
+        List<List<ColumnInfo>> keys = new ArrayList<>();
+        ColumnInfo primaryKey = model.getPrimaryKey();
+        if (primaryKey != null && primaryKey.getTypeMapping().getPathKind().isComparable()) {
+            keys.add(Collections.singletonList(primaryKey));
+        }
+        for (IndexInfo index : model.getIndexes()) {
+            if (!index.isUnique()) continue;
+            List<ColumnInfo> key = new ArrayList<>(index.getColumns().size());
+            for (String name : index.getColumns()) {
+                ColumnInfo column = model.getColumn(name);
+                if (column == null || !column.getTypeMapping().getPathKind().isComparable()) {
+                    key = null;
+                    break;
+                }
+                key.add(column);
+            }
+            if (key != null && !keys.contains(key)) keys.add(key);
+        }
+        return keys;
+    }
+
+    public String render(TableModel model) {
+        String className = className(model);
+        List<List<ColumnInfo>> keys = keys(model);
+        StringBuilder sb = new StringBuilder(2048 + keys.size() * 2048);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import com.querydsl.core.Tuple;\n" +
+                "import com.querydsl.core.types.Expression;\n" +
+                "import com.querydsl.core.types.Predicate;\n" +
+                "import com.querydsl.sql.SQLQuery;\n" +
+                "import com.querydsl.sql.SQLQueryFactory;\n" +
+                "import com.querydsl.sql.StatementOptions;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.util.ArrayList;\n" +
+                "import java.util.List;\n" +
+                "import java.util.function.Consumer;\n\n");
+        appendHeader(sb, model, "键集分页，按键升序排列，键的字段须非空");
+        sb.append("public final class ").append(className).append(" {\n\n");
+        sb.append("    private ").append(className).append("() {\n    }\n\n");
+        for (List<ColumnInfo> key : keys) {
+            appendKey(sb, model, key, key.size() == 1 && key.get(0).isId() ? "" : suffix(key));
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void appendKey(StringBuilder sb, TableModel model, List<ColumnInfo> key, String suffix) {
+        String qClassName = model.getQClassName();
+        String fields = fields(key);
+        StringBuilder parameters = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        for (ColumnInfo column : key) {
+            parameters.append(PathKind.shortName(column.getJavaType())).append(' ').append(last(column)).append(", ");
+            arguments.append(last(column)).append(", ");
+        }
+        String after = "after" + suffix;
+
+        sb.append("    /**\n     * 按").append(fields).append("升序取上一页最后一行之后的limit行，");
+        if (key.size() == 1) {
+            sb.append(last(key.get(0))).append("为null时取第一页\n     */\n");
+        } else {
+            sb.append("键的字段全部为null时取第一页，部分为null时抛出IllegalArgumentException\n     */\n");
+        }
+        sb.append("    public static <T> SQLQuery<T> ").append(after).append("(SQLQuery<T> query, ").append(parameters).append("long limit) {\n");
+        sb.append("        return ").append(after).append("(query, ").append(qClassName).append('.').append(model.getVariableName())
+                .append(", ").append(arguments).append("limit);\n    }\n\n");
+        sb.append("    /**\n     * @param q 查询中使用的Q类实例，可为别名\n     */\n");
+        sb.append("    public static <T> SQLQuery<T> ").append(after).append("(SQLQuery<T> query, ").append(qClassName).append(" q, ")
+                .append(parameters).append("long limit) {\n");
+        if (key.size() == 1) {
+            sb.append("        if (").append(last(key.get(0))).append(" != null) query.where(").append(seek(key)).append(");\n");
+        } else {
+            appendCompositeSeek(sb, key);
+        }
+        sb.append("        return query.orderBy(");
+        for (int i = 0; i < key.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("q.").append(key.get(i).getJavaField()).append(".asc()");
+        }
+        sb.append(").limit(limit);\n    }\n\n");
+
+        sb.append("    /**\n     * 按").append(fields).append("升序分块扫描，每块一次查询，内存占用与块大小成正比\n     *\n");
+        sb.append("     * @param where 过滤条件，可为null\n");
+        sb.append("     * @param chunkSize 每块的行数\n");
+        sb.append("     * @param fetchSize 驱动每次拉取的行数，0为驱动默认值\n");
+        sb.append("     * @return 扫描的总行数\n     */\n");
+        sb.append("    public static <T> long scan").append(suffix).append("(SQLQueryFactory queryFactory, Expression<T> projection, Predicate where, ")
+                .append("int chunkSize, int fetchSize, Consumer<? super List<T>> consumer) {\n");
+        sb.append("        if (chunkSize < 1) throw new IllegalArgumentException(\"chunkSize必须大于0：\" + chunkSize);\n");
+        sb.append("        ").append(qClassName).append(" q = ").append(qClassName).append('.').append(model.getVariableName()).append(";\n");
+        sb.append("        StatementOptions options = StatementOptions.builder().setFetchSize(fetchSize).build();\n");
+        for (ColumnInfo column : key) {
+            sb.append("        ").append(PathKind.shortName(column.getJavaType())).append(' ').append(last(column)).append(" = null;\n");
+        }
+        sb.append("        long total = 0;\n");
+        sb.append("        while (true) {\n");
+        sb.append("            SQLQuery<Tuple> query = queryFactory.select(");
+        for (ColumnInfo column : key) {
+            sb.append("q.").append(column.getJavaField()).append(", ");
+        }
+        sb.append("projection).from(q);\n");
+        sb.append("            if (where != null) query.where(where);\n");
+        sb.append("            query.setStatementOptions(options);\n");
+        sb.append("            List<Tuple> rows = ").append(after).append("(query, q, ").append(arguments).append("chunkSize).fetch();\n");
+        sb.append("            if (rows.isEmpty()) return total;\n");
+        sb.append("            List<T> chunk = new ArrayList<>(rows.size());\n");
+        sb.append("            for (Tuple row : rows) {\n");
+        sb.append("                chunk.add(row.get(projection));\n");
+        sb.append("            }\n");
+        sb.append("            consumer.accept(chunk);\n");
+        sb.append("            total += rows.size();\n");
+        sb.append("            if (rows.size() < chunkSize) return total;\n");
+        sb.append("            Tuple last = rows.get(rows.size() - 1);\n");
+        for (ColumnInfo column : key) {
+            sb.append("            ").append(last(column)).append(" = last.get(q.").append(column.getJavaField()).append(");\n");
+        }
+        sb.append("        }\n    }\n\n");
+    }
+
+    /**
+     * 多字段的键须全部为null或全部非null，部分为null时比较条件中会出现null参数
+     */
+    private static void appendCompositeSeek(StringBuilder sb, List<ColumnInfo> key) {
+        StringBuilder anyPresent = new StringBuilder();
+        StringBuilder anyMissing = new StringBuilder();
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < key.size(); i++) {
+            String last = last(key.get(i));
+            if (i > 0) {
+                anyPresent.append(" || ");
+                anyMissing.append(" || ");
+                message.append(" + \", ");
+            }
+            anyPresent.append(last).append(" != null");
+            anyMissing.append(last).append(" == null");
+            message.append(key.get(i).getJavaField()).append("=\" + ").append(last);
+        }
+        sb.append("        if (").append(anyPresent).append(") {\n");
+        sb.append("            if (").append(anyMissing).append(") {\n");
+        sb.append("                throw new IllegalArgumentException(\"键的字段须全部为null或全部非null：").append(message).append(");\n");
+        sb.append("            }\n");
+        sb.append("            query.where(").append(seek(key)).append(");\n");
+        sb.append("        }\n");
+    }
+
+    /**
+     * 键大于上一行的条件，多个字段时展开为 a >= ? and (a > ? or (a = ? and b > ?))，首字段的范围条件可使用索引
+     */
+    private static String seek(List<ColumnInfo> key) {
+        String seek = seek(key, 0);
+        if (key.size() == 1) return seek;
+        ColumnInfo first = key.get(0);
+        return "q." + first.getJavaField() + ".goe(" + last(first) + ").and(" + seek + ")";
+    }
+
+    private static String seek(List<ColumnInfo> key, int i) {
+        ColumnInfo column = key.get(i);
+        String path = "q." + column.getJavaField();
+        String greater = path + ".gt(" + last(column) + ")";
+        if (i == key.size() - 1) return greater;
+        return greater + ".or(" + path + ".eq(" + last(column) + ").and(" + seek(key, i + 1) + "))";
+    }
+
+    private static String last(ColumnInfo column) {
+        String field = column.getJavaField();
+        return "last" + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
+
+    /**
+     * 唯一索引对应的方法名后缀，如 TenantIdAndOrderNo
+     */
+    private static String suffix(List<ColumnInfo> key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < key.size(); i++) {
+            String field = key.get(i).getJavaField();
+            if (i > 0) sb.append("And");
+            sb.append(Character.toUpperCase(field.charAt(0))).append(field.substring(1));
+        }
+        return sb.toString();
+    }
+
+    private static String fields(List<ColumnInfo> key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < key.size(); i++) {
+            if (i > 0) sb.append("、");
+            sb.append(key.get(i).getJavaField());
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.*;
+
+/**
+ * 汇总本次编译的全部实体和投影DTO生成GraalVM原生镜像的反射配置，只登记运行时会被反射访问的成员
+ *
+ * @author xiaochen
+ */
+public class NativeHintsRenderer {
+
+    /**
+     * BeanPath.as和实体路径解析通过该构造方法创建Q类实例
+     */
+    private static final List<String> PATH_METADATA = Collections.singletonList("com.querydsl.core.types.PathMetadata");
+
+    /**
+     * reflect-config.json，按类名排序，父类字段登记在声明的父类上
+     *
+     * @param models 按实体全限定名排序
+     * @param projections 标注@Projection的DTO的二进制名到各投影构造方法擦除后的参数类型
+     */
+    public String renderReflectConfig(List<TableModel> models, Map<String, List<List<String>>> projections) {
+        Map<String, ClassHints> classes = new TreeMap<>();
+        for (Map.Entry<String, List<List<String>>> projection : projections.entrySet()) {
+            classes.computeIfAbsent(projection.getKey(), ClassHints::new).constructors.addAll(projection.getValue());
+        }
+        for (TableModel model : models) {
+            ClassHints qClass = classes.computeIfAbsent(model.getQualifiedQClassName(), ClassHints::new);
+            qClass.fields.add(model.getVariableName());
+            qClass.methods.put("<init>", PATH_METADATA);
+            ClassHints entity = classes.computeIfAbsent(model.getEntityBinaryName(), ClassHints::new);
+            if (model.hasDefaultConstructor()) {
+                entity.methods.put("<init>", Collections.emptyList());
+            } else {
+                entity.allDeclaredConstructors = true;
+            }
+            for (ColumnInfo column : model.getColumns()) {
+                qClass.fields.add(column.getJavaField());
+                if (column.getForeignKey() != null) qClass.fields.add(column.getJavaField() + "Fk");
+                ClassHints declaring = classes.computeIfAbsent(column.getDeclaringClass(), ClassHints::new);
+                declaring.fields.add(column.getField().getName());
+                if (column.getGetter() != null) declaring.methods.put(column.getGetter().getName(), column.getGetter().getParameterTypes());
+                if (column.getSetter() != null) declaring.methods.put(column.getSetter().getName(), column.getSetter().getParameterTypes());
+                if (column.getTypeMapping().getPathKind() == PathKind.JSON && !column.getJavaType().startsWith("java.")) {
+                    classes.computeIfAbsent(column.getJavaType(), ClassHints::new).jsonBinding = true;
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder(classes.size() * 256);
+        sb.append('[');
+        String separator = "\n";
+        for (ClassHints hints : classes.values()) {
+            sb.append(separator);
+            hints.render(sb);
+            separator = ",\n";
+        }
+        sb.append("\n]\n");
+        return sb.toString();
+    }
+
+    /**
+     * resource-config.json，登记需要打包进镜像的资源
+     *
+     * @param resources 资源路径
+     */
+    public String renderResourceConfig(List<String> resources) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("{\n  \"resources\": {\n    \"includes\": [");
+        for (int i = 0; i < resources.size(); i++) {
+            sb.append(i == 0 ? "\n" : ",\n").append("      {\"pattern\": ").append(string("\\Q" + resources.get(i) + "\\E")).append('}');
+        }
+        sb.append("\n    ]\n  }\n}\n");
+        return sb.toString();
+    }
+
+    private static String string(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * 单个类需要登记的成员
+     */
+    private static final class ClassHints {
+
+        private final String name;
+
+        private final Set<String> fields = new TreeSet<>();
+
+        /**
+         * 方法名到参数类型，getter和setter不会重名
+         */
+        private final Map<String, List<String>> methods = new TreeMap<>();
+
+        /**
+         * 构造方法的参数类型，构造方法可能重载，不放入methods
+         */
+        private final List<List<String>> constructors = new ArrayList<>();
+
+        private boolean allDeclaredConstructors;
+
+        /**
+         * JSON字段的类型，JSON库通过反射创建实例并读写属性
+         */
+        private boolean jsonBinding;
+
+        private ClassHints(String name) {
+            this.name = name;
+        }
+
+        private void render(StringBuilder sb) {
+            sb.append("  {\n    \"name\": ").append(string(name));
+            if (allDeclaredConstructors || jsonBinding) sb.append(",\n    \"allDeclaredConstructors\": true");
+            if (jsonBinding) sb.append(",\n    \"allDeclaredFields\": true,\n    \"allPublicMethods\": true");
+            if (!fields.isEmpty()) {
+                sb.append(",\n    \"fields\": [");
+                String separator = "\n";
+                for (String field : fields) {
+                    sb.append(separator).append("      {\"name\": ").append(string(field)).append('}');
+                    separator = ",\n";
+                }
+                sb.append("\n    ]");
+            }
+            if (!methods.isEmpty() || !constructors.isEmpty()) {
+                sb.append(",\n    \"methods\": [");
+                String separator = "\n";
+                for (List<String> parameterTypes : constructors) {
+                    sb.append(separator);
+                    appendMethod(sb, "<init>", parameterTypes);
+                    separator = ",\n";
+                }
+                for (Map.Entry<String, List<String>> method : methods.entrySet()) {
+                    sb.append(separator);
+                    appendMethod(sb, method.getKey(), method.getValue());
+                    separator = ",\n";
+                }
+                sb.append("\n    ]");
+            }
+            sb.append("\n  }");
+        }
+
+        private static void appendMethod(StringBuilder sb, String name, List<String> parameterTypes) {
+            sb.append("      {\"name\": ").append(string(name)).append(", \"parameterTypes\": [");
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(string(parameterTypes.get(i)));
+            }
+            sb.append("]}");
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * Q类中字段对应的querydsl路径类型
+ *
+ * @author xiaochen
+ */
+public enum PathKind {
+
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    DATE_TIME,
+    DATE,
+    TIME,
+    COMPARABLE,
+    ENUM,
+    ARRAY,
+    /**
+     * 按JSON存储的非字符串类型，生成{@code io.github.xiaochenxt.sql.JsonPath}
+     */
+    JSON,
+    SIMPLE;
+
+    /**
+     * 路径是否支持gt、goe等比较，可用作排序和分页的键
+     */
+    public boolean isComparable() {
+        return this != ARRAY && this != JSON && this != SIMPLE;
+    }
+
+    /**
+     * 路径字段的声明类型，如 NumberPath&lt;Long&gt;
+     */
+    public String pathType(String javaType) {
+        String type = shortName(javaType);
+        switch (this) {
+            case STRING:
+                return "StringPath";
+            case NUMBER:
+                return "NumberPath<" + type + ">";
+            case BOOLEAN:
+                return "BooleanPath";
+            case DATE_TIME:
+                return "DateTimePath<" + type + ">";
+            case DATE:
+                return "DatePath<" + type + ">";
+            case TIME:
+                return "TimePath<" + type + ">";
+            case COMPARABLE:
+                return "ComparablePath<" + type + ">";
+            case ENUM:
+                return "EnumPath<" + type + ">";
+            case ARRAY:
+                return "ArrayPath<" + type + ", " + componentType(type) + ">";
+            case JSON:
+                return "io.github.xiaochenxt.sql.JsonPath<" + type + ">";
+            default:
+                return "SimplePath<" + type + ">";
+        }
+    }
+
+    /**
+     * 创建路径字段的表达式，如 createNumber("id", Long.class)
+     */
+    public String creator(String javaType, String property) {
+        String type = shortName(javaType);
+        switch (this) {
+            case STRING:
+                return "createString(\"" + property + "\")";
+            case NUMBER:
+                return "createNumber(\"" + property + "\", " + type + ".class)";
+            case BOOLEAN:
+                return "createBoolean(\"" + property + "\")";
+            case DATE_TIME:
+                return "createDateTime(\"" + property + "\", " + type + ".class)";
+            case DATE:
+                return "createDate(\"" + property + "\", " + type + ".class)";
+            case TIME:
+                return "createTime(\"" + property + "\", " + type + ".class)";
+            case COMPARABLE:
+                return "createComparable(\"" + property + "\", " + type + ".class)";
+            case ENUM:
+                return "createEnum(\"" + property + "\", " + type + ".class)";
+            case ARRAY:
+                return "createArray(\"" + property + "\", " + type + ".class)";
+            case JSON:
+                return jsonCreator(javaType, property, false);
+            default:
+                return "createSimple(\"" + property + "\", " + type + ".class)";
+        }
+    }
+
+    /**
+     * 创建JSON路径字段的表达式
+     *
+     * @param jsonb 是否以PostgreSQL的json、jsonb类型绑定参数
+     */
+    static String jsonCreator(String javaType, String property, boolean jsonb) {
+        String type = shortName(javaType);
+        return "add(new io.github.xiaochenxt.sql.JsonPath<" + type + ">(" + type + ".class, forProperty(\"" + property + "\"), " + jsonb + "))";
+    }
+
+    /**
+     * java.lang包下的类型省略包名
+     */
+    static String shortName(String javaType) {
+        if (javaType.startsWith("java.lang.") && javaType.indexOf('.', 10) < 0) {
+            return javaType.substring(10);
+        }
+        return javaType;
+    }
+
+    /**
+     * 数组元素类型，基本类型取包装类型
+     */
+    static String componentType(String arrayType) {
+        String component = arrayType.endsWith("[]") ? arrayType.substring(0, arrayType.length() - 2) : arrayType;
+        switch (component) {
+            case "byte":
+                return "Byte";
+            case "short":
+                return "Short";
+            case "int":
+                return "Integer";
+            case "long":
+                return "Long";
+            case "float":
+                return "Float";
+            case "double":
+                return "Double";
+            case "boolean":
+                return "Boolean";
+            case "char":
+                return "Character";
+            default:
+                return component;
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成实体的PostgreSQL COPY BINARY编解码：按字段顺序和类型直接读写二进制格式，不经过JDBC参数绑定
+ *
+ * @author xiaochen
+ */
+public class PgCopyRenderer extends AbstractRenderer {
+
+    public PgCopyRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "PgCopy";
+    }
+
+    /**
+     * 能否生成，字段类型都有对应的二进制格式，所有字段可读，且可按行映射器的方式创建实体
+     */
+    public static boolean supports(TableModel model) {
+        return supportsTypes(model) && BatchWriterRenderer.supports(model) && RowMapperRenderer.supports(model);
+    }
+
+    /**
+     * 字段类型是否都有对应的二进制格式
+     */
+    public static boolean supportsTypes(TableModel model) {
+        for (ColumnInfo column : model.getColumns()) {
+            if (readExpression(column, "reader") == null) return false;
+        }
+        return true;
+    }
+
+    public String render(TableModel model) {
+        List<ColumnInfo> columns = model.getColumns();
+        String entity = model.getClassName();
+        String className = className(model);
+        String packageName = model.getPackageName();
+        SqlStatements statements = new SqlStatements(model, SqlDialect.POSTGRESQL);
+        StringBuilder sb = new StringBuilder(4096 + columns.size() * 256);
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("import io.github.xiaochenxt.sql.PgCopyReader;\n" +
+                "import io.github.xiaochenxt.sql.PgCopyWriter;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.io.IOException;\n" +
+                "import java.util.function.Consumer;\n\n");
+        appendHeader(sb, model, "PostgreSQL COPY BINARY编解码，字段顺序与" + model.getQClassName() + "一致，表中字段的类型须与java类型对应，如Long对应bigint");
+        sb.append("public final class ").append(className).append(" {\n\n");
+        sb.append("    public static final int COLUMN_COUNT = ").append(columns.size()).append(";\n\n");
+        sb.append("    /**\n     * 导入语句，配合PgCopyWriter写出的数据\n     */\n");
+        sb.append("    public static final String COPY_IN = ").append(literal(statements.copyIn())).append(";\n\n");
+        sb.append("    /**\n     * 导出语句，输出可由PgCopyReader读取\n     */\n");
+        sb.append("    public static final String COPY_OUT = ").append(literal(statements.copyOut())).append(";\n\n");
+        sb.append("    private ").append(className).append("() {\n    }\n\n");
+
+        sb.append("    /**\n     * 写入一行\n     */\n");
+        sb.append("    public static void write(PgCopyWriter writer, ").append(entity).append(" entity) throws IOException {\n");
+        sb.append("        writer.startRow(COLUMN_COUNT);\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String variable = "v" + i;
+            sb.append("        ").append(JdbcAccessors.variableType(column)).append(' ').append(variable).append(" = ")
+                    .append(column.getReadAccessor(packageName).read("entity")).append(";\n");
+            if (column.isPrimitive()) {
+                sb.append("        ").append(writeStatement(column, "writer", variable)).append(";\n");
+            } else {
+                sb.append("        if (").append(variable).append(" == null) writer.writeNull();\n");
+                sb.append("        else ").append(writeStatement(column, "writer", variable)).append(";\n");
+            }
+        }
+        sb.append("    }\n\n");
+        sb.append("    /**\n     * 写入全部实体并写出结束标记\n     *\n     * @return 写入的行数\n     */\n");
+        sb.append("    public static long writeAll(PgCopyWriter writer, Iterable<? extends ").append(entity).append("> entities) throws IOException {\n");
+        sb.append("        long count = 0;\n");
+        sb.append("        for (").append(entity).append(" entity : entities) {\n");
+        sb.append("            write(writer, entity);\n");
+        sb.append("            count++;\n");
+        sb.append("        }\n");
+        sb.append("        writer.finish();\n");
+        sb.append("        return count;\n    }\n\n");
+
+        sb.append("    /**\n     * 读取一行，基本类型字段为null时取默认值\n     *\n     * @return 已读完时返回null\n     */\n");
+        sb.append("    public static ").append(entity).append(" read(PgCopyReader reader) throws IOException {\n");
+        sb.append("        int fieldCount = reader.nextRow();\n");
+        sb.append("        if (fieldCount < 0) return null;\n");
+        sb.append("        if (fieldCount != COLUMN_COUNT) throw new IOException(\"字段数为\" + fieldCount + \"，期望\" + COLUMN_COUNT);\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            sb.append("        ").append(JdbcAccessors.variableType(column)).append(" c").append(i).append(" = reader.readNull() ? ")
+                    .append(column.isPrimitive() ? JdbcAccessors.defaultValue(column.getJavaType()) : "null").append(" : ")
+                    .append(readExpression(column, "reader")).append(";\n");
+        }
+        RowMapperRenderer.appendInstantiation(sb, model, RowMapperRenderer.setterMode(model), "c", "");
+        sb.append("    }\n\n");
+        sb.append("    /**\n     * 读取全部行\n     *\n     * @return 读取的行数\n     */\n");
+        sb.append("    public static long readAll(PgCopyReader reader, Consumer<? super ").append(entity).append("> consumer) throws IOException {\n");
+        sb.append("        long count = 0;\n");
+        sb.append("        for (").append(entity).append(" entity = read(reader); entity != null; entity = read(reader)) {\n");
+        sb.append("            consumer.accept(entity);\n");
+        sb.append("            count++;\n");
+        sb.append("        }\n");
+        sb.append("        return count;\n    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 写入非null字段值的语句，不含分号
+     *
+     * @param writer PgCopyWriter变量名
+     * @param value 字段值变量名
+     */
+    static String writeStatement(ColumnInfo column, String writer, String value) {
+        String javaType = column.getJavaType();
+        PathKind pathKind = column.getTypeMapping().getPathKind();
+        if (pathKind == PathKind.JSON) {
+            return writer + ".writeJsonb(" + JdbcAccessors.jsonType(column) + ".toJson(" + value + "))";
+        }
+        if (pathKind == PathKind.ENUM) return writer + ".writeText(" + value + ".name())";
+        switch (javaType) {
+            case "java.lang.Long":
+                return writer + ".writeLong(" + value + ")";
+            case "java.lang.Integer":
+                return writer + ".writeInt(" + value + ")";
+            case "java.lang.Short":
+            case "java.lang.Byte":
+                return writer + ".writeShort(" + value + ")";
+            case "java.lang.Double":
+                return writer + ".writeDouble(" + value + ")";
+            case "java.lang.Float":
+                return writer + ".writeFloat(" + value + ")";
+            case "java.lang.Boolean":
+                return writer + ".writeBoolean(" + value + ")";
+            case "java.lang.String":
+                return writer + (column.isJson() ? ".writeJsonb(" : ".writeText(") + value + ")";
+            case "java.math.BigDecimal":
+            case "java.math.BigInteger":
+                return writer + ".writeNumeric(" + value + ")";
+            case "java.time.LocalDateTime":
+                return writer + ".writeTimestamp(" + value + ")";
+            case "java.sql.Timestamp":
+                return writer + ".writeTimestamp(" + value + ".toLocalDateTime())";
+            case "java.util.Date":
+                return writer + ".writeTimestamp(new java.sql.Timestamp(" + value + ".getTime()).toLocalDateTime())";
+            case "java.time.Instant":
+                return writer + ".writeTimestamptz(" + value + ")";
+            case "java.time.OffsetDateTime":
+            case "java.time.ZonedDateTime":
+                return writer + ".writeTimestamptz(" + value + ".toInstant())";
+            case "java.time.LocalDate":
+                return writer + ".writeDate(" + value + ")";
+            case "java.sql.Date":
+                return writer + ".writeDate(" + value + ".toLocalDate())";
+            case "java.time.LocalTime":
+                return writer + ".writeTime(" + value + ")";
+            case "java.sql.Time":
+                return writer + ".writeTime(" + value + ".toLocalTime())";
+            case "java.util.UUID":
+                return writer + ".writeUuid(" + value + ")";
+            case "byte[]":
+                return writer + ".writeBytes(" + value + ")";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 读取非null字段值的表达式，类型与字段的java类型一致
+     *
+     * @param reader PgCopyReader变量名
+     * @return 没有对应的二进制格式时返回null
+     */
+    static String readExpression(ColumnInfo column, String reader) {
+        String javaType = column.getJavaType();
+        String type = PathKind.shortName(javaType);
+        PathKind pathKind = column.getTypeMapping().getPathKind();
+        if (pathKind == PathKind.JSON) return JdbcAccessors.jsonType(column) + ".fromJson(" + reader + ".readJsonb())";
+        if (pathKind == PathKind.ENUM) return type + ".valueOf(" + reader + ".readText())";
+        switch (javaType) {
+            case "java.lang.Long":
+                return reader + ".readLong()";
+            case "java.lang.Integer":
+                return reader + ".readInt()";
+            case "java.lang.Short":
+                return reader + ".readShort()";
+            case "java.lang.Byte":
+                return "(byte) " + reader + ".readShort()";
+            case "java.lang.Double":
+                return reader + ".readDouble()";
+            case "java.lang.Float":
+                return reader + ".readFloat()";
+            case "java.lang.Boolean":
+                return reader + ".readBoolean()";
+            case "java.lang.String":
+                return reader + (column.isJson() ? ".readJsonb()" : ".readText()");
+            case "java.math.BigDecimal":
+                return reader + ".readNumeric()";
+            case "java.math.BigInteger":
+                return reader + ".readNumeric().toBigIntegerExact()";
+            case "java.time.LocalDateTime":
+                return reader + ".readTimestamp()";
+            case "java.sql.Timestamp":
+            case "java.util.Date":
+                return "java.sql.Timestamp.valueOf(" + reader + ".readTimestamp())";
+            case "java.time.Instant":
+                return reader + ".readTimestamptz()";
+            case "java.time.OffsetDateTime":
+                return "java.time.OffsetDateTime.ofInstant(" + reader + ".readTimestamptz(), java.time.ZoneOffset.UTC)";
+            case "java.time.ZonedDateTime":
+                return "java.time.ZonedDateTime.ofInstant(" + reader + ".readTimestamptz(), java.time.ZoneOffset.UTC)";
+            case "java.time.LocalDate":
+                return reader + ".readDate()";
+            case "java.sql.Date":
+                return "java.sql.Date.valueOf(" + reader + ".readDate())";
+            case "java.time.LocalTime":
+                return reader + ".readTime()";
+            case "java.sql.Time":
+                return "java.sql.Time.valueOf(" + reader + ".readTime())";
+            case "java.util.UUID":
+                return reader + ".readUuid()";
+            case "byte[]":
+                return reader + ".readBytes()";
+            default:
+                return null;
+        }
+    }
+
+}
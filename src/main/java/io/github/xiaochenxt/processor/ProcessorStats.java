@@ -0,0 +1,276 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 处理器耗时统计，按轮次和实体记录各阶段耗时、生成字节数和字段数，未开启时所有方法均不做任何事
+ *
+ * @author xiaochen
+ */
+final class ProcessorStats {
+
+    /**
+     * 统计的阶段，父类解析和注释读取包含在模型构建之中
+     */
+    enum Phase {
+        MODEL,
+        SUPERCLASS,
+        JAVADOC,
+        RENDER,
+        WRITE;
+
+        final String key = name().toLowerCase(Locale.ROOT) + "Nanos";
+    }
+
+    /**
+     * 报告中列出的最慢实体数
+     */
+    private static final int SLOWEST = 5;
+
+    private final boolean enabled;
+
+    private final List<RoundStats> rounds = new ArrayList<>();
+
+    private final List<EntityStats> entities = new ArrayList<>();
+
+    /**
+     * 各阶段的嵌套深度，递归调用时只计最外层
+     */
+    private final int[] depth = new int[Phase.values().length];
+
+    private RoundStats round;
+
+    private EntityStats entity;
+
+    ProcessorStats(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void beginRound() {
+        if (!enabled) return;
+        round = new RoundStats(rounds.size() + 1, System.nanoTime());
+        rounds.add(round);
+    }
+
+    void endRound() {
+        if (!enabled) return;
+        round.nanos = System.nanoTime() - round.start;
+    }
+
+    void beginEntity(String name) {
+        if (!enabled) return;
+        entity = new EntityStats(name, round.number, true);
+        entities.add(entity);
+        round.entities++;
+    }
+
+    /**
+     * 开始记录投影、注册表等不属于某个实体的输出
+     */
+    void beginOutput(String name) {
+        if (!enabled) return;
+        entity = new EntityStats(name, round.number, false);
+        entities.add(entity);
+    }
+
+    /**
+     * 结束当前实体或输出，之后的耗时不再计入
+     */
+    void endEntity() {
+        entity = null;
+    }
+
+    void columns(int columns) {
+        if (!enabled || entity == null) return;
+        entity.columns = columns;
+    }
+
+    /**
+     * 记录一个生成的文件
+     */
+    void file(int bytes) {
+        if (!enabled || entity == null) return;
+        entity.files++;
+        entity.bytes += bytes;
+    }
+
+    /**
+     * @return 开始时间，传给{@link #end(Phase, long)}
+     */
+    long begin(Phase phase) {
+        if (!enabled) return 0;
+        depth[phase.ordinal()]++;
+        return System.nanoTime();
+    }
+
+    void end(Phase phase, long start) {
+        if (!enabled) return;
+        if (--depth[phase.ordinal()] == 0 && entity != null) {
+            entity.nanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * 汇总信息，每行一条
+     */
+    List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        EntityStats total = total();
+        long nanos = 0;
+        for (RoundStats r : rounds) nanos += r.nanos;
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("querydsl处理器：").append(rounds.size()).append("轮，").append(entityCount()).append("个实体，")
+                .append(entities.size() - entityCount()).append("个其他输出，")
+                .append(total.columns).append("个字段，生成").append(total.files).append("个文件共").append(total.bytes)
+                .append("字节，耗时").append(millis(nanos)).append("ms");
+        lines.add(sb.toString());
+        sb.setLength(0);
+        sb.append("各阶段耗时：");
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0) sb.append("，");
+            sb.append(phase.name().toLowerCase(Locale.ROOT)).append(' ').append(millis(total.nanos[phase.ordinal()])).append("ms");
+        }
+        lines.add(sb.toString());
+        List<EntityStats> slowest = new ArrayList<>(entities);
+        slowest.sort(Comparator.comparingLong(EntityStats::totalNanos).reversed());
+        for (int i = 0; i < Math.min(SLOWEST, slowest.size()); i++) {
+            EntityStats e = slowest.get(i);
+            lines.add("  " + e.name + "：" + millis(e.totalNanos()) + "ms，" + e.columns + "个字段，" + e.bytes + "字节");
+        }
+        return lines;
+    }
+
+    /**
+     * 机器可读的JSON报告
+     */
+    String toJson(String processor) {
+        StringBuilder sb = new StringBuilder(512 + entities.size() * 256);
+        EntityStats total = total();
+        sb.append("{\n  \"processor\": ").append(quote(processor)).append(",\n");
+        sb.append("  \"totals\": {\"rounds\": ").append(rounds.size()).append(", \"entities\": ").append(entityCount())
+                .append(", \"outputs\": ").append(entities.size() - entityCount())
+                .append(", \"columns\": ").append(total.columns)
+                .append(", \"files\": ").append(total.files).append(", \"bytes\": ").append(total.bytes);
+        appendNanos(sb, total);
+        sb.append("},\n  \"rounds\": [");
+        for (int i = 0; i < rounds.size(); i++) {
+            RoundStats r = rounds.get(i);
+            sb.append(i == 0 ? "\n" : ",\n").append("    {\"round\": ").append(r.number).append(", \"entities\": ").append(r.entities)
+                    .append(", \"nanos\": ").append(r.nanos).append('}');
+        }
+        sb.append(rounds.isEmpty() ? "],\n" : "\n  ],\n");
+        sb.append("  \"entities\": [");
+        for (int i = 0; i < entities.size(); i++) {
+            EntityStats e = entities.get(i);
+            sb.append(i == 0 ? "\n" : ",\n").append("    {\"entity\": ").append(quote(e.name)).append(", \"round\": ").append(e.round)
+                    .append(", \"kind\": ").append(e.entity ? "\"entity\"" : "\"output\"")
+                    .append(", \"columns\": ").append(e.columns)
+                    .append(", \"files\": ").append(e.files).append(", \"bytes\": ").append(e.bytes);
+            appendNanos(sb, e);
+            sb.append('}');
+        }
+        sb.append(entities.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    private int entityCount() {
+        int count = 0;
+        for (EntityStats e : entities) {
+            if (e.entity) count++;
+        }
+        return count;
+    }
+
+    /**
+     * 所有实体和其他输出的合计
+     */
+    private EntityStats total() {
+        EntityStats total = new EntityStats(null, 0, false);
+        for (EntityStats e : entities) {
+            total.columns += e.columns;
+            total.files += e.files;
+            total.bytes += e.bytes;
+            for (int i = 0; i < e.nanos.length; i++) total.nanos[i] += e.nanos[i];
+        }
+        return total;
+    }
+
+    private static void appendNanos(StringBuilder sb, EntityStats e) {
+        for (Phase phase : Phase.values()) {
+            sb.append(", \"").append(phase.key).append("\": ").append(e.nanos[phase.ordinal()]);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static final class RoundStats {
+
+        final int number;
+
+        final long start;
+
+        int entities;
+
+        long nanos;
+
+        RoundStats(int number, long start) {
+            this.number = number;
+            this.start = start;
+        }
+
+    }
+
+    private static final class EntityStats {
+
+        final String name;
+
+        final int round;
+
+        /**
+         * 为false时是投影、注册表等其他输出
+         */
+        final boolean entity;
+
+        int columns;
+
+        int files;
+
+        long bytes;
+
+        final long[] nanos = new long[Phase.values().length];
+
+        EntityStats(String name, int round, boolean entity) {
+            this.name = name;
+            this.round = round;
+            this.entity = entity;
+        }
+
+        /**
+         * 总耗时，只累加互不包含的阶段
+         */
+        long totalNanos() {
+            return nanos[Phase.MODEL.ordinal()] + nanos[Phase.RENDER.ordinal()] + nanos[Phase.WRITE.ordinal()];
+        }
+
+    }
+
+}
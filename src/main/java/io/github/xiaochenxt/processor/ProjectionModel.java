@@ -0,0 +1,105 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 标注@Projection的DTO及其投影构造方法，构建完成后不可变
+ *
+ * @author xiaochen
+ */
+public final class ProjectionModel {
+
+    /**
+     * DTO全限定名
+     */
+    private final String typeName;
+
+    private final String packageName;
+
+    /**
+     * DTO类名
+     */
+    private final String className;
+
+    /**
+     * 每个投影构造方法的参数，按声明顺序排列
+     */
+    private final List<List<Parameter>> constructors;
+
+    public ProjectionModel(String typeName, String packageName, String className, List<List<Parameter>> constructors) {
+        this.typeName = typeName;
+        this.packageName = packageName;
+        this.className = className;
+        List<List<Parameter>> copy = new ArrayList<>(constructors.size());
+        for (List<Parameter> parameters : constructors) {
+            copy.add(Collections.unmodifiableList(new ArrayList<>(parameters)));
+        }
+        this.constructors = Collections.unmodifiableList(copy);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getQClassName() {
+        return "Q" + className;
+    }
+
+    public List<List<Parameter>> getConstructors() {
+        return constructors;
+    }
+
+    /**
+     * 构造方法参数
+     */
+    public static final class Parameter {
+
+        private final String name;
+
+        /**
+         * 表达式的类型，与Q类中路径的java类型一致，基本类型为包装类型
+         */
+        private final String javaType;
+
+        /**
+         * 擦除后的参数类型，用于类字面量和类型转换
+         */
+        private final String rawType;
+
+        private final boolean primitive;
+
+        public Parameter(String name, String javaType, String rawType, boolean primitive) {
+            this.name = name;
+            this.javaType = javaType;
+            this.rawType = rawType;
+            this.primitive = primitive;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getJavaType() {
+            return javaType;
+        }
+
+        public String getRawType() {
+            return rawType;
+        }
+
+        public boolean isPrimitive() {
+            return primitive;
+        }
+    }
+
+}
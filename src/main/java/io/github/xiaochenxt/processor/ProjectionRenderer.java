@@ -0,0 +1,93 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成DTO的投影，继承ConstructorExpression并重写newInstance直接调用构造方法
+ *
+ * @author xiaochen
+ */
+public class ProjectionRenderer extends AbstractRenderer {
+
+    public ProjectionRenderer(String generator) {
+        super(generator);
+    }
+
+    public String render(ProjectionModel model) {
+        String type = model.getTypeName();
+        String qClassName = model.getQClassName();
+        List<List<ProjectionModel.Parameter>> constructors = model.getConstructors();
+        boolean overloaded = constructors.size() > 1;
+        StringBuilder sb = new StringBuilder(1024 + constructors.size() * 512);
+        if (!model.getPackageName().isEmpty()) sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import com.querydsl.core.types.ConstructorExpression;\n" +
+                "import com.querydsl.core.types.Expression;\n" +
+                "import javax.annotation.processing.Generated;\n\n");
+        appendHeader(sb, type, "投影参数的顺序和类型与构造方法一致，如select(new " + qClassName + "(q.id, q.name))");
+        sb.append("public class ").append(qClassName).append(" extends ConstructorExpression<").append(type).append("> {\n\n");
+        sb.append("    private static final long serialVersionUID = ").append(type.hashCode()).append("L;\n\n");
+        if (overloaded) {
+            sb.append("    /**\n     * 使用的构造方法序号\n     */\n");
+            sb.append("    private final int constructor;\n\n");
+        }
+        for (int c = 0; c < constructors.size(); c++) {
+            List<ProjectionModel.Parameter> parameters = constructors.get(c);
+            sb.append("    public ").append(qClassName).append("(");
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0) sb.append(", ");
+                ProjectionModel.Parameter parameter = parameters.get(i);
+                sb.append("Expression<").append(parameter.getJavaType()).append("> ").append(parameter.getName());
+            }
+            sb.append(") {\n");
+            sb.append("        super(").append(type).append(".class, new Class<?>[]{");
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(parameters.get(i).getRawType()).append(".class");
+            }
+            sb.append("}");
+            for (ProjectionModel.Parameter parameter : parameters) {
+                sb.append(", ").append(parameter.getName());
+            }
+            sb.append(");\n");
+            if (overloaded) sb.append("        this.constructor = ").append(c).append(";\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("    @Override\n");
+        sb.append("    @SuppressWarnings(\"unchecked\")\n");
+        sb.append("    public ").append(type).append(" newInstance(Object... args) {\n");
+        if (overloaded) {
+            sb.append("        switch (constructor) {\n");
+            for (int c = 0; c < constructors.size(); c++) {
+                sb.append(c == constructors.size() - 1 ? "            default:\n" : "            case " + c + ":\n");
+                sb.append("                return ");
+                appendNew(sb, type, constructors.get(c));
+            }
+            sb.append("        }\n");
+        } else {
+            sb.append("        return ");
+            appendNew(sb, type, constructors.get(0));
+        }
+        sb.append("    }\n\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 调用构造方法，基本类型参数为null时取默认值
+     */
+    private static void appendNew(StringBuilder sb, String type, List<ProjectionModel.Parameter> parameters) {
+        sb.append("new ").append(type).append("(");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) sb.append(", ");
+            ProjectionModel.Parameter parameter = parameters.get(i);
+            if (parameter.isPrimitive()) {
+                sb.append("args[").append(i).append("] != null ? (").append(parameter.getJavaType()).append(") args[").append(i).append("] : ")
+                        .append(JdbcAccessors.defaultValue(parameter.getJavaType()));
+            } else {
+                sb.append("(").append(parameter.getRawType()).append(") args[").append(i).append("]");
+            }
+        }
+        sb.append(");\n");
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 实体属性的读写方式：字段直接访问或getter/setter方法
+ *
+ * @author xiaochen
+ */
+public final class PropertyAccessor {
+
+    private final String name;
+
+    private final boolean method;
+
+    private final boolean isPublic;
+
+    private final boolean isPrivate;
+
+    /**
+     * 声明所在的包
+     */
+    private final String packageName;
+
+    /**
+     * 方法擦除后的参数类型，字段为空列表
+     */
+    private final List<String> parameterTypes;
+
+    private PropertyAccessor(String name, boolean method, boolean isPublic, boolean isPrivate, String packageName, List<String> parameterTypes) {
+        this.name = name;
+        this.method = method;
+        this.isPublic = isPublic;
+        this.isPrivate = isPrivate;
+        this.packageName = packageName;
+        this.parameterTypes = parameterTypes;
+    }
+
+    public static PropertyAccessor field(String name, boolean isPublic, boolean isPrivate, String packageName) {
+        return new PropertyAccessor(name, false, isPublic, isPrivate, packageName, Collections.emptyList());
+    }
+
+    public static PropertyAccessor method(String name, boolean isPublic, boolean isPrivate, String packageName, List<String> parameterTypes) {
+        return new PropertyAccessor(name, true, isPublic, isPrivate, packageName, Collections.unmodifiableList(parameterTypes));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isMethod() {
+        return method;
+    }
+
+    public List<String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * 生成在指定包中的代码能否访问
+     */
+    public boolean isAccessibleFrom(String packageName) {
+        return isPublic || (!isPrivate && this.packageName.equals(packageName));
+    }
+
+    /**
+     * 读取属性的表达式
+     */
+    public String read(String target) {
+        return method ? target + "." + name + "()" : target + "." + name;
+    }
+
+    /**
+     * 写入属性的语句，不含分号
+     */
+    public String write(String target, String value) {
+        return method ? target + "." + name + "(" + value + ")" : target + "." + name + " = " + value;
+    }
+
+}
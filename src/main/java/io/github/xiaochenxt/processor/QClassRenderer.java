@@ -0,0 +1,172 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 将表模型渲染为querydsl-sql格式的Q类源码，整个类写入一个预分配容量的缓冲区
+ *
+ * @author xiaochen
+ */
+public class QClassRenderer extends AbstractRenderer {
+
+    /**
+     * 预渲染SQL的方言，为null时不生成
+     */
+    private final SqlDialect dialect;
+
+    /**
+     * 是否生成索引元数据，生成时Q类在运行时依赖本构件
+     */
+    private final boolean indexMetadata;
+
+    public QClassRenderer(String generator, SqlDialect dialect) {
+        this(generator, dialect, false);
+    }
+
+    public QClassRenderer(String generator, SqlDialect dialect, boolean indexMetadata) {
+        super(generator);
+        this.dialect = dialect;
+        this.indexMetadata = indexMetadata;
+    }
+
+    public String render(TableModel model) {
+        List<ColumnInfo> columns = model.getColumns();
+        String qClassName = model.getQClassName();
+        String schema = model.getSchema();
+        String table = model.getTable();
+        StringBuilder sb = new StringBuilder(2048 + columns.size() * 384);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import static com.querydsl.core.types.PathMetadataFactory.*;\n" +
+                "import com.querydsl.core.types.dsl.*;\n" +
+                "import com.querydsl.core.types.PathMetadata;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import com.querydsl.core.types.Path;\n" +
+                "import com.querydsl.sql.ColumnMetadata;\n" +
+                "import java.sql.Types;\n\n");
+        appendHeader(sb, model, null);
+        List<IndexInfo> indexes = indexMetadata ? model.getIndexes() : java.util.Collections.<IndexInfo>emptyList();
+        sb.append("public class ").append(qClassName).append(" extends com.querydsl.sql.RelationalPathBase<").append(qClassName).append('>');
+        if (!indexes.isEmpty()) sb.append(" implements io.github.xiaochenxt.sql.IndexedPath");
+        sb.append(" {\n\n");
+        // 静态元数据必须在默认实例之前初始化
+        sb.append("    /**\n     * 字段元数据，按字段序号排列，所有实例共享\n     */\n");
+        sb.append("    private static final ColumnMetadata[] COLUMN_METADATA = {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            sb.append("            ColumnMetadata.named(\"").append(column.getColumn()).append("\").withIndex(").append(i + 1).append(").")
+                    .append(columnType(column)).append(i == columns.size() - 1 ? "\n" : ",\n");
+        }
+        sb.append("    };\n\n");
+        if (!indexes.isEmpty()) appendIndexes(sb, indexes);
+        sb.append("    public static final ").append(qClassName).append(' ').append(model.getVariableName())
+                .append(" = new ").append(qClassName).append("(\"").append(table).append("\");\n\n");
+        for (ColumnInfo column : columns) {
+            writeColumn(sb, column);
+            if (column == model.getPrimaryKey()) {
+                sb.append("    /**\n     * 数据库主键\n     */\n");
+                sb.append("    public final com.querydsl.sql.PrimaryKey<").append(qClassName).append("> primaryKey = createPrimaryKey(")
+                        .append(column.getJavaField()).append(");\n\n");
+            }
+            ForeignKeyInfo foreignKey = column.getForeignKey();
+            if (foreignKey != null) {
+                sb.append("    /**\n     * 外键，引用").append(foreignKey.getQClassName()).append("的").append(foreignKey.getColumn()).append("\n     */\n");
+                sb.append("    public final com.querydsl.sql.ForeignKey<").append(foreignKey.getQClassName()).append("> ").append(column.getJavaField())
+                        .append("Fk = createForeignKey(").append(column.getJavaField()).append(", ").append(literal(foreignKey.getColumn())).append(");\n\n");
+            }
+        }
+        if (dialect != null) appendStatements(sb, new SqlStatements(model, dialect));
+        sb.append("    public ").append(qClassName).append("(String variable) {\n");
+        sb.append("        super(").append(qClassName).append(".class, forVariable(variable), \"").append(schema).append("\", \"").append(table).append("\");\n");
+        sb.append("        addMetadata();\n    }\n\n");
+        sb.append("    public ").append(qClassName).append("(String variable, String schema, String table) {\n");
+        sb.append("        super(").append(qClassName).append(".class, forVariable(variable), schema, table);\n");
+        sb.append("        addMetadata();\n    }\n\n");
+        sb.append("    public ").append(qClassName).append("(Path<? extends ").append(qClassName).append("> path) {\n");
+        sb.append("        super(path.getType(), path.getMetadata(), \"").append(schema).append("\", \"").append(table).append("\");\n");
+        sb.append("        addMetadata();\n    }\n\n");
+        sb.append("    public ").append(qClassName).append("(PathMetadata metadata) {\n");
+        sb.append("        super(").append(qClassName).append(".class, metadata, \"").append(schema).append("\", \"").append(table).append("\");\n");
+        sb.append("        addMetadata();\n    }\n\n");
+        sb.append("    /**\n     * 创建别名实例，表名和schema取自默认实例；每个字段路径都引用所属实例，不能从默认实例复制，\n");
+        sb.append("     * 实例不可变，频繁使用的别名应保存为常量复用\n     */\n");
+        sb.append("    public static ").append(qClassName).append(" alias(String variable) {\n");
+        sb.append("        return new ").append(qClassName).append("(variable, ").append(model.getVariableName()).append(".getSchemaName(), ")
+                .append(model.getVariableName()).append(".getTableName());\n");
+        sb.append("    }\n\n");
+        if (!indexes.isEmpty()) {
+            sb.append("    @Override\n");
+            sb.append("    public java.util.List<io.github.xiaochenxt.sql.IndexMetadata> getIndexes() {\n        return INDEXES;\n    }\n\n");
+        }
+        sb.append("    public void addMetadata() {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append("        addMetadata(").append(columns.get(i).getJavaField()).append(", COLUMN_METADATA[").append(i).append("]);\n");
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 生成声明的索引，所有实例共享
+     */
+    private void appendIndexes(StringBuilder sb, List<IndexInfo> indexes) {
+        sb.append("    /**\n     * 声明的索引，字段按索引中的顺序排列，不含主键\n     */\n");
+        sb.append("    public static final java.util.List<io.github.xiaochenxt.sql.IndexMetadata> INDEXES = java.util.Collections.unmodifiableList(java.util.Arrays.asList(\n");
+        for (int i = 0; i < indexes.size(); i++) {
+            IndexInfo index = indexes.get(i);
+            sb.append("            new io.github.xiaochenxt.sql.IndexMetadata(").append(literal(index.getName())).append(", ").append(index.isUnique());
+            for (String column : index.getColumns()) {
+                sb.append(", ").append(literal(column));
+            }
+            sb.append(i == indexes.size() - 1 ? ")));\n\n" : "),\n");
+        }
+    }
+
+    /**
+     * 生成预渲染的增删改查SQL常量，没有主键时只生成查询列和插入语句，只有主键时不生成更新语句
+     */
+    private void appendStatements(StringBuilder sb, SqlStatements statements) {
+        String dialect = statements.getDialect().name().toLowerCase(java.util.Locale.ROOT);
+        appendConstant(sb, "SQL_COLUMNS", "全部查询列，顺序与字段一致", statements.columns());
+        appendConstant(sb, "SQL_INSERT", "插入全部字段，参数顺序与字段一致，方言：" + dialect, statements.insert());
+        if (statements.hasPrimaryKey()) {
+            appendConstant(sb, "SQL_SELECT_BY_ID", "按主键查询全部字段，方言：" + dialect, statements.selectById());
+            if (statements.hasNonKeyColumns()) {
+                appendConstant(sb, "SQL_UPDATE_BY_ID", "按主键更新其余字段，参数顺序与字段一致，主键为最后一个参数，方言：" + dialect, statements.updateById());
+            }
+            appendConstant(sb, "SQL_DELETE_BY_ID", "按主键删除，方言：" + dialect, statements.deleteById());
+        }
+    }
+
+    private void appendConstant(StringBuilder sb, String name, String javadoc, String value) {
+        sb.append("    /**\n     * ").append(javadoc).append("\n     */\n");
+        sb.append("    public static final String ").append(name).append(" = ").append(literal(value)).append(";\n\n");
+    }
+
+    /**
+     * 生成字段对应的路径常量
+     */
+    private void writeColumn(StringBuilder sb, ColumnInfo column) {
+        String javadoc = column.getJavadoc();
+        if (javadoc != null && !javadoc.isEmpty()) {
+            sb.append("    /**\n     *").append(javadoc).append("     */\n");
+        }
+        String javaType = column.getJavaType();
+        PathKind pathKind = column.getTypeMapping().getPathKind();
+        String creator = pathKind == PathKind.JSON
+                ? PathKind.jsonCreator(javaType, column.getJavaField(), column.isJsonb())
+                : pathKind.creator(javaType, column.getJavaField());
+        sb.append("    public final ").append(pathKind.pathType(javaType)).append(' ').append(column.getJavaField())
+                .append(" = ").append(creator).append(";\n\n");
+    }
+
+    /**
+     * 字段对应的jdbc类型、长度等元数据
+     */
+    private String columnType(ColumnInfo column) {
+        String columnType = column.getTypeMapping().columnType(column);
+        if (!column.isNullable()) columnType += ".notNull()";
+        return columnType;
+    }
+
+}
@@ -8,17 +8,19 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
-import javax.lang.model.type.DeclaredType;
-import javax.lang.model.type.TypeKind;
-import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.Writer;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * 表字段常量生成，完全兼容querydsl-sql生成的格式
@@ -27,12 +29,156 @@ import java.util.stream.Collectors;
  */
 public class QuerydslSqlSpringAnnotationProcessor extends AbstractProcessor {
 
+    /**
+     * 是否为每个实体生成按列序号读取的RowMapper和querydsl投影
+     */
+    public static final String OPTION_ROW_MAPPER = "querydsl.rowMapper";
+
+    /**
+     * 是否为每个实体生成基本类型字段的紧凑行类型及按列存储的批量形式
+     */
+    public static final String OPTION_ROW_TYPE = "querydsl.rowType";
+
+    /**
+     * 是否生成批量写入器，需同时指定querydsl.dialect
+     */
+    public static final String OPTION_BATCH_WRITER = "querydsl.batchWriter";
+
+    /**
+     * 是否为每个实体生成字段变更记录及只更新变更字段的update
+     */
+    public static final String OPTION_CHANGE_TRACKER = "querydsl.changeTracker";
+
+    /**
+     * 是否为每个实体生成按主键或唯一索引的键集分页和分块扫描
+     */
+    public static final String OPTION_KEYSET = "querydsl.keyset";
+
+    /**
+     * 是否为每个实体生成按分片缓存Q类实例的分片工厂
+     */
+    public static final String OPTION_SHARDS = "querydsl.shards";
+
+    /**
+     * 是否为每个实体生成PostgreSQL COPY BINARY编解码
+     */
+    public static final String OPTION_PG_COPY = "querydsl.pgCopy";
+
+    /**
+     * 是否让声明了索引的Q类实现IndexedPath并生成INDEXES，生成的Q类在运行时依赖本构件
+     */
+    public static final String OPTION_INDEX_METADATA = "querydsl.indexMetadata";
+
+    /**
+     * 是否为按JSON存储的非字符串字段生成JsonPath，生成的Q类在运行时依赖本构件，未开启时仍为SimplePath等
+     */
+    public static final String OPTION_JSON_PATH = "querydsl.jsonPath";
+
+    /**
+     * 是否统计处理器耗时，最后一轮输出汇总并写出JSON报告
+     */
+    public static final String OPTION_STATS = "querydsl.stats";
+
+    /**
+     * 生成Q类注册表的全限定类名，不指定时不生成
+     */
+    public static final String OPTION_REGISTRY_CLASS = "querydsl.registryClass";
+
+    /**
+     * 是否生成GraalVM原生镜像的反射配置
+     */
+    public static final String OPTION_NATIVE_HINTS = "querydsl.nativeHints";
+
+    /**
+     * Q类索引文件在类输出目录中的位置，每行一个Q类的全限定名
+     */
+    public static final String REGISTRY_INDEX = "META-INF/querydsl-sql-spring-annotation-apt/qclasses";
+
+    /**
+     * 耗时报告在类输出目录中的位置
+     */
+    public static final String STATS_REPORT = "META-INF/querydsl-sql-spring-annotation-apt/stats.json";
+
+    /**
+     * 原生镜像配置在类输出目录中的上级目录，其下按注册表类名或实体包名区分模块
+     */
+    public static final String NATIVE_HINTS_DIR = "META-INF/native-image/querydsl-sql-spring-annotation-apt/";
+
+    private static final String TABLE = "org.springframework.data.relational.core.mapping.Table";
+
+    private static final String PROJECTION = "io.github.xiaochenxt.annotation.Projection";
+
     private Map<String, String> options;
 
+    /**
+     * 父类解析结果缓存，键为带类型参数的父类类型
+     */
+    private final Map<String, List<ColumnInfo>> superclassColumns = new HashMap<>();
+
+    private QClassRenderer qClassRenderer;
+
+    private final RowMapperRenderer rowMapperRenderer = new RowMapperRenderer(getClass().getName());
+
+    private final RowTypeRenderer rowTypeRenderer = new RowTypeRenderer(getClass().getName());
+
+    private final ChangeTrackerRenderer changeTrackerRenderer = new ChangeTrackerRenderer(getClass().getName());
+
+    private final KeysetRenderer keysetRenderer = new KeysetRenderer(getClass().getName());
+
+    private final ShardsRenderer shardsRenderer = new ShardsRenderer(getClass().getName());
+
+    private final PgCopyRenderer pgCopyRenderer = new PgCopyRenderer(getClass().getName());
+
+    private final ProjectionRenderer projectionRenderer = new ProjectionRenderer(getClass().getName());
+
+    private final BatchWriterRenderer batchWriterRenderer = new BatchWriterRenderer(getClass().getName());
+
+    /**
+     * 预渲染SQL的方言，未指定时为null
+     */
+    private SqlDialect dialect;
+
+    private ProcessorStats stats;
+
+    private final RegistryRenderer registryRenderer = new RegistryRenderer(getClass().getName());
+
+    private final NativeHintsRenderer nativeHintsRenderer = new NativeHintsRenderer();
+
+    /**
+     * 注册表和原生镜像配置汇总的实体，按全限定名排序
+     */
+    private final Map<String, TableModel> aggregated = new TreeMap<>();
+
+    /**
+     * 原生镜像配置汇总的投影构造方法，键为DTO的二进制名，值为各构造方法擦除后的参数类型
+     */
+    private final Map<String, List<List<String>>> projectionConstructors = new TreeMap<>();
+
+    private boolean aggregatedWritten;
+
+    private TypeMappings typeMappings;
+
     @Override
     public synchronized void init(final ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         options = processingEnv.getOptions();
+        stats = new ProcessorStats(isEnabled(OPTION_STATS));
+        try {
+            typeMappings = TypeMappings.load(options, QuerydslSqlSpringAnnotationProcessor.class.getClassLoader());
+        } catch (IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+            typeMappings = TypeMappings.load(Collections.emptyMap(), QuerydslSqlSpringAnnotationProcessor.class.getClassLoader());
+        }
+        try {
+            dialect = SqlDialect.of(options.get(SqlDialect.OPTION_DIALECT));
+        } catch (IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+        }
+        qClassRenderer = new QClassRenderer(getClass().getName(), dialect, isEnabled(OPTION_INDEX_METADATA));
+        if (isEnabled(OPTION_BATCH_WRITER) && dialect == null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    OPTION_BATCH_WRITER + "需要同时指定" + SqlDialect.OPTION_DIALECT + "，跳过生成批量写入器");
+        }
     }
 
     /**
@@ -41,10 +187,38 @@ public class QuerydslSqlSpringAnnotationProcessor extends AbstractProcessor {
     @Override
     public Set<String> getSupportedAnnotationTypes() {
         Set<String> annotations = new HashSet<>();
-        annotations.add("org.springframework.data.relational.core.mapping.Table");
+        annotations.add(TABLE);
+        annotations.add(PROJECTION);
         return annotations;
     }
 
+    /**
+     * 支持的处理器参数
+     */
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> supportedOptions = new HashSet<>();
+        supportedOptions.add(TypeMappings.OPTION_TYPE_MAPPINGS);
+        supportedOptions.add(TypeMappings.OPTION_JSON_TYPES);
+        supportedOptions.add(OPTION_ROW_MAPPER);
+        supportedOptions.add(OPTION_ROW_TYPE);
+        supportedOptions.add(SqlDialect.OPTION_DIALECT);
+        supportedOptions.add(OPTION_BATCH_WRITER);
+        supportedOptions.add(OPTION_CHANGE_TRACKER);
+        supportedOptions.add(OPTION_KEYSET);
+        supportedOptions.add(OPTION_SHARDS);
+        supportedOptions.add(OPTION_PG_COPY);
+        supportedOptions.add(OPTION_INDEX_METADATA);
+        supportedOptions.add(OPTION_JSON_PATH);
+        supportedOptions.add(OPTION_STATS);
+        supportedOptions.add(OPTION_REGISTRY_CLASS);
+        supportedOptions.add(OPTION_NATIVE_HINTS);
+        // 耗时报告、注册表和原生镜像配置汇总所有实体，开启时按聚合式增量处理
+        boolean aggregating = isEnabled(OPTION_STATS) || isAggregating();
+        supportedOptions.add(aggregating ? "org.gradle.annotation.processing.aggregating" : "org.gradle.annotation.processing.isolating");
+        return supportedOptions;
+    }
+
     /**
      * 支持最新版本
      */
@@ -55,212 +229,600 @@ public class QuerydslSqlSpringAnnotationProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        Set<Element> elements = new HashSet<>();
+        stats.beginRound();
+        Set<Element> elements = new LinkedHashSet<>();
+        Map<TypeElement, List<Element>> projections = new LinkedHashMap<>();
         for (TypeElement annotation : annotations) {
-            elements.addAll(roundEnv.getElementsAnnotatedWith(annotation));
+            if (annotation.getQualifiedName().contentEquals(PROJECTION)) {
+                for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                    TypeElement type = element.getKind() == ElementKind.CONSTRUCTOR ? (TypeElement) element.getEnclosingElement() : (TypeElement) element;
+                    projections.computeIfAbsent(type, key -> new ArrayList<>()).add(element);
+                }
+            } else {
+                elements.addAll(roundEnv.getElementsAnnotatedWith(annotation));
+            }
         }
         for (Element element : elements) {
             if (element.getKind() == ElementKind.CLASS) {
                 TypeElement typeElement = (TypeElement) element;
                 generateFieldConstants(typeElement);
+                stats.endEntity();
+            }
+        }
+        for (Map.Entry<TypeElement, List<Element>> entry : projections.entrySet()) {
+            stats.beginOutput(entry.getKey().getQualifiedName().toString());
+            generateProjection(entry.getKey(), entry.getValue());
+            stats.endEntity();
+        }
+        // 生成Q类的下一轮不再有新的实体，此时汇总写出注册表和原生镜像配置
+        if (!aggregatedWritten && (!aggregated.isEmpty() || !projectionConstructors.isEmpty()) && (elements.isEmpty() || roundEnv.processingOver())) {
+            aggregatedWritten = true;
+            List<TableModel> models = new ArrayList<>(aggregated.values());
+            if (registryClass() != null && !models.isEmpty()) {
+                stats.beginOutput(registryClass());
+                writeRegistry(models);
+                stats.endEntity();
+            }
+            if (isEnabled(OPTION_NATIVE_HINTS)) {
+                stats.beginOutput(NATIVE_HINTS_DIR);
+                writeNativeHints(models);
+                stats.endEntity();
             }
         }
+        stats.endRound();
+        if (roundEnv.processingOver() && stats.isEnabled()) writeStats();
         return false;
     }
 
+    /**
+     * 注册表的全限定类名，未指定时返回null
+     */
+    private String registryClass() {
+        String registryClass = options.get(OPTION_REGISTRY_CLASS);
+        return registryClass == null || registryClass.trim().isEmpty() ? null : registryClass.trim();
+    }
+
+    /**
+     * 是否需要汇总全部实体
+     */
+    private boolean isAggregating() {
+        return registryClass() != null || isEnabled(OPTION_NATIVE_HINTS);
+    }
+
+    /**
+     * 写出注册表、Q类索引文件和ServiceLoader配置
+     */
+    private void writeRegistry(List<TableModel> models) {
+        String registryClass = registryClass();
+        Set<String> tables = new HashSet<>();
+        for (TableModel model : models) {
+            if (!tables.add(model.getSchema() + "." + model.getTable())) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "多个实体对应同一张表" + model.getSchema() + "." + model.getTable() + "，注册表按表名查找时不返回" + model.getEntityName());
+            }
+        }
+        try {
+            Filer filer = processingEnv.getFiler();
+            JavaFileObject sourceFile = filer.createSourceFile(registryClass);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(registryRenderer.render(registryClass, models));
+            }
+            FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY_INDEX);
+            try (Writer writer = index.openWriter()) {
+                writer.write(registryRenderer.renderIndex(models));
+            }
+            FileObject services = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/io.github.xiaochenxt.sql.TableRegistry");
+            try (Writer writer = services.openWriter()) {
+                writer.write(registryClass + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString());
+        }
+    }
+
+    /**
+     * 写出原生镜像的反射配置，开启注册表时同时登记Q类索引文件
+     */
+    private void writeNativeHints(List<TableModel> models) {
+        String registryClass = registryClass();
+        String module = registryClass != null ? registryClass
+                : !models.isEmpty() ? models.get(0).getPackageName() : projectionConstructors.keySet().iterator().next();
+        String dir = NATIVE_HINTS_DIR + module + "/";
+        try {
+            Filer filer = processingEnv.getFiler();
+            FileObject reflectConfig = filer.createResource(StandardLocation.CLASS_OUTPUT, "", dir + "reflect-config.json");
+            try (Writer writer = reflectConfig.openWriter()) {
+                writer.write(nativeHintsRenderer.renderReflectConfig(models, projectionConstructors));
+            }
+            if (registryClass != null && !models.isEmpty()) {
+                FileObject resourceConfig = filer.createResource(StandardLocation.CLASS_OUTPUT, "", dir + "resource-config.json");
+                try (Writer writer = resourceConfig.openWriter()) {
+                    writer.write(nativeHintsRenderer.renderResourceConfig(Collections.singletonList(REGISTRY_INDEX)));
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString());
+        }
+    }
+
+    /**
+     * 输出耗时汇总并写出JSON报告
+     */
+    private void writeStats() {
+        for (String line : stats.summary()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, line);
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", STATS_REPORT);
+            try (Writer writer = resource.openWriter()) {
+                writer.write(stats.toJson(getClass().getName()));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "写出耗时报告失败：" + e);
+        }
+    }
+
     /**
      * 生成字段常量信息
      */
     private void generateFieldConstants(TypeElement typeElement) {
         String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
-        String className = typeElement.getSimpleName().toString();
         String qClassName = "Q" + typeElement.getSimpleName();
+        stats.beginEntity(typeElement.getQualifiedName().toString());
+        long start = stats.begin(ProcessorStats.Phase.MODEL);
+        TableModel model = buildTableModel(typeElement, packageName);
+        stats.end(ProcessorStats.Phase.MODEL, start);
+        stats.columns(model.getColumns().size());
+        if (isAggregating()) {
+            if (aggregatedWritten) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "注册表或原生镜像配置已生成，未包含该实体", typeElement);
+            } else {
+                aggregated.put(model.getEntityName(), model);
+            }
+        }
+        writeSource(packageName + "." + qClassName, render(() -> qClassRenderer.render(model)), typeElement);
+        if (isEnabled(OPTION_ROW_MAPPER)) {
+            if (RowMapperRenderer.supports(model)) {
+                writeSource(packageName + "." + RowMapperRenderer.className(model), render(() -> rowMapperRenderer.render(model)), typeElement);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "存在不可写的字段且没有与字段顺序一致的构造方法，跳过生成" + RowMapperRenderer.className(model), typeElement);
+            }
+        }
+        boolean pgCopy = isEnabled(OPTION_PG_COPY) && PgCopyRenderer.supportsTypes(model);
+        if (isEnabled(OPTION_ROW_TYPE)) {
+            writeSource(packageName + "." + RowTypeRenderer.rowClassName(model), render(() -> rowTypeRenderer.renderRow(model)), typeElement);
+            writeSource(packageName + "." + RowTypeRenderer.batchClassName(model), render(() -> rowTypeRenderer.renderBatch(model, pgCopy)), typeElement);
+        }
+        if (dialect != null && isEnabled(OPTION_BATCH_WRITER)) {
+            if (BatchWriterRenderer.supports(model)) {
+                writeSource(packageName + "." + BatchWriterRenderer.className(model),
+                        render(() -> batchWriterRenderer.render(model, new SqlStatements(model, dialect))), typeElement);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "存在不可读的字段，跳过生成" + BatchWriterRenderer.className(model), typeElement);
+            }
+        }
+        if (isEnabled(OPTION_CHANGE_TRACKER)) {
+            if (ChangeTrackerRenderer.supports(model)) {
+                writeSource(packageName + "." + ChangeTrackerRenderer.className(model), render(() -> changeTrackerRenderer.render(model)), typeElement);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "没有@Id或存在不可读的字段，跳过生成" + ChangeTrackerRenderer.className(model), typeElement);
+            }
+        }
+        if (isEnabled(OPTION_KEYSET)) {
+            if (KeysetRenderer.supports(model)) {
+                writeSource(packageName + "." + KeysetRenderer.className(model), render(() -> keysetRenderer.render(model)), typeElement);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "没有可比较的@Id或唯一索引，跳过生成" + KeysetRenderer.className(model), typeElement);
+            }
+        }
+        if (isEnabled(OPTION_SHARDS)) {
+            writeSource(packageName + "." + ShardsRenderer.className(model), render(() -> shardsRenderer.render(model)), typeElement);
+        }
+        if (isEnabled(OPTION_PG_COPY)) {
+            if (PgCopyRenderer.supports(model)) {
+                writeSource(packageName + "." + PgCopyRenderer.className(model), render(() -> pgCopyRenderer.render(model)), typeElement);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "存在没有对应二进制格式的字段类型、不可读的字段或无法创建实体，跳过生成" + PgCopyRenderer.className(model), typeElement);
+            }
+        }
+    }
+
+    /**
+     * 生成DTO的投影，标注在类上时使用唯一的非私有构造方法，record使用规范构造方法
+     *
+     * @param annotated 标注@Projection的类或构造方法
+     */
+    private void generateProjection(TypeElement typeElement, List<Element> annotated) {
+        if (hasAnnotation(typeElement, TABLE)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "实体的Q类已按@Table生成，@Projection只能用于DTO", typeElement);
+            return;
+        }
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (Element element : annotated) {
+            if (element.getKind() == ElementKind.CONSTRUCTOR) {
+                constructors.add((ExecutableElement) element);
+            } else if (!constructors.isEmpty() || annotated.size() > 1) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Projection不能同时标注在类和构造方法上", typeElement);
+                return;
+            } else {
+                ExecutableElement constructor = projectionConstructor(typeElement);
+                if (constructor == null) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "存在多个非私有构造方法，请将@Projection标注在构造方法上", typeElement);
+                    return;
+                }
+                constructors.add(constructor);
+            }
+        }
+        Types typeUtils = processingEnv.getTypeUtils();
+        List<List<ProjectionModel.Parameter>> parameterLists = new ArrayList<>(constructors.size());
+        List<List<String>> binaryParameterTypes = new ArrayList<>(constructors.size());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Projection的构造方法不能为private", constructor);
+                return;
+            }
+            List<ProjectionModel.Parameter> parameters = new ArrayList<>(constructor.getParameters().size());
+            List<String> binaryTypes = new ArrayList<>(constructor.getParameters().size());
+            for (VariableElement parameter : constructor.getParameters()) {
+                TypeMirror type = parameter.asType();
+                parameters.add(new ProjectionModel.Parameter(parameter.getSimpleName().toString(), javaType(type),
+                        typeUtils.erasure(type).toString(), type.getKind().isPrimitive()));
+                binaryTypes.add(binaryName(typeUtils.erasure(type)));
+            }
+            parameterLists.add(parameters);
+            binaryParameterTypes.add(binaryTypes);
+        }
+        // ConstructorExpression创建时通过反射查找构造方法
+        if (isEnabled(OPTION_NATIVE_HINTS) && !aggregatedWritten) {
+            projectionConstructors.put(processingEnv.getElementUtils().getBinaryName(typeElement).toString(), binaryParameterTypes);
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+        ProjectionModel model = new ProjectionModel(typeElement.getQualifiedName().toString(), packageName,
+                typeElement.getSimpleName().toString(), parameterLists);
+        writeSource(packageName.isEmpty() ? model.getQClassName() : packageName + "." + model.getQClassName(),
+                render(() -> projectionRenderer.render(model)), typeElement);
+    }
+
+    /**
+     * 类上标注@Projection时使用的构造方法：唯一的非私有构造方法，record为参数与字段一致的规范构造方法
+     *
+     * @return 无法确定时返回null
+     */
+    private ExecutableElement projectionConstructor(TypeElement typeElement) {
+        List<ExecutableElement> candidates = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE)) candidates.add(constructor);
+        }
+        if (candidates.size() == 1) return candidates.get(0);
+        if (!typeElement.getKind().name().equals("RECORD")) return null;
+        Types typeUtils = processingEnv.getTypeUtils();
+        List<TypeMirror> components = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC)) components.add(field.asType());
+        }
+        for (ExecutableElement constructor : candidates) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.size() != components.size()) continue;
+            boolean canonical = true;
+            for (int i = 0; i < parameters.size() && canonical; i++) {
+                canonical = typeUtils.isSameType(parameters.get(i).asType(), components.get(i));
+            }
+            if (canonical) return constructor;
+        }
+        return null;
+    }
+
+    /**
+     * 处理器参数是否开启
+     */
+    private boolean isEnabled(String option) {
+        return Boolean.parseBoolean(options.get(option));
+    }
+
+    /**
+     * 构建实体对应的表模型
+     */
+    private TableModel buildTableModel(TypeElement typeElement, String packageName) {
+        LinkedHashMap<String, ColumnInfo> columns = processFields((DeclaredType) typeElement.asType());
+        boolean defaultConstructor = false;
+        boolean columnsConstructor = false;
+        if (!typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+                if (constructor.getModifiers().contains(Modifier.PRIVATE)) continue;
+                List<? extends VariableElement> parameters = constructor.getParameters();
+                if (parameters.isEmpty()) defaultConstructor = true;
+                if (!parameters.isEmpty() && parameters.size() == columns.size()) {
+                    Iterator<ColumnInfo> iterator = columns.values().iterator();
+                    boolean matches = true;
+                    for (VariableElement parameter : parameters) {
+                        matches &= javaType(parameter.asType()).equals(iterator.next().getJavaType());
+                    }
+                    columnsConstructor |= matches;
+                }
+            }
+        }
+        String table = getTableName(typeElement);
+        return new TableModel(typeElement.getQualifiedName().toString(), packageName, typeElement.getSimpleName().toString(),
+                getTableSchema(typeElement), !getDeclaredTableSchema(typeElement).isEmpty(), table, columns,
+                indexes(typeElement, table, columns), defaultConstructor, columnsConstructor);
+    }
+
+    /**
+     * 渲染源码并统计耗时
+     */
+    private String render(Supplier<String> renderer) {
+        long start = stats.begin(ProcessorStats.Phase.RENDER);
+        String source = renderer.get();
+        stats.end(ProcessorStats.Phase.RENDER, start);
+        return source;
+    }
+
+    /**
+     * 将渲染好的源码一次性写出
+     */
+    private void writeSource(String name, String source, TypeElement originatingElement) {
+        long start = stats.begin(ProcessorStats.Phase.WRITE);
         try {
             Filer filer = processingEnv.getFiler();
-            JavaFileObject sourceFile = filer.createSourceFile(packageName + "." + qClassName);
+            // 隔离式增量处理要求每个生成文件只有一个来源元素，父类变更时由构建工具重新编译依赖它的实体
+            JavaFileObject sourceFile = filer.createSourceFile(name, originatingElement);
             try (Writer writer = sourceFile.openWriter()) {
-                writer.write("package " + packageName + ";\n\n");
-                writer.write("import static com.querydsl.core.types.PathMetadataFactory.*;\n" +
-                        "import com.querydsl.core.types.dsl.*;\n" +
-                        "import com.querydsl.core.types.PathMetadata;\n" +
-                        "import javax.annotation.processing.Generated;\n" +
-                        "import com.querydsl.core.types.Path;\n" +
-                        "import com.querydsl.sql.ColumnMetadata;\n" +
-                        "import java.sql.Types;\n\n");
-                writer.write("/**\n * 根据" + typeElement.getQualifiedName().toString() + "自动生成\n * @author 小郴\n * @since " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + "\n */\n");
-                writer.write("@Generated(value =\"" + this.getClass().getName() + "\", date =\"" +
-                        new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) +
-                        "\", comments =\"根据" + typeElement.getQualifiedName().toString() + "自动生成\")\n");
-                writer.write("public class " + qClassName + " extends com.querydsl.sql.RelationalPathBase<" + qClassName + "> {\n\n");
-                // 生成字段常量
-                String table = getTableName(typeElement);
-                String schema = getTableSchema(typeElement);
-                String classObjectName = className.substring(0, 1).toLowerCase() + (className.length() == 1 ? "" : className.substring(1));
-                writer.write("    public static final " + qClassName + " " + classObjectName + " = new " + qClassName + "(\"" + table + "\");\n\n");
-                List<ColumnInfo> columns = new ArrayList<>();
-                processFields(qClassName, className, typeElement, writer, table, columns);
-                writer.write("    public " + qClassName + "(String variable) {\n");
-                writer.write("        super(" + qClassName + ".class, forVariable(variable), \""+schema+"\", \"" + table + "\");\n");
-                writer.write("        addMetadata();\n    }\n\n");
-                writer.write("    public " + qClassName + "(String variable, String schema, String table) {\n");
-                writer.write("        super(" + qClassName + ".class, forVariable(variable), schema, table);\n");
-                writer.write("        addMetadata();\n    }\n\n");
-                writer.write("    public " + qClassName + "(Path<? extends " + qClassName + "> path) {\n");
-                writer.write("        super(path.getType(), path.getMetadata(), \""+schema+"\", \"" + table + "\");\n");
-                writer.write("        addMetadata();\n    }\n\n");
-                writer.write("    public " + qClassName + "(PathMetadata metadata) {\n");
-                writer.write("        super(" + qClassName + ".class, metadata, \""+schema+"\", \"" + table + "\");\n");
-                writer.write("        addMetadata();\n    }\n\n");
-                writer.write("    public void addMetadata() {\n");
-                for (int i = 0; i < columns.size(); i++) {
-                    ColumnInfo columnInfo = columns.get(i);
-                    boolean nullable = columnInfo.isNullable();
-                    String javaType = columnInfo.getJavaType();
-                    String columnType;
-                    if (javaType.equals("java.lang.String")) {
-                        if (columnInfo.isJson()) {
-                            columnType = "ofType(Types.VARCHAR).withSize(" + Integer.MAX_VALUE + ")";
-                        }else {
-                            columnType = "ofType(Types.VARCHAR).withSize(" + columnInfo.getLength() + ")";
-                        }
-                    } else if (javaType.equals("java.lang.Integer")) {
-                        if (columnInfo.getColumnDefinition().contains("tinyint")) {
-                            columnType = "ofType(Types.TINYINT).withSize(3)";
-                        } else if (columnInfo.getColumnDefinition().contains("smallint")) {
-                            columnType = "ofType(Types.SMALLINT).withSize(3)";
-                        } else {
-                            columnType = "ofType(Types.INTEGER).withSize(10)";
-                        }
-                    } else if (javaType.equals("java.lang.Long")) {
-                        columnType = "ofType(Types.BIGINT).withSize(19)";
-                    } else if (javaType.equals("java.util.Date")) {
-                        columnType = "ofType(Types.TIMESTAMP).withSize(19)";
-                    } else if (javaType.equals("java.time.LocalDateTime")) {
-                        columnType = "ofType(Types.TIMESTAMP).withSize(29).withDigits(6)";
-                    } else if (javaType.equals("java.time.LocalDate")) {
-                        columnType = "ofType(Types.DATE).withSize(10)";
-                    } else if (javaType.equals("java.time.LocalTime")) {
-                        columnType = "ofType(Types.TIME).withSize(10)";
-                    } else if (javaType.equals("java.time.Instant")) {
-                        columnType = "ofType(Types.TIMESTAMP).withSize(29).withDigits(6)";
-                    } else if (javaType.equals("java.sql.Timestamp")) {
-                        columnType = "ofType(Types.TIMESTAMP).withSize(19)";
-                    } else if (javaType.equals("java.math.BigDecimal")) {
-                        columnType = "ofType(Types.NUMERIC).withSize(" + columnInfo.getPrecision() + ").withDigits(" + columnInfo.getScale() + ")";
-                    } else if (javaType.equals("java.lang.Float")) {
-                        columnType = "ofType(Types.FLOAT).withSize(5)";
-                    } else if (javaType.equals("java.lang.Double")) {
-                        columnType = "ofType(Types.DOUBLE).withSize(5)";
-                    } else if (javaType.equals("java.lang.Byte")) {
-                        columnType = "ofType(Types.CHAR).withSize(1)";
-                    } else if (javaType.equals("java.lang.Short")) {
-                        columnType = "ofType(Types.NUMERIC).withSize(5)";
-                    } else if (javaType.equals("java.lang.Boolean")) {
-                        columnType = "ofType(Types.BIT).withSize(1)";
-                    } else {
-                        if (columnInfo.isJson()) {
-                            columnType = "ofType(Types.OTHER).withSize("+ Integer.MAX_VALUE +")";
-                        } else {
-                            columnType = "ofType(Types.VARCHAR).withSize("+ columnInfo.getLength() +")";
-                        }
-                    }
-                    if (!nullable) columnType += ".notNull()";
-                    int index = i + 1;
-                    writer.write("        addMetadata(" + columnInfo.getJavaField() + ", ColumnMetadata.named(\"" + columnInfo.getColumn() + "\").withIndex(" + index + ")." + columnType + ");\n");
-                }
-                writer.write("    }\n");
-                writer.write("}\n");
+                writer.write(source);
             }
         } catch (IOException e) {
             processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString());
         }
+        stats.end(ProcessorStats.Phase.WRITE, start);
+        if (stats.isEnabled()) stats.file(source.getBytes(StandardCharsets.UTF_8).length);
     }
 
     /**
-     * 处理字段
+     * 直接父类，父类为Object时返回null
      */
-    private void processFields(String qClassName, String className, TypeElement typeElement, Writer writer, String table, List<ColumnInfo> columns) throws IOException {
-        // 先生成父类字段
-        TypeMirror superClassType = typeElement.getSuperclass();
-        if (superClassType.getKind() == TypeKind.DECLARED) {
-            DeclaredType declaredSuperClass = (DeclaredType) superClassType;
-            Element superClassElement = declaredSuperClass.asElement();
-            if (superClassElement instanceof TypeElement) {
-                TypeElement superTypeElement = (TypeElement) superClassElement;
-                if (!superTypeElement.getQualifiedName().toString().equals("java.lang.Object")) {
-                    processFields(qClassName, className, superTypeElement, writer, table, columns);
+    private DeclaredType superclass(DeclaredType type) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            if (supertype.getKind() == TypeKind.DECLARED) {
+                TypeElement superTypeElement = (TypeElement) ((DeclaredType) supertype).asElement();
+                if (superTypeElement.getKind() == ElementKind.CLASS) {
+                    return superTypeElement.getQualifiedName().contentEquals("java.lang.Object") ? null : (DeclaredType) supertype;
                 }
             }
         }
-        // 生成当前类字段
-        for (Element enclosedElement : typeElement.getEnclosedElements()) {
+        return null;
+    }
+
+    /**
+     * 处理字段，按数据库字段名去重，父类字段优先
+     */
+    private LinkedHashMap<String, ColumnInfo> processFields(DeclaredType type) {
+        LinkedHashMap<String, ColumnInfo> columns = new LinkedHashMap<>();
+        // 先处理父类字段
+        DeclaredType superclass = superclass(type);
+        if (superclass != null) {
+            long start = stats.begin(ProcessorStats.Phase.SUPERCLASS);
+            List<ColumnInfo> inherited = superclassColumns(superclass);
+            stats.end(ProcessorStats.Phase.SUPERCLASS, start);
+            for (ColumnInfo columnInfo : inherited) {
+                columns.put(columnInfo.getColumn(), columnInfo);
+            }
+        }
+        // 处理当前类字段，字段类型按当前类型解析父类的泛型参数
+        Types typeUtils = processingEnv.getTypeUtils();
+        String packageName = processingEnv.getElementUtils().getPackageOf(type.asElement()).getQualifiedName().toString();
+        Map<String, ExecutableElement> methods = new HashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.asElement().getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.STATIC) && method.getParameters().size() <= 1) {
+                methods.put(method.getSimpleName() + "/" + method.getParameters().size(), method);
+            }
+        }
+        for (Element enclosedElement : type.asElement().getEnclosedElements()) {
             if (enclosedElement.getKind() == ElementKind.FIELD) {
                 String fieldName = enclosedElement.getSimpleName().toString();
                 if (!shouldBeIgnored(enclosedElement)) {
-                    String constantName = constantName(fieldName);
                     String column = getColumnValue(enclosedElement).orElseGet(() -> constantValue(fieldName));
-                    if (!columns.stream().map(ColumnInfo::getColumn).collect(Collectors.toList()).contains(column)) {
-                        ColumnInfo columnInfo = new ColumnInfo();
-                        String javaType = enclosedElement.asType().toString();
-                        columnInfo.setColumn(column);
-                        columnInfo.setJavaType(javaType);
-                        columnInfo.setJavaField(constantName);
-                        columns.add(columnInfo);
-                        writerColumn(enclosedElement,writer,javaType,constantName,columnInfo);
-                        if (hasAnnotation(enclosedElement, "org.springframework.data.annotation.Id")) {
-                            writer.write("    " + "/**\n     *" + " 数据库主键\n" + "     */\n");
-                            writer.write("    public final com.querydsl.sql.PrimaryKey<" + qClassName + "> primaryKey = createPrimaryKey(" + constantName + ");\n\n");
-                        }
+                    if (!columns.containsKey(column)) {
+                        ColumnInfo.Builder builder = columnInfo(enclosedElement, typeUtils.asMemberOf(type, enclosedElement), constantName(fieldName), column);
+                        String property = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+                        ExecutableElement getter = methods.get("get" + property + "/0");
+                        if (getter == null) getter = methods.get("is" + property + "/0");
+                        builder.field(PropertyAccessor.field(fieldName, enclosedElement.getModifiers().contains(Modifier.PUBLIC),
+                                        enclosedElement.getModifiers().contains(Modifier.PRIVATE), packageName))
+                                .getter(accessor(getter, packageName))
+                                .setter(accessor(methods.get("set" + property + "/1"), packageName))
+                                .declaringClass(processingEnv.getElementUtils().getBinaryName((TypeElement) type.asElement()).toString());
+                        columns.put(column, builder.build());
                     }
                 }
             }
         }
+        return columns;
+    }
+
+    /**
+     * 父类解析后的字段，按带类型参数的父类类型缓存，整个编译期间跨轮次复用
+     */
+    private List<ColumnInfo> superclassColumns(DeclaredType superclass) {
+        String key = superclass.toString();
+        List<ColumnInfo> columns = superclassColumns.get(key);
+        if (columns == null) {
+            columns = Collections.unmodifiableList(new ArrayList<>(processFields(superclass).values()));
+            superclassColumns.put(key, columns);
+        }
+        return columns;
+    }
+
+    private PropertyAccessor accessor(ExecutableElement method, String packageName) {
+        if (method == null) return null;
+        Types typeUtils = processingEnv.getTypeUtils();
+        List<String> parameterTypes = new ArrayList<>(method.getParameters().size());
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(binaryName(typeUtils.erasure(parameter.asType())));
+        }
+        return PropertyAccessor.method(method.getSimpleName().toString(), method.getModifiers().contains(Modifier.PUBLIC),
+                method.getModifiers().contains(Modifier.PRIVATE), packageName, parameterTypes);
+    }
+
+    /**
+     * 擦除后类型的二进制名，嵌套类使用$分隔，数组为元素类型加[]
+     */
+    private String binaryName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) return binaryName(((ArrayType) type).getComponentType()) + "[]";
+        if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * 解析字段信息
+     */
+    private ColumnInfo.Builder columnInfo(Element enclosedElement, TypeMirror type, String constantName, String column) {
+        String javaType = javaType(type);
+        boolean json = isJson(enclosedElement, javaType);
+        return ColumnInfo.builder()
+                .javaType(javaType)
+                .javaField(constantName)
+                .column(column)
+                .javadoc(getJavadoc(enclosedElement))
+                .nullable(!type.getKind().isPrimitive() && getColumnNullable(enclosedElement))
+                .json(json)
+                .jsonb(json && dialect == SqlDialect.POSTGRESQL)
+                .id(hasAnnotation(enclosedElement, "org.springframework.data.annotation.Id"))
+                .length(getColumnLength(enclosedElement))
+                .columnDefinition(getColumnColumnDefinition(enclosedElement))
+                .precision(getColumnPrecision(enclosedElement))
+                .scale(getColumnScale(enclosedElement))
+                .typeMapping(typeMappings.get(javaType, json && isEnabled(OPTION_JSON_PATH) && !javaType.equals("java.lang.String") ? PathKind.JSON : defaultPathKind(type)))
+                .primitive(type.getKind().isPrimitive())
+                .foreignKey(foreignKey(enclosedElement));
+    }
+
+    /**
+     * 解析字段上的@ForeignKey，引用的字段默认为引用实体的主键
+     */
+    private ForeignKeyInfo foreignKey(Element fieldElement) {
+        Optional<? extends AnnotationMirror> annotationMirror = getAnnotationMirror(fieldElement, "io.github.xiaochenxt.annotation.ForeignKey");
+        if (!annotationMirror.isPresent()) return null;
+        Map<String, Object> values = annotationValues(annotationMirror.get());
+        Object references = values.get("references");
+        if (!(references instanceof DeclaredType)) return null;
+        TypeElement referenced = (TypeElement) ((DeclaredType) references).asElement();
+        if (!hasAnnotation(referenced, "org.springframework.data.relational.core.mapping.Table")) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "外键引用的实体没有@Table注解：" + referenced.getQualifiedName(), fieldElement);
+            return null;
+        }
+        String column = (String) values.get("column");
+        if (column == null || column.isEmpty()) {
+            column = idColumn(referenced);
+            if (column == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "外键引用的实体没有@Id字段，需指定column：" + referenced.getQualifiedName(), fieldElement);
+                return null;
+            }
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(referenced).getQualifiedName().toString();
+        return new ForeignKeyInfo(packageName + ".Q" + referenced.getSimpleName(), column);
     }
 
-    public void writerColumn(Element enclosedElement,Writer writer,String javaType,String constantName,ColumnInfo columnInfo) throws IOException {
-        String javadoc = getJavadoc(enclosedElement);
-        if (!Objects.isNull(javadoc) && !javadoc.isEmpty()) {
-            writer.write("    " + "/**\n     *" + getJavadoc(enclosedElement) + "     */\n");
-        }
-        columnInfo.setNullable(getColumnNullable(enclosedElement));
-        columnInfo.setJson(isJson(enclosedElement));
-        if (javaType.equals("java.lang.String")) {
-            writer.write("    public final StringPath " + constantName + " = createString(\"" + constantName + "\");\n\n");
-            columnInfo.setLength(getColumnLength(enclosedElement));
-        } else if (javaType.equals("java.lang.Integer")) {
-            writer.write("    public final NumberPath<Integer> " + constantName + " = createNumber(\"" + constantName + "\", Integer.class);\n\n");
-            columnInfo.setColumnDefinition(getColumnColumnDefinition(enclosedElement));
-        } else if (javaType.equals("java.lang.Long")) {
-            writer.write("    public final NumberPath<Long> " + constantName + " = createNumber(\"" + constantName + "\", Long.class);\n\n");
-        } else if (javaType.equals("java.util.Date")) {
-            writer.write("    public final DateTimePath<java.util.Date> " + constantName + " = createDateTime(\"" + constantName + "\", java.util.Date.class);\n\n");
-        } else if (javaType.equals("java.time.LocalDateTime")) {
-            writer.write("    public final DateTimePath<java.time.LocalDateTime> " + constantName + " = createDateTime(\"" + constantName + "\", java.time.LocalDateTime.class);\n\n");
-        } else if (javaType.equals("java.time.LocalDate")) {
-            writer.write("    public final DateTimePath<java.time.LocalDate> " + constantName + " = createDateTime(\"" + constantName + "\", java.time.LocalDate.class);\n\n");
-        } else if (javaType.equals("java.time.LocalTime")) {
-            writer.write("    public final DateTimePath<java.time.LocalTime> " + constantName + " = createDateTime(\"" + constantName + "\", java.time.LocalTime.class);\n\n");
-        } else if (javaType.equals("java.time.Instant")) {
-            writer.write("    public final DateTimePath<java.time.Instant> " + constantName + " = createDateTime(\"" + constantName + "\", java.time.Instant.class);\n\n");
-        } else if (javaType.equals("java.sql.Timestamp")) {
-            writer.write("    public final DateTimePath<java.sql.Timestamp> " + constantName + " = createDateTime(\"" + constantName + "\", java.sql.Timestamp.class);\n\n");
-        } else if (javaType.equals("java.math.BigDecimal")) {
-            writer.write("    public final NumberPath<java.math.BigDecimal> " + constantName + " = createNumber(\"" + constantName + "\", java.math.BigDecimal.class);\n\n");
-            columnInfo.setPrecision(getColumnPrecision(enclosedElement));
-            columnInfo.setScale(getColumnScale(enclosedElement));
-        } else if (javaType.equals("java.lang.Float")) {
-            writer.write("    public final NumberPath<Float> " + constantName + " = createNumber(\"" + constantName + "\", Float.class);\n\n");
-        } else if (javaType.equals("java.lang.Double")) {
-            writer.write("    public final NumberPath<Double> " + constantName + " = createNumber(\"" + constantName + "\", Double.class);\n\n");
-        } else if (javaType.equals("java.lang.Byte")) {
-            writer.write("    public final NumberPath<Byte> " + constantName + " = createNumber(\"" + constantName + "\", Byte.class);\n\n");
-        } else if (javaType.equals("java.lang.Short")) {
-            writer.write("    public final NumberPath<Short> " + constantName + " = createNumber(\"" + constantName + "\", Short.class);\n\n");
-        } else if (javaType.equals("java.lang.Boolean")) {
-            writer.write("    public final BooleanPath " + constantName + " = createBoolean(\"" + constantName + "\");\n\n");
-        } else {
-            writer.write("    public final SimplePath<" + javaType + "> " + constantName + " = createSimple(\"" + constantName + "\", " + javaType + ".class);\n\n");
+    /**
+     * 实体及其父类中@Id字段对应的数据库字段名，没有时返回null
+     */
+    private String idColumn(TypeElement typeElement) {
+        for (DeclaredType type = (DeclaredType) typeElement.asType(); type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.asElement().getEnclosedElements())) {
+                if (!shouldBeIgnored(field) && hasAnnotation(field, "org.springframework.data.annotation.Id")) {
+                    return getColumnValue(field).orElseGet(() -> constantValue(field.getSimpleName().toString()));
+                }
+            }
         }
+        return null;
+    }
+
+    /**
+     * 解析实体上的@Index，字段不存在时报错并忽略该索引
+     */
+    private List<IndexInfo> indexes(TypeElement typeElement, String table, Map<String, ColumnInfo> columns) {
+        List<AnnotationMirror> annotationMirrors = new ArrayList<>();
+        getAnnotationMirror(typeElement, "io.github.xiaochenxt.annotation.Index").ifPresent(annotationMirrors::add);
+        getAnnotationMirror(typeElement, "io.github.xiaochenxt.annotation.Indexes").ifPresent(container -> {
+            for (Object value : (List<?>) annotationValues(container).get("value")) {
+                annotationMirrors.add((AnnotationMirror) ((AnnotationValue) value).getValue());
+            }
+        });
+        List<IndexInfo> indexes = new ArrayList<>(annotationMirrors.size());
+        for (AnnotationMirror annotationMirror : annotationMirrors) {
+            Map<String, Object> values = annotationValues(annotationMirror);
+            boolean unique = Boolean.TRUE.equals(values.get("unique"));
+            List<String> indexColumns = new ArrayList<>();
+            boolean valid = true;
+            for (Object value : (List<?>) values.get("columns")) {
+                String column = ((AnnotationValue) value).getValue().toString();
+                if (!columns.containsKey(column)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "索引中的字段不存在：" + column, typeElement, annotationMirror);
+                    valid = false;
+                }
+                indexColumns.add(column);
+            }
+            if (!valid || indexColumns.isEmpty()) continue;
+            String name = (String) values.get("name");
+            if (name == null || name.isEmpty()) {
+                name = (unique ? "uk_" : "idx_") + table + "_" + String.join("_", indexColumns);
+            }
+            indexes.add(new IndexInfo(name, unique, indexColumns));
+        }
+        return indexes;
+    }
+
+    /**
+     * 注解的全部属性值，包含默认值
+     */
+    private Map<String, Object> annotationValues(AnnotationMirror annotationMirror) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror).entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        }
+        return values;
+    }
+
+    /**
+     * 字段的java类型全限定名，基本类型取包装类型，泛型取擦除后的类型
+     */
+    private String javaType(TypeMirror type) {
+        switch (type.getKind()) {
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            case ARRAY:
+                TypeMirror componentType = ((ArrayType) type).getComponentType();
+                return (componentType.getKind().isPrimitive() ? componentType.toString() : javaType(componentType)) + "[]";
+            case TYPEVAR:
+                return javaType(processingEnv.getTypeUtils().erasure(type));
+            default:
+                if (type.getKind().isPrimitive()) {
+                    return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+                }
+                return type.toString();
+        }
+    }
+
+    /**
+     * 未注册类型映射时的路径类型
+     */
+    private PathKind defaultPathKind(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) return PathKind.ARRAY;
+        if (type.getKind() != TypeKind.DECLARED) return PathKind.SIMPLE;
+        Element element = ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) return PathKind.ENUM;
+        Types typeUtils = processingEnv.getTypeUtils();
+        TypeElement comparable = processingEnv.getElementUtils().getTypeElement("java.lang.Comparable");
+        if (comparable != null && typeUtils.isAssignable(typeUtils.erasure(type), typeUtils.erasure(comparable.asType()))) {
+            return PathKind.COMPARABLE;
+        }
+        return PathKind.SIMPLE;
     }
 
     /**
@@ -367,19 +929,28 @@ public class QuerydslSqlSpringAnnotationProcessor extends AbstractProcessor {
     }
 
     private String getTableSchema(TypeElement element) {
+        String schema = getDeclaredTableSchema(element);
+        return schema.isEmpty() ? "public" : schema;
+    }
+
+    /**
+     * {@code @Table}中显式指定的schema，未指定时为空字符串
+     */
+    private String getDeclaredTableSchema(TypeElement element) {
         Optional<? extends AnnotationMirror> annotationMirrorOptional = getAnnotationMirror(element, "org.springframework.data.relational.core.mapping.Table");
         if (annotationMirrorOptional.isPresent()) {
             Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = annotationMirrorOptional.get().getElementValues();
             for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elementValues.entrySet()) {
                 if ("schema".equals(entry.getKey().getSimpleName().toString())) {
-                    return entry.getValue().getValue().toString().isEmpty() ? "public" : entry.getValue().getValue().toString();
+                    return entry.getValue().getValue().toString();
                 }
             }
         }
-        return "public";
+        return "";
     }
 
-    private boolean isJson(Element fieldElement) {
+    private boolean isJson(Element fieldElement, String javaType) {
+        if (typeMappings.isJson(javaType)) return true;
         Optional<? extends AnnotationMirror> annotationMirrorOptional = getAnnotationMirror(fieldElement, "org.hibernate.annotations.JdbcTypeCode");
         if (annotationMirrorOptional.isPresent()) {
             Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = annotationMirrorOptional.get().getElementValues();
@@ -433,117 +1004,11 @@ public class QuerydslSqlSpringAnnotationProcessor extends AbstractProcessor {
      * @return 文档注释
      */
     private String getJavadoc(Element element) {
+        long start = stats.begin(ProcessorStats.Phase.JAVADOC);
         Elements elementUtils = processingEnv.getElementUtils();
-        return elementUtils.getDocComment(element);
-    }
-
-    public static class ColumnInfo {
-
-        /**
-         * java字段类型
-         */
-        private String javaType;
-
-        /**
-         * java字段名
-         */
-        private String javaField;
-
-        /**
-         * 数据库字段名
-         */
-        private String column;
-
-        /**
-         * 字段长度
-         */
-        private Integer length;
-
-        private boolean nullable;
-
-        private boolean isJson;
-
-        /**
-         * 生成的SQL以创建推断类型的列
-         */
-        private String columnDefinition;
-
-        private Integer precision;
-
-        private Integer scale;
-
-        public String getJavaType() {
-            return javaType;
-        }
-
-        public void setJavaType(String javaType) {
-            this.javaType = javaType;
-        }
-
-        public String getJavaField() {
-            return javaField;
-        }
-
-        public void setJavaField(String javaField) {
-            this.javaField = javaField;
-        }
-
-        public String getColumn() {
-            return column;
-        }
-
-        public void setColumn(String column) {
-            this.column = column;
-        }
-
-        public Integer getLength() {
-            return length;
-        }
-
-        public void setLength(Integer length) {
-            this.length = length;
-        }
-
-        public String getColumnDefinition() {
-            return columnDefinition;
-        }
-
-        public void setColumnDefinition(String columnDefinition) {
-            this.columnDefinition = columnDefinition;
-        }
-
-        public Integer getPrecision() {
-            return precision != null && precision != 0 ? precision : 0;
-        }
-
-        public void setPrecision(Integer precision) {
-            this.precision = precision;
-        }
-
-        public Integer getScale() {
-            return scale != null && scale != 0 ? scale : 2;
-        }
-
-        public void setScale(Integer scale) {
-            this.scale = scale;
-        }
-
-        public boolean isNullable() {
-            return nullable;
-        }
-
-        public void setNullable(boolean nullable) {
-            this.nullable = nullable;
-        }
-
-        public boolean isJson() {
-            return isJson;
-        }
-
-        public void setJson(boolean json) {
-            isJson = json;
-        }
+        String javadoc = elementUtils.getDocComment(element);
+        stats.end(ProcessorStats.Phase.JAVADOC, start);
+        return javadoc;
     }
 
 }
-
@@ -0,0 +1,153 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.*;
+
+/**
+ * 汇总本次编译的全部实体生成Q类注册表，查找通过字符串switch完成，只有命中的分支才会初始化对应的Q类
+ * <p>
+ * 按名称的hashCode分桶，每桶一个查找方法，实体较多时单个方法不会超过64KB的字节码上限
+ *
+ * @author xiaochen
+ */
+public class RegistryRenderer extends AbstractRenderer {
+
+    /**
+     * 每个查找方法平均容纳的分支数
+     */
+    static final int KEYS_PER_BUCKET = 512;
+
+    public RegistryRenderer(String generator) {
+        super(generator);
+    }
+
+    /**
+     * 表名和 schema.表名 到表模型的索引，表名在多个schema中重复时只保留 schema.表名，schema.表名 重复时保留第一个
+     *
+     * @param models 按实体全限定名排序
+     */
+    public static Map<String, TableModel> tableKeys(List<TableModel> models) {
+        Map<String, TableModel> keys = new LinkedHashMap<>();
+        Map<String, Integer> tableCounts = new HashMap<>();
+        for (TableModel model : models) {
+            tableCounts.merge(model.getTable(), 1, Integer::sum);
+        }
+        for (TableModel model : models) {
+            String qualified = model.getSchema() + "." + model.getTable();
+            if (keys.containsKey(qualified)) continue;
+            if (tableCounts.get(model.getTable()) == 1) keys.put(model.getTable(), model);
+            keys.put(qualified, model);
+        }
+        return keys;
+    }
+
+    /**
+     * @param className 注册表的全限定名
+     * @param models 按实体全限定名排序
+     */
+    public String render(String className, List<TableModel> models) {
+        int dot = className.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : className.substring(0, dot);
+        String simpleName = className.substring(dot + 1);
+        Map<String, TableModel> tableKeys = tableKeys(models);
+        Map<String, TableModel> entityKeys = new LinkedHashMap<>();
+        for (TableModel model : models) {
+            entityKeys.put(model.getEntityBinaryName(), model);
+        }
+        StringBuilder sb = new StringBuilder(2048 + models.size() * 256);
+        if (!packageName.isEmpty()) sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("import com.querydsl.sql.RelationalPath;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.util.ArrayList;\n" +
+                "import java.util.Collections;\n" +
+                "import java.util.List;\n\n");
+        appendHeader(sb, models.size() + "个实体", "Q类注册表");
+        sb.append("public final class ").append(simpleName).append(" implements io.github.xiaochenxt.sql.TableRegistry {\n\n");
+        sb.append("    public static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n");
+        int tableChunks = (models.size() + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET;
+        sb.append("    private static final List<String> TABLES;\n\n");
+        sb.append("    static {\n");
+        sb.append("        List<String> tables = new ArrayList<>(").append(models.size()).append(");\n");
+        for (int i = 0; i < tableChunks; i++) {
+            sb.append("        addTables").append(i).append("(tables);\n");
+        }
+        sb.append("        TABLES = Collections.unmodifiableList(tables);\n");
+        sb.append("    }\n\n");
+        appendLookup(sb, "forTable", "String name", "name", "table", tableKeys);
+        appendLookup(sb, "forEntity", "Class<?> entityClass", "entityClass.getName()", "entity", entityKeys);
+        sb.append("    @Override\n");
+        sb.append("    public List<String> tables() {\n        return TABLES;\n    }\n");
+        for (int i = 0; i < tableChunks; i++) {
+            sb.append("\n    private static void addTables").append(i).append("(List<String> tables) {\n");
+            for (TableModel model : models.subList(i * KEYS_PER_BUCKET, Math.min(models.size(), (i + 1) * KEYS_PER_BUCKET))) {
+                sb.append("        tables.add(").append(literal(model.getSchema() + "." + model.getTable())).append(");\n");
+            }
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 生成按名称查找Q类实例的方法，名称按hashCode分到各桶的switch中
+     *
+     * @param parameter 方法参数声明
+     * @param key 取查找名称的表达式
+     * @param prefix 各桶方法名的前缀
+     */
+    private static void appendLookup(StringBuilder sb, String method, String parameter, String key, String prefix, Map<String, TableModel> keys) {
+        int bucketCount = Math.max(1, (keys.size() + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+        List<Map<TableModel, List<String>>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new LinkedHashMap<>());
+        }
+        for (Map.Entry<String, TableModel> entry : keys.entrySet()) {
+            buckets.get(Math.floorMod(entry.getKey().hashCode(), bucketCount))
+                    .computeIfAbsent(entry.getValue(), model -> new ArrayList<>()).add(entry.getKey());
+        }
+        String argument = parameter.substring(parameter.lastIndexOf(' ') + 1);
+        sb.append("    @Override\n");
+        sb.append("    public RelationalPath<?> ").append(method).append('(').append(parameter).append(") {\n");
+        sb.append("        if (").append(argument).append(" == null) return null;\n");
+        if (bucketCount == 1) {
+            sb.append("        return ").append(prefix).append("0(").append(key).append(");\n");
+        } else {
+            sb.append("        String key = ").append(key).append(";\n");
+            sb.append("        switch (Math.floorMod(key.hashCode(), ").append(bucketCount).append(")) {\n");
+            for (int i = 0; i < bucketCount; i++) {
+                sb.append("            case ").append(i).append(":\n");
+                sb.append("                return ").append(prefix).append(i).append("(key);\n");
+            }
+            sb.append("            default:\n                return null;\n");
+            sb.append("        }\n");
+        }
+        sb.append("    }\n\n");
+        for (int i = 0; i < bucketCount; i++) {
+            sb.append("    private static RelationalPath<?> ").append(prefix).append(i).append("(String key) {\n");
+            sb.append("        switch (key) {\n");
+            for (Map.Entry<TableModel, List<String>> entry : buckets.get(i).entrySet()) {
+                for (String name : entry.getValue()) {
+                    sb.append("            case ").append(literal(name)).append(":\n");
+                }
+                sb.append("                return ").append(instance(entry.getKey())).append(";\n");
+            }
+            sb.append("            default:\n                return null;\n");
+            sb.append("        }\n    }\n\n");
+        }
+    }
+
+    /**
+     * META-INF下的索引文件，每行一个Q类的全限定名
+     */
+    public String renderIndex(List<TableModel> models) {
+        StringBuilder sb = new StringBuilder(models.size() * 64);
+        for (TableModel model : models) {
+            sb.append(model.getQualifiedQClassName()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String instance(TableModel model) {
+        return model.getQualifiedQClassName() + "." + model.getVariableName();
+    }
+
+}
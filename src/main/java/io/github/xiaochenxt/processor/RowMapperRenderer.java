@@ -0,0 +1,129 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成实体的行映射器：Spring的RowMapper按列序号用类型化的getter读取，querydsl投影按参数序号直接赋值，均不使用反射
+ *
+ * @author xiaochen
+ */
+public class RowMapperRenderer extends AbstractRenderer {
+
+    public RowMapperRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "RowMapper";
+    }
+
+    /**
+     * 能否生成，字段均可写且有无参构造方法，或有与字段顺序一致的构造方法
+     */
+    public static boolean supports(TableModel model) {
+        return setterMode(model) || model.hasColumnsConstructor();
+    }
+
+    static boolean setterMode(TableModel model) {
+        if (!model.hasDefaultConstructor()) return false;
+        for (ColumnInfo column : model.getColumns()) {
+            if (column.getWriteAccessor(model.getPackageName()) == null) return false;
+        }
+        return true;
+    }
+
+    public String render(TableModel model) {
+        List<ColumnInfo> columns = model.getColumns();
+        String entity = model.getClassName();
+        String className = className(model);
+        boolean setterMode = setterMode(model);
+        StringBuilder sb = new StringBuilder(2048 + columns.size() * 256);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import com.querydsl.core.types.Expression;\n" +
+                "import com.querydsl.core.types.FactoryExpression;\n" +
+                "import com.querydsl.core.types.FactoryExpressionBase;\n" +
+                "import com.querydsl.core.types.Visitor;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.sql.ResultSet;\n" +
+                "import java.sql.SQLException;\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.Collections;\n" +
+                "import java.util.List;\n\n");
+        appendHeader(sb, model, "行映射器，按列序号读取，查询列的顺序须与" + model.getQClassName() + "中字段的顺序一致，如 select(" +
+                model.getQClassName() + "." + model.getVariableName() + ".all())");
+        sb.append("public class ").append(className).append(" implements org.springframework.jdbc.core.RowMapper<").append(entity).append("> {\n\n");
+        sb.append("    public static final ").append(className).append(" INSTANCE = new ").append(className).append("(1);\n\n");
+        sb.append("    /**\n     * 第一个字段所在的列序号\n     */\n");
+        sb.append("    private final int offset;\n\n");
+        sb.append("    /**\n     * @param offset 第一个字段所在的列序号，从1开始\n     */\n");
+        sb.append("    public ").append(className).append("(int offset) {\n");
+        sb.append("        this.offset = offset;\n    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public ").append(entity).append(" mapRow(ResultSet rs, int rowNum) throws SQLException {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            JdbcAccessors.appendRead(sb, columns.get(i), "rs", i == 0 ? "offset" : "offset + " + i, "c" + i, "        ");
+        }
+        appendInstantiation(sb, model, setterMode, "c", "");
+        sb.append("    }\n\n");
+        sb.append("    /**\n     * querydsl投影，参数为").append(model.getQClassName()).append("的全部字段，按参数序号直接创建实体\n     */\n");
+        sb.append("    public static FactoryExpression<").append(entity).append("> projection(").append(model.getQClassName()).append(" q) {\n");
+        sb.append("        return new Projection(q);\n    }\n\n");
+        sb.append("    private static final class Projection extends FactoryExpressionBase<").append(entity).append("> {\n\n");
+        sb.append("        private final List<Expression<?>> args;\n\n");
+        sb.append("        Projection(").append(model.getQClassName()).append(" q) {\n");
+        sb.append("            super(").append(entity).append(".class);\n");
+        sb.append("            this.args = Collections.unmodifiableList(Arrays.<Expression<?>>asList(");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("q.").append(columns.get(i).getJavaField());
+        }
+        sb.append("));\n        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public List<Expression<?>> getArgs() {\n            return args;\n        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public ").append(entity).append(" newInstance(Object... args) {\n");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String type = PathKind.shortName(column.getJavaType());
+            sb.append("            ").append(JdbcAccessors.variableType(column)).append(" a").append(i).append(" = ");
+            if (column.isPrimitive()) {
+                sb.append("args[").append(i).append("] != null ? (").append(type).append(") args[").append(i).append("] : ")
+                        .append(JdbcAccessors.defaultValue(column.getJavaType())).append(";\n");
+            } else {
+                sb.append('(').append(type).append(") args[").append(i).append("];\n");
+            }
+        }
+        appendInstantiation(sb, model, setterMode, "a", "    ");
+        sb.append("        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public <R, C> R accept(Visitor<R, C> v, C context) {\n");
+        sb.append("            return v.visit(this, context);\n        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 用局部变量创建实体并返回
+     */
+    static void appendInstantiation(StringBuilder sb, TableModel model, boolean setterMode, String prefix, String indent) {
+        List<ColumnInfo> columns = model.getColumns();
+        String entity = model.getClassName();
+        if (setterMode) {
+            sb.append(indent).append("        ").append(entity).append(" entity = new ").append(entity).append("();\n");
+            for (int i = 0; i < columns.size(); i++) {
+                sb.append(indent).append("        ").append(columns.get(i).getWriteAccessor(model.getPackageName()).write("entity", prefix + i)).append(";\n");
+            }
+            sb.append(indent).append("        return entity;\n");
+        } else {
+            sb.append(indent).append("        return new ").append(entity).append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(prefix).append(i);
+            }
+            sb.append(");\n");
+        }
+    }
+
+}
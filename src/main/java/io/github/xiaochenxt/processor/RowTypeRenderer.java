@@ -0,0 +1,322 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 生成实体的紧凑行类型：数值和布尔字段使用基本类型，可空的基本类型字段用位掩码记录空值；
+ * 以及按列存储的批量形式，每个字段一个数组，按块从ResultSet填充，读取过程不装箱
+ *
+ * @author xiaochen
+ */
+public class RowTypeRenderer extends AbstractRenderer {
+
+    public RowTypeRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String rowClassName(TableModel model) {
+        return model.getClassName() + "Row";
+    }
+
+    public static String batchClassName(TableModel model) {
+        return model.getClassName() + "RowBatch";
+    }
+
+    /**
+     * 行类型中字段的声明类型，包装类型使用基本类型
+     */
+    private static String fieldType(ColumnInfo column) {
+        String primitive = JdbcAccessors.primitiveType(column.getJavaType());
+        return primitive != null ? primitive : PathKind.shortName(column.getJavaType());
+    }
+
+    /**
+     * 是否需要用位掩码记录空值
+     */
+    private static boolean tracksNull(ColumnInfo column) {
+        return column.isNullable() && JdbcAccessors.primitiveType(column.getJavaType()) != null;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 各字段在空值位掩码中的位序号，不需要记录空值的字段为-1
+     */
+    private static int[] nullBits(List<ColumnInfo> columns) {
+        int[] bits = new int[columns.size()];
+        int next = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            bits[i] = tracksNull(columns.get(i)) ? next++ : -1;
+        }
+        return bits;
+    }
+
+    private static int nullCount(int[] bits) {
+        int count = 0;
+        for (int bit : bits) {
+            if (bit >= 0) count++;
+        }
+        return count;
+    }
+
+    public String renderRow(TableModel model) {
+        List<ColumnInfo> columns = model.getColumns();
+        String className = rowClassName(model);
+        int[] bits = nullBits(columns);
+        int nullCount = nullCount(bits);
+        StringBuilder sb = new StringBuilder(2048 + columns.size() * 384);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import com.querydsl.core.types.Expression;\n" +
+                "import com.querydsl.core.types.FactoryExpression;\n" +
+                "import com.querydsl.core.types.FactoryExpressionBase;\n" +
+                "import com.querydsl.core.types.Visitor;\n" +
+                "import javax.annotation.processing.Generated;\n" +
+                "import java.sql.ResultSet;\n" +
+                "import java.sql.SQLException;\n" +
+                "import java.util.Arrays;\n" +
+                "import java.util.Collections;\n" +
+                "import java.util.List;\n\n");
+        appendHeader(sb, model, "紧凑行类型，数值和布尔字段使用基本类型，可用read()在遍历ResultSet时复用同一个实例");
+        sb.append("public final class ").append(className).append(" {\n\n");
+        if (nullCount > 0) {
+            sb.append("    /**\n     * 可空的基本类型字段的空值位掩码\n     */\n");
+            sb.append("    private final long[] nulls$ = new long[").append((nullCount + 63) / 64).append("];\n\n");
+        }
+        for (ColumnInfo column : columns) {
+            sb.append("    private ").append(fieldType(column)).append(' ').append(column.getJavaField()).append(";\n\n");
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String field = column.getJavaField();
+            sb.append("    public ").append(fieldType(column)).append(" get").append(capitalize(field)).append("() {\n");
+            sb.append("        return this.").append(field).append(";\n    }\n\n");
+            if (bits[i] >= 0) {
+                sb.append("    public boolean is").append(capitalize(field)).append("Null() {\n");
+                sb.append("        return (nulls$[").append(bits[i] >>> 6).append("] & ").append(mask(bits[i])).append(") != 0;\n    }\n\n");
+            }
+        }
+        sb.append("    /**\n     * 从ResultSet的当前行读取全部字段，覆盖之前的值\n     *\n     * @param offset 第一个字段所在的列序号，从1开始\n     */\n");
+        sb.append("    public ").append(className).append(" read(ResultSet rs, int offset) throws SQLException {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String index = i == 0 ? "offset" : "offset + " + i;
+            String getter = JdbcAccessors.primitiveGetter(column.getJavaType());
+            if (getter != null) {
+                sb.append("        this.").append(column.getJavaField()).append(" = rs.").append(getter).append('(').append(index).append(");\n");
+                if (bits[i] >= 0) appendNullBit(sb, "this.nulls$", bits[i], "rs.wasNull()", "        ");
+            } else {
+                JdbcAccessors.appendRead(sb, column, "rs", index, "v" + i, "        ");
+                sb.append("        this.").append(column.getJavaField()).append(" = v").append(i).append(";\n");
+            }
+        }
+        sb.append("        return this;\n    }\n\n");
+        sb.append("    /**\n     * querydsl投影，参数为").append(model.getQClassName()).append("的全部字段，每行创建一个实例\n     */\n");
+        sb.append("    public static FactoryExpression<").append(className).append("> projection(").append(model.getQClassName()).append(" q) {\n");
+        sb.append("        return new Projection(q);\n    }\n\n");
+        sb.append("    private static final class Projection extends FactoryExpressionBase<").append(className).append("> {\n\n");
+        sb.append("        private final List<Expression<?>> args;\n\n");
+        sb.append("        Projection(").append(model.getQClassName()).append(" q) {\n");
+        sb.append("            super(").append(className).append(".class);\n");
+        sb.append("            this.args = Collections.unmodifiableList(Arrays.<Expression<?>>asList(");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("q.").append(columns.get(i).getJavaField());
+        }
+        sb.append("));\n        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public List<Expression<?>> getArgs() {\n            return args;\n        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public ").append(className).append(" newInstance(Object... args) {\n");
+        sb.append("            ").append(className).append(" row = new ").append(className).append("();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String type = PathKind.shortName(column.getJavaType());
+            String field = column.getJavaField();
+            if (bits[i] >= 0) {
+                sb.append("            if (args[").append(i).append("] == null) row.nulls$[").append(bits[i] >>> 6).append("] |= ").append(mask(bits[i])).append(";\n");
+                sb.append("            else row.").append(field).append(" = (").append(type).append(") args[").append(i).append("];\n");
+            } else if (JdbcAccessors.primitiveType(column.getJavaType()) != null) {
+                sb.append("            if (args[").append(i).append("] != null) row.").append(field).append(" = (").append(type).append(") args[").append(i).append("];\n");
+            } else {
+                sb.append("            row.").append(field).append(" = (").append(type).append(") args[").append(i).append("];\n");
+            }
+        }
+        sb.append("            return row;\n        }\n\n");
+        sb.append("        @Override\n");
+        sb.append("        public <R, C> R accept(Visitor<R, C> v, C context) {\n");
+        sb.append("            return v.visit(this, context);\n        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public String renderBatch(TableModel model) {
+        return renderBatch(model, false);
+    }
+
+    /**
+     * @param pgCopy 是否同时生成从PostgreSQL COPY BINARY数据填充的方法，须字段类型都有对应的二进制格式
+     */
+    public String renderBatch(TableModel model, boolean pgCopy) {
+        List<ColumnInfo> columns = model.getColumns();
+        String className = batchClassName(model);
+        int[] bits = nullBits(columns);
+        StringBuilder sb = new StringBuilder(2048 + columns.size() * 512);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        if (pgCopy) sb.append("import io.github.xiaochenxt.sql.PgCopyReader;\n");
+        sb.append("import javax.annotation.processing.Generated;\n");
+        if (pgCopy) sb.append("import java.io.IOException;\n");
+        sb.append("import java.sql.ResultSet;\n" +
+                "import java.sql.SQLException;\n" +
+                "import java.util.function.Consumer;\n\n");
+        appendHeader(sb, model, "按列存储的批量行，每个字段一个数组，按块从ResultSet填充，查询列的顺序须与" + model.getQClassName() + "中字段的顺序一致");
+        sb.append("public final class ").append(className).append(" {\n\n");
+        sb.append("    private final int capacity;\n\n");
+        sb.append("    private int size;\n\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            sb.append("    /**\n     * ").append(column.getJavaField()).append("的值\n     */\n");
+            sb.append("    private final ").append(fieldType(column)).append("[] c").append(i).append(";\n\n");
+            if (bits[i] >= 0) {
+                sb.append("    private final long[] n").append(i).append(";\n\n");
+            }
+        }
+        sb.append("    public ").append(className).append("(int capacity) {\n");
+        sb.append("        if (capacity < 1) throw new IllegalArgumentException(\"capacity必须大于0：\" + capacity);\n");
+        sb.append("        this.capacity = capacity;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            sb.append("        this.c").append(i).append(" = new ").append(arrayCreation(fieldType(column))).append(";\n");
+            if (bits[i] >= 0) {
+                sb.append("        this.n").append(i).append(" = new long[(capacity + 63) >>> 6];\n");
+            }
+        }
+        sb.append("    }\n\n");
+        sb.append("    public int capacity() {\n        return capacity;\n    }\n\n");
+        sb.append("    /**\n     * 已填充的行数\n     */\n");
+        sb.append("    public int size() {\n        return size;\n    }\n\n");
+        sb.append("    public void clear() {\n        size = 0;\n    }\n\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String field = column.getJavaField();
+            String type = fieldType(column);
+            sb.append("    public ").append(type).append(" get").append(capitalize(field)).append("(int row) {\n");
+            sb.append("        return c").append(i).append("[row];\n    }\n\n");
+            if (bits[i] >= 0) {
+                sb.append("    public boolean is").append(capitalize(field)).append("Null(int row) {\n");
+                sb.append("        return (n").append(i).append("[row >>> 6] & (1L << row)) != 0;\n    }\n\n");
+            }
+            sb.append("    /**\n     * 字段的底层数组，前size()个元素有效\n     */\n");
+            sb.append("    public ").append(type).append("[] ").append(field).append("Values() {\n");
+            sb.append("        return c").append(i).append(";\n    }\n\n");
+        }
+        sb.append("    /**\n     * 清空后从ResultSet读取至多capacity行\n     *\n     * @param offset 第一个字段所在的列序号，从1开始\n     * @return 读取的行数，为0时表示ResultSet已读完\n     */\n");
+        sb.append("    public int fill(ResultSet rs, int offset) throws SQLException {\n");
+        sb.append("        size = 0;\n");
+        sb.append("        while (size < capacity && rs.next()) {\n");
+        sb.append("            int row = size;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String field = column.getJavaField();
+            String index = i == 0 ? "offset" : "offset + " + i;
+            String getter = JdbcAccessors.primitiveGetter(column.getJavaType());
+            if (getter != null) {
+                sb.append("            c").append(i).append("[row] = rs.").append(getter).append('(').append(index).append(");\n");
+                if (bits[i] >= 0) {
+                    sb.append("            if (rs.wasNull()) n").append(i).append("[row >>> 6] |= 1L << row;\n");
+                    sb.append("            else n").append(i).append("[row >>> 6] &= ~(1L << row);\n");
+                }
+            } else {
+                JdbcAccessors.appendRead(sb, column, "rs", index, "v" + i, "            ");
+                sb.append("            c").append(i).append("[row] = v").append(i).append(";\n");
+            }
+        }
+        sb.append("            size++;\n");
+        sb.append("        }\n");
+        sb.append("        return size;\n    }\n\n");
+        sb.append("    /**\n     * 按块读取整个ResultSet，每块复用同一个批量实例\n     *\n     * @return 读取的总行数\n     */\n");
+        sb.append("    public static long forEachChunk(ResultSet rs, int offset, int capacity, Consumer<").append(className).append("> consumer) throws SQLException {\n");
+        sb.append("        ").append(className).append(" batch = new ").append(className).append("(capacity);\n");
+        sb.append("        long total = 0;\n");
+        sb.append("        while (batch.fill(rs, offset) > 0) {\n");
+        sb.append("            total += batch.size;\n");
+        sb.append("            consumer.accept(batch);\n");
+        sb.append("            if (batch.size < capacity) break;\n");
+        sb.append("        }\n");
+        sb.append("        return total;\n    }\n");
+        if (pgCopy) appendPgCopy(sb, model, bits);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 从COPY BINARY数据填充及按块读取的方法
+     */
+    private static void appendPgCopy(StringBuilder sb, TableModel model, int[] bits) {
+        List<ColumnInfo> columns = model.getColumns();
+        String className = batchClassName(model);
+        sb.append("\n    /**\n     * 清空后从COPY BINARY数据读取至多capacity行，字段顺序须与").append(PgCopyRenderer.className(model)).append(".COPY_OUT一致\n");
+        sb.append("     *\n     * @return 读取的行数，为0时表示已读完\n     */\n");
+        sb.append("    public int fill(PgCopyReader reader) throws IOException {\n");
+        sb.append("        size = 0;\n");
+        sb.append("        while (size < capacity) {\n");
+        sb.append("            int fieldCount = reader.nextRow();\n");
+        sb.append("            if (fieldCount < 0) break;\n");
+        sb.append("            if (fieldCount != ").append(columns.size()).append(") throw new IOException(\"字段数为\" + fieldCount + \"，期望").append(columns.size()).append("\");\n");
+        sb.append("            int row = size;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnInfo column = columns.get(i);
+            String read = PgCopyRenderer.readExpression(column, "reader");
+            boolean primitive = JdbcAccessors.primitiveType(column.getJavaType()) != null;
+            String empty = primitive ? JdbcAccessors.defaultValue(column.getJavaType()) : "null";
+            if (bits[i] >= 0) {
+                sb.append("            if (reader.readNull()) {\n");
+                sb.append("                c").append(i).append("[row] = ").append(empty).append(";\n");
+                sb.append("                n").append(i).append("[row >>> 6] |= 1L << row;\n");
+                sb.append("            } else {\n");
+                sb.append("                c").append(i).append("[row] = ").append(read).append(";\n");
+                sb.append("                n").append(i).append("[row >>> 6] &= ~(1L << row);\n");
+                sb.append("            }\n");
+            } else {
+                sb.append("            c").append(i).append("[row] = reader.readNull() ? ").append(empty).append(" : ").append(read).append(";\n");
+            }
+        }
+        sb.append("            size++;\n");
+        sb.append("        }\n");
+        sb.append("        return size;\n    }\n\n");
+        sb.append("    /**\n     * 按块读取全部COPY BINARY数据，每块复用同一个批量实例\n     *\n     * @return 读取的总行数\n     */\n");
+        sb.append("    public static long forEachChunk(PgCopyReader reader, int capacity, Consumer<").append(className).append("> consumer) throws IOException {\n");
+        sb.append("        ").append(className).append(" batch = new ").append(className).append("(capacity);\n");
+        sb.append("        long total = 0;\n");
+        sb.append("        while (batch.fill(reader) > 0) {\n");
+        sb.append("            total += batch.size;\n");
+        sb.append("            consumer.accept(batch);\n");
+        sb.append("            if (batch.size < capacity) break;\n");
+        sb.append("        }\n");
+        sb.append("        return total;\n    }\n");
+    }
+
+    /**
+     * 位序号对应的掩码字面量
+     */
+    private static String mask(int bit) {
+        return "(1L << " + (bit & 63) + ")";
+    }
+
+    private static void appendNullBit(StringBuilder sb, String array, int bit, String condition, String indent) {
+        sb.append(indent).append("if (").append(condition).append(") ").append(array).append('[').append(bit >>> 6).append("] |= ").append(mask(bit)).append(";\n");
+        sb.append(indent).append("else ").append(array).append('[').append(bit >>> 6).append("] &= ~").append(mask(bit)).append(";\n");
+    }
+
+    /**
+     * 创建数组的表达式，如 new long[capacity]、new byte[capacity][]
+     */
+    private static String arrayCreation(String type) {
+        int dimension = type.indexOf('[');
+        if (dimension < 0) return type + "[capacity]";
+        return type.substring(0, dimension) + "[capacity]" + type.substring(dimension);
+    }
+
+}
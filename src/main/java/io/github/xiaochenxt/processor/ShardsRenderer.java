@@ -0,0 +1,44 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 生成实体的分片工厂，按分片缓存Q类实例
+ *
+ * @author xiaochen
+ */
+public class ShardsRenderer extends AbstractRenderer {
+
+    public ShardsRenderer(String generator) {
+        super(generator);
+    }
+
+    public static String className(TableModel model) {
+        return model.getClassName() + "Shards";
+    }
+
+    public String render(TableModel model) {
+        String className = className(model);
+        String qClassName = model.getQClassName();
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("package ").append(model.getPackageName()).append(";\n\n");
+        sb.append("import com.querydsl.sql.Configuration;\n" +
+                "import io.github.xiaochenxt.sql.ShardFactory;\n" +
+                "import io.github.xiaochenxt.sql.ShardNaming;\n" +
+                "import javax.annotation.processing.Generated;\n\n");
+        appendHeader(sb, model, "分片工厂，同一分片复用同一个" + qClassName + "实例");
+        sb.append("public class ").append(className).append(" extends ShardFactory<").append(qClassName).append("> {\n\n");
+        sb.append("    public ").append(className).append("(ShardNaming naming) {\n");
+        sb.append("        this(naming, DEFAULT_MAX_SIZE);\n    }\n\n");
+        sb.append("    /**\n     * @param maxSize 最多缓存的分片数，超出时淘汰最久未使用的分片\n     */\n");
+        sb.append("    public ").append(className).append("(ShardNaming naming, int maxSize) {\n");
+        sb.append("        super(").append(qClassName).append('.').append(model.getVariableName()).append(", naming, maxSize, ")
+                .append(qClassName).append("::new);\n    }\n\n");
+        sb.append("    /**\n     * @param maxSize 最多缓存的分片数，超出时淘汰最久未使用的分片\n");
+        sb.append("     * @param configuration 分片实例创建时在其中注册JSON字段的类型，为null时不注册\n     */\n");
+        sb.append("    public ").append(className).append("(ShardNaming naming, int maxSize, Configuration configuration) {\n");
+        sb.append("        super(").append(qClassName).append('.').append(model.getVariableName()).append(", naming, maxSize, ")
+                .append(qClassName).append("::new, configuration);\n    }\n\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+}
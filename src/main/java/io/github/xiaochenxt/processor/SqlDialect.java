@@ -0,0 +1,98 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 预生成SQL使用的数据库方言
+ *
+ * @author xiaochen
+ */
+public enum SqlDialect {
+
+    POSTGRESQL('"', '"', "analyse", "analyze", "array", "both", "cast", "collate", "do", "grant", "lateral", "leading",
+            "localtime", "localtimestamp", "only", "placing", "returning", "session_user", "some", "symmetric", "trailing",
+            "variadic"),
+    MYSQL('`', '`', "change", "condition", "current", "div", "interval", "match", "mod", "option", "range", "rank", "read",
+            "replace", "row", "rows", "separator", "show", "sql", "write"),
+    H2('"', '"', "array", "both", "cast", "current_catalog", "current_path", "current_role", "current_schema", "day", "groups",
+            "hour", "if", "ilike", "interval", "leading", "localtime", "localtimestamp", "minus", "minute", "month", "over",
+            "partition", "qualify", "range", "regexp", "row", "rownum", "rows", "second", "session_user", "some",
+            "system_user", "top", "trailing", "uescape", "unknown", "year", "_rowid_");
+
+    /**
+     * 生成预渲染SQL的数据库方言，取值为postgresql、mysql、h2，不指定时不生成
+     */
+    public static final String OPTION_DIALECT = "querydsl.dialect";
+
+    /**
+     * 各方言共有的需要加引号的关键字
+     */
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+            "all", "and", "any", "as", "asc", "between", "by", "case", "check", "column", "constraint", "create",
+            "cross", "current_date", "current_time", "current_timestamp", "current_user", "default", "delete", "desc",
+            "distinct", "drop", "else", "end", "except", "exists", "false", "fetch", "for", "foreign", "from", "full",
+            "group", "having", "in", "index", "inner", "insert", "intersect", "into", "is", "join", "key", "left",
+            "like", "limit", "natural", "not", "null", "offset", "on", "or", "order", "outer", "primary", "references",
+            "right", "select", "set", "table", "then", "to", "true", "union", "unique", "update", "user", "using",
+            "value", "values", "when", "where", "window", "with"));
+
+    private final char openQuote;
+
+    private final char closeQuote;
+
+    /**
+     * 方言特有的关键字
+     */
+    private final Set<String> reservedWords;
+
+    SqlDialect(char openQuote, char closeQuote, String... reservedWords) {
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+        this.reservedWords = new HashSet<>(Arrays.asList(reservedWords));
+    }
+
+    /**
+     * 解析处理器参数
+     *
+     * @return 未指定时返回null
+     */
+    public static SqlDialect of(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(OPTION_DIALECT + "只支持postgresql、mysql、h2：" + name);
+        }
+    }
+
+    /**
+     * 标识符为关键字或包含特殊字符时加引号
+     */
+    public String quote(String identifier) {
+        String lowerCase = identifier.toLowerCase(Locale.ROOT);
+        if (RESERVED_WORDS.contains(lowerCase) || reservedWords.contains(lowerCase) || !isPlainIdentifier(identifier)) {
+            return openQuote + identifier + closeQuote;
+        }
+        return identifier;
+    }
+
+    /**
+     * 表名，只有显式指定schema时才带schema
+     */
+    public String table(TableModel model) {
+        return model.isSchemaDeclared() ? quote(model.getSchema()) + "." + quote(model.getTable()) : quote(model.getTable());
+    }
+
+    private static boolean isPlainIdentifier(String identifier) {
+        if (identifier.isEmpty() || !(Character.isLetter(identifier.charAt(0)) || identifier.charAt(0) == '_')) return false;
+        for (int i = 1; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_')) return false;
+        }
+        return true;
+    }
+
+}
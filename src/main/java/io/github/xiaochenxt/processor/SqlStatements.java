@@ -0,0 +1,159 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.List;
+
+/**
+ * 按方言预渲染的增删改查SQL，参数按字段顺序以?占位
+ *
+ * @author xiaochen
+ */
+public final class SqlStatements {
+
+    private final TableModel model;
+
+    private final SqlDialect dialect;
+
+    private final String table;
+
+    public SqlStatements(TableModel model, SqlDialect dialect) {
+        this.model = model;
+        this.dialect = dialect;
+        this.table = dialect.table(model);
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public boolean hasPrimaryKey() {
+        return model.getPrimaryKey() != null;
+    }
+
+    /**
+     * 是否有主键以外的字段，只有主键时不能按主键更新
+     */
+    public boolean hasNonKeyColumns() {
+        return hasPrimaryKey() && model.getColumns().size() > 1;
+    }
+
+    /**
+     * 全部字段的查询列，按字段顺序以逗号分隔
+     */
+    public String columns() {
+        List<ColumnInfo> columns = model.getColumns();
+        StringBuilder sb = new StringBuilder(columns.size() * 16);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(dialect.quote(columns.get(i).getColumn()));
+        }
+        return sb.toString();
+    }
+
+    public String selectById() {
+        return "select " + columns() + " from " + table + " where " + dialect.quote(model.getPrimaryKey().getColumn()) + " = ?";
+    }
+
+    public String insert() {
+        return insertPrefix() + valuesRow();
+    }
+
+    /**
+     * 插入语句values之前的部分，后接一行或多行参数占位
+     */
+    public String insertPrefix() {
+        return "insert into " + table + " (" + columns() + ") values ";
+    }
+
+    /**
+     * 按主键插入或更新语句values之前的部分，H2使用merge into ... key
+     */
+    public String upsertPrefix() {
+        if (dialect == SqlDialect.H2) {
+            return "merge into " + table + " (" + columns() + ") key (" + dialect.quote(model.getPrimaryKey().getColumn()) + ") values ";
+        }
+        return insertPrefix();
+    }
+
+    /**
+     * 按主键插入或更新语句values之后的部分，主键冲突时更新其余字段
+     */
+    public String upsertSuffix() {
+        ColumnInfo primaryKey = model.getPrimaryKey();
+        String id = dialect.quote(primaryKey.getColumn());
+        StringBuilder sb = new StringBuilder();
+        switch (dialect) {
+            case POSTGRESQL:
+                sb.append(" on conflict (").append(id).append(')');
+                if (model.getColumns().size() == 1) return sb.append(" do nothing").toString();
+                sb.append(" do update set ");
+                break;
+            case MYSQL:
+                sb.append(" on duplicate key update ");
+                if (model.getColumns().size() == 1) return sb.append(id).append(" = ").append(id).toString();
+                break;
+            default:
+                return "";
+        }
+        boolean first = true;
+        for (ColumnInfo column : model.getColumns()) {
+            if (column == primaryKey) continue;
+            String name = dialect.quote(column.getColumn());
+            if (!first) sb.append(", ");
+            sb.append(name).append(" = ");
+            if (dialect == SqlDialect.POSTGRESQL) {
+                sb.append("excluded.").append(name);
+            } else {
+                sb.append("values(").append(name).append(')');
+            }
+            first = false;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 更新除主键外的全部字段，最后一个参数为主键，须先确认{@link #hasNonKeyColumns()}
+     */
+    public String updateById() {
+        if (!hasNonKeyColumns()) throw new IllegalStateException(model.getClassName() + "没有主键以外的字段，不能按主键更新");
+        StringBuilder sb = new StringBuilder("update ").append(table).append(" set ");
+        boolean first = true;
+        for (ColumnInfo column : model.getColumns()) {
+            if (column == model.getPrimaryKey()) continue;
+            if (!first) sb.append(", ");
+            sb.append(dialect.quote(column.getColumn())).append(" = ?");
+            first = false;
+        }
+        return sb.append(" where ").append(dialect.quote(model.getPrimaryKey().getColumn())).append(" = ?").toString();
+    }
+
+    public String deleteById() {
+        return "delete from " + table + " where " + dialect.quote(model.getPrimaryKey().getColumn()) + " = ?";
+    }
+
+    /**
+     * PostgreSQL按全部字段以二进制格式导入
+     */
+    public String copyIn() {
+        return "copy " + table + " (" + columns() + ") from stdin (format binary)";
+    }
+
+    /**
+     * PostgreSQL按全部字段以二进制格式导出
+     */
+    public String copyOut() {
+        return "copy " + table + " (" + columns() + ") to stdout (format binary)";
+    }
+
+    /**
+     * 一行的参数占位，如 (?, ?, ?)
+     */
+    public String valuesRow() {
+        int size = model.getColumns().size();
+        StringBuilder sb = new StringBuilder(size * 3 + 2).append('(');
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+
+}
@@ -0,0 +1,160 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.*;
+
+/**
+ * 实体对应的表模型，每个实体只构建一次，构建完成后不可变，供各代码生成器复用
+ *
+ * @author xiaochen
+ */
+public final class TableModel {
+
+    /**
+     * 实体全限定名
+     */
+    private final String entityName;
+
+    private final String packageName;
+
+    /**
+     * 实体类名
+     */
+    private final String className;
+
+    private final String schema;
+
+    /**
+     * schema是否在@Table中显式指定
+     */
+    private final boolean schemaDeclared;
+
+    private final String table;
+
+    /**
+     * 按声明顺序排列的字段，父类字段在前
+     */
+    private final List<ColumnInfo> columns;
+
+    /**
+     * 数据库字段名到字段信息的索引
+     */
+    private final Map<String, ColumnInfo> columnsByName;
+
+    /**
+     * 主键字段，没有@Id时为null
+     */
+    private final ColumnInfo primaryKey;
+
+    /**
+     * 声明的索引，不含主键
+     */
+    private final List<IndexInfo> indexes;
+
+    /**
+     * 是否存在同包可访问的无参构造方法
+     */
+    private final boolean defaultConstructor;
+
+    /**
+     * 是否存在同包可访问、参数与字段顺序和类型一致的构造方法
+     */
+    private final boolean columnsConstructor;
+
+    public TableModel(String entityName, String packageName, String className, String schema, boolean schemaDeclared, String table, LinkedHashMap<String, ColumnInfo> columns,
+                      List<IndexInfo> indexes, boolean defaultConstructor, boolean columnsConstructor) {
+        this.entityName = entityName;
+        this.packageName = packageName;
+        this.className = className;
+        this.schema = schema;
+        this.schemaDeclared = schemaDeclared;
+        this.table = table;
+        this.columnsByName = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns.values()));
+        ColumnInfo id = null;
+        for (ColumnInfo column : this.columns) {
+            if (column.isId()) {
+                id = column;
+                break;
+            }
+        }
+        this.primaryKey = id;
+        this.indexes = Collections.unmodifiableList(new ArrayList<>(indexes));
+        this.defaultConstructor = defaultConstructor;
+        this.columnsConstructor = columnsConstructor;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getQClassName() {
+        return "Q" + className;
+    }
+
+    public String getQualifiedQClassName() {
+        return packageName.isEmpty() ? getQClassName() : packageName + "." + getQClassName();
+    }
+
+    /**
+     * 实体的二进制名，即Class.getName()的返回值，嵌套类使用$分隔
+     */
+    public String getEntityBinaryName() {
+        if (packageName.isEmpty()) return entityName.replace('.', '$');
+        return packageName + "." + entityName.substring(packageName.length() + 1).replace('.', '$');
+    }
+
+    /**
+     * Q类中默认实例的变量名
+     */
+    public String getVariableName() {
+        return className.substring(0, 1).toLowerCase() + (className.length() == 1 ? "" : className.substring(1));
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public boolean isSchemaDeclared() {
+        return schemaDeclared;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<ColumnInfo> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 按数据库字段名查找字段
+     */
+    public ColumnInfo getColumn(String column) {
+        return columnsByName.get(column);
+    }
+
+    public ColumnInfo getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public List<IndexInfo> getIndexes() {
+        return indexes;
+    }
+
+    public boolean hasDefaultConstructor() {
+        return defaultConstructor;
+    }
+
+    public boolean hasColumnsConstructor() {
+        return columnsConstructor;
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.function.Function;
+
+/**
+ * java类型到querydsl路径类型及jdbc元数据的映射
+ *
+ * @author xiaochen
+ */
+public final class TypeMapping {
+
+    private final PathKind pathKind;
+
+    private final Function<ColumnInfo, String> columnType;
+
+    private TypeMapping(PathKind pathKind, Function<ColumnInfo, String> columnType) {
+        this.pathKind = pathKind;
+        this.columnType = columnType;
+    }
+
+    /**
+     * @param pathKind 路径类型
+     * @param columnType 根据字段信息生成jdbc元数据，如 ofType(Types.VARCHAR).withSize(255)
+     */
+    public static TypeMapping of(PathKind pathKind, Function<ColumnInfo, String> columnType) {
+        return new TypeMapping(pathKind, columnType);
+    }
+
+    /**
+     * @param jdbcType {@link java.sql.Types}中的常量名
+     */
+    public static TypeMapping of(PathKind pathKind, String jdbcType) {
+        String columnType = "ofType(Types." + jdbcType + ")";
+        return new TypeMapping(pathKind, column -> columnType);
+    }
+
+    public static TypeMapping of(PathKind pathKind, String jdbcType, int size) {
+        String columnType = "ofType(Types." + jdbcType + ").withSize(" + size + ")";
+        return new TypeMapping(pathKind, column -> columnType);
+    }
+
+    public static TypeMapping of(PathKind pathKind, String jdbcType, int size, int digits) {
+        String columnType = "ofType(Types." + jdbcType + ").withSize(" + size + ").withDigits(" + digits + ")";
+        return new TypeMapping(pathKind, column -> columnType);
+    }
+
+    public PathKind getPathKind() {
+        return pathKind;
+    }
+
+    /**
+     * 字段对应的jdbc类型、长度等元数据，不含notNull
+     */
+    public String columnType(ColumnInfo column) {
+        return columnType.apply(column);
+    }
+
+}
@@ -0,0 +1,16 @@
+package io.github.xiaochenxt.processor;
+
+/**
+ * 自定义类型映射扩展点，实现类通过 META-INF/services/io.github.xiaochenxt.processor.TypeMappingProvider 注册，
+ * 并与处理器一起放在注解处理器路径上
+ *
+ * @author xiaochen
+ */
+public interface TypeMappingProvider {
+
+    /**
+     * 注册类型映射，后注册的覆盖先注册的
+     */
+    void register(TypeMappings mappings);
+
+}
@@ -0,0 +1,120 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.*;
+
+/**
+ * 类型映射注册表，按java类型全限定名查找。
+ * 加载顺序为内置映射、{@link TypeMappingProvider}扩展、处理器参数，后者覆盖前者
+ *
+ * @author xiaochen
+ */
+public final class TypeMappings {
+
+    /**
+     * 自定义类型映射，格式为 类型=路径类型:jdbc类型[:长度[:小数位数]]，多个以英文逗号分隔，
+     * 如 -Aquerydsl.typeMappings=com.example.Money=NUMBER:NUMERIC:19:2,java.util.UUID=COMPARABLE:OTHER
+     */
+    public static final String OPTION_TYPE_MAPPINGS = "querydsl.typeMappings";
+
+    /**
+     * 按JSON存储的类型，多个以英文逗号分隔
+     */
+    public static final String OPTION_JSON_TYPES = "querydsl.jsonTypes";
+
+    private final Map<String, TypeMapping> mappings = new HashMap<>();
+
+    private final Set<String> jsonTypes = new HashSet<>();
+
+    /**
+     * 未注册的类型按JSON或字符串存储
+     */
+    private final Map<PathKind, TypeMapping> fallbacks = new EnumMap<>(PathKind.class);
+
+    private TypeMappings() {
+        for (PathKind pathKind : PathKind.values()) {
+            fallbacks.put(pathKind, TypeMapping.of(pathKind, column -> column.isJson()
+                    ? "ofType(Types.OTHER).withSize(" + Integer.MAX_VALUE + ")"
+                    : "ofType(Types.VARCHAR).withSize(" + column.getLength() + ")"));
+        }
+        fallbacks.put(PathKind.ARRAY, TypeMapping.of(PathKind.ARRAY, "ARRAY"));
+    }
+
+    /**
+     * 加载内置映射、SPI扩展和处理器参数中的映射
+     */
+    public static TypeMappings load(Map<String, String> options, ClassLoader classLoader) {
+        TypeMappings mappings = new TypeMappings();
+        new DefaultTypeMappingProvider().register(mappings);
+        for (TypeMappingProvider provider : ServiceLoader.load(TypeMappingProvider.class, classLoader)) {
+            provider.register(mappings);
+        }
+        String typeMappings = options.get(OPTION_TYPE_MAPPINGS);
+        if (typeMappings != null) {
+            for (String entry : typeMappings.split(",")) {
+                if (entry.trim().isEmpty()) continue;
+                mappings.register(entry);
+            }
+        }
+        String jsonTypes = options.get(OPTION_JSON_TYPES);
+        if (jsonTypes != null) {
+            for (String jsonType : jsonTypes.split(",")) {
+                if (!jsonType.trim().isEmpty()) mappings.registerJson(jsonType.trim());
+            }
+        }
+        return mappings;
+    }
+
+    public void register(String javaType, TypeMapping mapping) {
+        mappings.put(javaType, mapping);
+    }
+
+    /**
+     * 标记类型按JSON存储
+     */
+    public void registerJson(String javaType) {
+        jsonTypes.add(javaType);
+    }
+
+    /**
+     * 获取已注册的映射
+     *
+     * @return 未注册时返回null
+     */
+    public TypeMapping get(String javaType) {
+        return mappings.get(javaType);
+    }
+
+    /**
+     * 获取映射，未注册时按路径类型返回默认映射
+     */
+    public TypeMapping get(String javaType, PathKind defaultPathKind) {
+        TypeMapping mapping = mappings.get(javaType);
+        return mapping != null ? mapping : fallbacks.get(defaultPathKind);
+    }
+
+    public boolean isJson(String javaType) {
+        return jsonTypes.contains(javaType);
+    }
+
+    /**
+     * 解析 类型=路径类型:jdbc类型[:长度[:小数位数]]
+     */
+    private void register(String entry) {
+        int index = entry.indexOf('=');
+        String[] parts = index < 0 ? new String[0] : entry.substring(index + 1).trim().split(":");
+        if (parts.length < 2 || parts.length > 4) {
+            throw new IllegalArgumentException(OPTION_TYPE_MAPPINGS + "格式错误：" + entry);
+        }
+        String javaType = entry.substring(0, index).trim();
+        PathKind pathKind = PathKind.valueOf(parts[0].trim());
+        String jdbcType = parts[1].trim();
+        if (parts.length == 2) {
+            register(javaType, TypeMapping.of(pathKind, jdbcType));
+        } else if (parts.length == 3) {
+            register(javaType, TypeMapping.of(pathKind, jdbcType, Integer.parseInt(parts[2].trim())));
+        } else {
+            register(javaType, TypeMapping.of(pathKind, jdbcType, Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
+        }
+    }
+
+}
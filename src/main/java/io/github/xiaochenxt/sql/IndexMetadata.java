@@ -0,0 +1,54 @@
+package io.github.xiaochenxt.sql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 索引元数据，字段按索引中的顺序排列
+ *
+ * @author xiaochen
+ */
+public final class IndexMetadata {
+
+    private final String name;
+
+    private final boolean unique;
+
+    private final List<String> columns;
+
+    public IndexMetadata(String name, boolean unique, String... columns) {
+        if (columns.length == 0) throw new IllegalArgumentException("索引至少包含一个字段：" + name);
+        this.name = name;
+        this.unique = unique;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns.clone()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * 数据库字段名，按索引中的顺序排列
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 索引的第一个字段，查询条件只有包含它时才能使用该索引
+     */
+    public String getLeadingColumn() {
+        return columns.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return name + columns;
+    }
+
+}
@@ -0,0 +1,14 @@
+package io.github.xiaochenxt.sql;
+
+import java.util.List;
+
+/**
+ * 声明了索引的Q类实现此接口，主键不在索引列表中
+ *
+ * @author xiaochen
+ */
+public interface IndexedPath {
+
+    List<IndexMetadata> getIndexes();
+
+}
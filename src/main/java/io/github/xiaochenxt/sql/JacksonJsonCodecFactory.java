@@ -0,0 +1,58 @@
+package io.github.xiaochenxt.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.UncheckedIOException;
+
+/**
+ * 基于Jackson的编解码器，每个类型预先创建ObjectReader和ObjectWriter，读写时不再查找序列化器
+ *
+ * @author xiaochen
+ */
+public class JacksonJsonCodecFactory implements JsonCodecFactory {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 使用注册了类路径上全部模块的ObjectMapper
+     */
+    public JacksonJsonCodecFactory() {
+        this(new ObjectMapper().findAndRegisterModules());
+    }
+
+    /**
+     * @param objectMapper 如Spring容器中的ObjectMapper，创建编解码器后不应再修改配置
+     */
+    public JacksonJsonCodecFactory(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <T> JsonCodec<T> create(Class<T> type) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        ObjectWriter writer = objectMapper.writerFor(type);
+        return new JsonCodec<T>() {
+            @Override
+            public T read(String json) {
+                try {
+                    return reader.readValue(json);
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException("JSON解析失败：" + type.getName(), e);
+                }
+            }
+
+            @Override
+            public String write(T value) {
+                try {
+                    return writer.writeValueAsString(value);
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException("JSON序列化失败：" + type.getName(), e);
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,20 @@
+package io.github.xiaochenxt.sql;
+
+/**
+ * 单个java类型与JSON文本的转换，实例创建一次后共享，须线程安全
+ *
+ * @author xiaochen
+ */
+public interface JsonCodec<T> {
+
+    /**
+     * @param json 非null的JSON文本
+     */
+    T read(String json);
+
+    /**
+     * @param value 非null的值
+     */
+    String write(T value);
+
+}
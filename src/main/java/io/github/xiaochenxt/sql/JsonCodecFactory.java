@@ -0,0 +1,12 @@
+package io.github.xiaochenxt.sql;
+
+/**
+ * 按java类型创建{@link JsonCodec}，每个类型只调用一次
+ *
+ * @author xiaochen
+ */
+public interface JsonCodecFactory {
+
+    <T> JsonCodec<T> create(Class<T> type);
+
+}
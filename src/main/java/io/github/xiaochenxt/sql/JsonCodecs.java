@@ -0,0 +1,77 @@
+package io.github.xiaochenxt.sql;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * 按类型缓存的{@link JsonCodec}，每个类型首次使用时创建一次，之后所有读写共享同一个实例
+ * <p>
+ * 工厂依次取{@link #setFactory}设置的工厂、ServiceLoader加载的{@link JsonCodecFactory}、类路径上的Jackson
+ *
+ * @author xiaochen
+ */
+public final class JsonCodecs {
+
+    private static final ClassValue<JsonCodec<?>> CODECS = new ClassValue<JsonCodec<?>>() {
+        @Override
+        protected JsonCodec<?> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private static volatile JsonCodecFactory factory;
+
+    /**
+     * 是否已创建过编解码器，创建后不能再更换工厂
+     */
+    private static volatile boolean used;
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * 设置创建编解码器的工厂，须在首次读写JSON字段前调用
+     *
+     * @throws IllegalStateException 已创建过编解码器
+     */
+    public static synchronized void setFactory(JsonCodecFactory factory) {
+        if (used) throw new IllegalStateException("JSON编解码器已创建，须在首次读写JSON字段前设置工厂");
+        JsonCodecs.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> forType(Class<T> type) {
+        return (JsonCodec<T>) CODECS.get(type);
+    }
+
+    private static synchronized <T> JsonCodec<T> create(Class<T> type) {
+        used = true;
+        return factory().create(type);
+    }
+
+    private static JsonCodecFactory factory() {
+        JsonCodecFactory current = factory;
+        if (current == null) {
+            Iterator<JsonCodecFactory> factories = ServiceLoader.load(JsonCodecFactory.class, JsonCodecs.class.getClassLoader()).iterator();
+            if (factories.hasNext()) {
+                current = factories.next();
+            } else if (isPresent("com.fasterxml.jackson.databind.ObjectMapper")) {
+                current = new JacksonJsonCodecFactory();
+            } else {
+                throw new IllegalStateException("类路径上没有Jackson，须通过JsonCodecs.setFactory设置JSON编解码器工厂");
+            }
+            factory = current;
+        }
+        return current;
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, JsonCodecs.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.SimplePath;
+import com.querydsl.core.types.dsl.StringExpression;
+
+/**
+ * JSON字段的路径，持有该类型共享的{@link JsonType}，并提供PostgreSQL的JSON运算
+ *
+ * @author xiaochen
+ */
+public class JsonPath<T> extends SimplePath<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean jsonb;
+
+    /**
+     * 反序列化后为null，使用时重新获取
+     */
+    private transient JsonType<T> jsonType;
+
+    /**
+     * @param jsonb 是否以PostgreSQL的json、jsonb类型绑定参数
+     */
+    public JsonPath(Class<? extends T> type, PathMetadata metadata, boolean jsonb) {
+        super(type, metadata);
+        this.jsonb = jsonb;
+        this.jsonType = jsonType();
+    }
+
+    public JsonType<T> getJsonType() {
+        JsonType<T> current = jsonType;
+        if (current == null) jsonType = current = jsonType();
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonType<T> jsonType() {
+        return JsonType.of((Class<T>) getType(), jsonb);
+    }
+
+    public JsonCodec<T> getCodec() {
+        return getJsonType().getCodec();
+    }
+
+    /**
+     * 顶层属性的文本值，PostgreSQL：{@code column ->> key}
+     */
+    public StringExpression text(String key) {
+        return Expressions.stringTemplate("{0} ->> {1}", this, key);
+    }
+
+    /**
+     * 是否包含指定的值，PostgreSQL jsonb：{@code column @> value}
+     */
+    public BooleanExpression contains(T value) {
+        return containsJson(getCodec().write(value));
+    }
+
+    /**
+     * 是否包含指定的JSON文本，PostgreSQL jsonb：{@code column @> json}
+     */
+    public BooleanExpression containsJson(String json) {
+        return Expressions.booleanTemplate("{0} @> cast({1} as jsonb)", this, json);
+    }
+
+    /**
+     * 是否有指定的顶层属性，PostgreSQL jsonb：{@code column ? key}，用函数形式避免与JDBC参数占位符冲突
+     */
+    public BooleanExpression hasKey(String key) {
+        return Expressions.booleanTemplate("jsonb_exists({0}, {1})", this, key);
+    }
+
+}
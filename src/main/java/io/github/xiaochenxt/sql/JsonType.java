@@ -0,0 +1,117 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.types.AbstractType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * JSON字段的querydsl类型，按文本读取后用{@link JsonCodecs}中该类型共享的编解码器转换，
+ * 生成的行映射器、批量写入器也通过它读写JSON字段
+ * <p>
+ * jsonb为true时以{@link Types#OTHER}绑定文本参数，PostgreSQL的json、jsonb字段无需在SQL中转换类型
+ *
+ * @author xiaochen
+ */
+public final class JsonType<T> extends AbstractType<T> {
+
+    private static final ClassValue<JsonType<?>[]> TYPES = new ClassValue<JsonType<?>[]>() {
+        @Override
+        protected JsonType<?>[] computeValue(Class<?> type) {
+            return new JsonType<?>[]{new JsonType<>(type, false), new JsonType<>(type, true)};
+        }
+    };
+
+    private final Class<T> type;
+
+    private final boolean jsonb;
+
+    /**
+     * 首次读写时从{@link JsonCodecs}获取
+     */
+    private volatile JsonCodec<T> codec;
+
+    private JsonType(Class<T> type, boolean jsonb) {
+        super(jsonb ? Types.OTHER : Types.VARCHAR);
+        this.type = type;
+        this.jsonb = jsonb;
+    }
+
+    /**
+     * 同一类型和绑定方式共享同一个实例
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonType<T> of(Class<T> type, boolean jsonb) {
+        return (JsonType<T>) TYPES.get(type)[jsonb ? 1 : 0];
+    }
+
+    /**
+     * 将Q类中的JSON字段注册到querydsl配置，查询和更新时按字段使用对应的JsonType
+     */
+    public static void register(Configuration configuration, RelationalPath<?>... tables) {
+        for (RelationalPath<?> table : tables) {
+            for (Path<?> column : table.getColumns()) {
+                if (column instanceof JsonPath) {
+                    configuration.register(table.getTableName(), ColumnMetadata.getName(column), ((JsonPath<?>) column).getJsonType());
+                }
+            }
+        }
+    }
+
+    public JsonCodec<T> getCodec() {
+        JsonCodec<T> current = codec;
+        if (current == null) codec = current = JsonCodecs.forType(type);
+        return current;
+    }
+
+    /**
+     * @return value为null时返回null
+     */
+    public String toJson(T value) {
+        return value == null ? null : getCodec().write(value);
+    }
+
+    /**
+     * @return json为null时返回null
+     */
+    public T fromJson(String json) {
+        return json == null ? null : getCodec().read(json);
+    }
+
+    public boolean isJsonb() {
+        return jsonb;
+    }
+
+    @Override
+    public Class<T> getReturnedClass() {
+        return type;
+    }
+
+    @Override
+    public T getValue(ResultSet rs, int startIndex) throws SQLException {
+        return fromJson(rs.getString(startIndex));
+    }
+
+    @Override
+    public void setValue(PreparedStatement st, int startIndex, T value) throws SQLException {
+        if (value == null) {
+            st.setNull(startIndex, jsonb ? Types.OTHER : Types.VARCHAR);
+        } else if (jsonb) {
+            st.setObject(startIndex, getCodec().write(value), Types.OTHER);
+        } else {
+            st.setString(startIndex, getCodec().write(value));
+        }
+    }
+
+    @Override
+    public String getLiteral(T value) {
+        return getCodec().write(value);
+    }
+
+}
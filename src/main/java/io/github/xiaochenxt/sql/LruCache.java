@@ -0,0 +1,88 @@
+package io.github.xiaochenxt.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 有容量上限的并发缓存，按键的哈希分段加锁，每段按访问顺序淘汰最久未使用的条目
+ *
+ * @author xiaochen
+ */
+final class LruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    LruCache(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize必须大于0：" + maxSize);
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= maxSize) count <<= 1;
+        segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        int capacity = (maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity);
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * 获取缓存的值，不存在时在段锁内创建，同一个键只创建一次
+     */
+    V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            V value = segment.get(key);
+            if (value == null) {
+                value = factory.apply(key);
+                segment.put(key, value);
+            }
+            return value;
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment<K, V> segment(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+}
@@ -0,0 +1,291 @@
+package io.github.xiaochenxt.sql;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static io.github.xiaochenxt.sql.PgCopyWriter.*;
+
+/**
+ * 读取PostgreSQL的COPY BINARY格式，数据先读入一个复用的直接缓冲区
+ * <p>
+ * 每个字段先调用{@link #readNull()}，返回false时再按字段类型调用对应的read方法
+ *
+ * @author xiaochen
+ */
+public final class PgCopyReader {
+
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * 读取文本和字节数组的复用缓冲
+     */
+    private byte[] bytes = new byte[256];
+
+    /**
+     * 当前字段的长度，已读取或为null时为-1
+     */
+    private int length = -1;
+
+    private boolean finished;
+
+    public PgCopyReader(InputStream in) throws IOException {
+        this(Channels.newChannel(in), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建后立即读取并校验文件头
+     *
+     * @param bufferSize 直接缓冲区的容量
+     */
+    public PgCopyReader(ReadableByteChannel channel, int bufferSize) throws IOException {
+        if (bufferSize < MIN_BUFFER_SIZE) throw new IllegalArgumentException("bufferSize不能小于" + MIN_BUFFER_SIZE + "：" + bufferSize);
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+        require(SIGNATURE.length + 8);
+        for (byte b : SIGNATURE) {
+            if (buffer.get() != b) throw new IOException("不是COPY BINARY格式");
+        }
+        int flags = buffer.getInt();
+        // 第16位表示包含OID，其余高16位为必须识别的标志
+        if ((flags & 0xFFFF0000) != 0) throw new IOException("不支持的COPY BINARY标志：" + Integer.toHexString(flags));
+        skip(buffer.getInt());
+    }
+
+    /**
+     * 读取下一行的字段数
+     *
+     * @return 已读到结束标记时返回-1
+     */
+    public int nextRow() throws IOException {
+        if (finished) return -1;
+        if (length >= 0) throw new IllegalStateException("上一个字段未读取");
+        require(2);
+        short fieldCount = buffer.getShort();
+        if (fieldCount == -1) {
+            finished = true;
+            return -1;
+        }
+        return fieldCount;
+    }
+
+    /**
+     * 读取下一个字段的长度
+     *
+     * @return 字段为null时返回true，否则须接着读取字段值
+     */
+    public boolean readNull() throws IOException {
+        if (length >= 0) throw new IllegalStateException("上一个字段未读取");
+        require(4);
+        length = buffer.getInt();
+        return length < 0;
+    }
+
+    /**
+     * 跳过当前字段的值
+     */
+    public void skipField() throws IOException {
+        skip(take());
+    }
+
+    public long readLong() throws IOException {
+        take(8);
+        return buffer.getLong();
+    }
+
+    public int readInt() throws IOException {
+        take(4);
+        return buffer.getInt();
+    }
+
+    public short readShort() throws IOException {
+        take(2);
+        return buffer.getShort();
+    }
+
+    public boolean readBoolean() throws IOException {
+        take(1);
+        return buffer.get() != 0;
+    }
+
+    public double readDouble() throws IOException {
+        take(8);
+        return buffer.getDouble();
+    }
+
+    public float readFloat() throws IOException {
+        take(4);
+        return buffer.getFloat();
+    }
+
+    public String readText() throws IOException {
+        int size = take();
+        readBytes(size);
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * jsonb，去掉版本号后的JSON文本
+     */
+    public String readJsonb() throws IOException {
+        int size = take();
+        if (size < 1) throw new IOException("jsonb字段长度错误：" + size);
+        require(1);
+        byte version = buffer.get();
+        if (version != JSONB_VERSION) throw new IOException("不支持的jsonb版本：" + version);
+        readBytes(size - 1);
+        return new String(bytes, 0, size - 1, StandardCharsets.UTF_8);
+    }
+
+    public byte[] readBytes() throws IOException {
+        int size = take();
+        byte[] value = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), size - offset);
+            buffer.get(value, offset, chunk);
+            offset += chunk;
+        }
+        return value;
+    }
+
+    public UUID readUuid() throws IOException {
+        take(16);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public LocalDateTime readTimestamp() throws IOException {
+        long micros = readMicros();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L) + PG_EPOCH_SECONDS,
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    public Instant readTimestamptz() throws IOException {
+        long micros = readMicros();
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L) + PG_EPOCH_SECONDS, Math.floorMod(micros, 1_000_000L) * 1000);
+    }
+
+    public LocalDate readDate() throws IOException {
+        take(4);
+        return LocalDate.ofEpochDay(buffer.getInt() + PG_EPOCH_DAYS);
+    }
+
+    public LocalTime readTime() throws IOException {
+        take(8);
+        return LocalTime.ofNanoOfDay(buffer.getLong() * 1000);
+    }
+
+    public BigDecimal readNumeric() throws IOException {
+        int size = take();
+        if (size < 8) throw new IOException("numeric字段长度错误：" + size);
+        require(8);
+        int count = buffer.getShort();
+        int weight = buffer.getShort();
+        short sign = buffer.getShort();
+        int scale = buffer.getShort();
+        if (sign == NUMERIC_NAN) throw new ArithmeticException("numeric为NaN，不能转为BigDecimal");
+        if (sign == NUMERIC_PINF || sign == NUMERIC_NINF) {
+            throw new ArithmeticException("numeric为" + (sign == NUMERIC_NINF ? "-" : "") + "Infinity，不能转为BigDecimal");
+        }
+        if (sign != NUMERIC_POSITIVE && sign != NUMERIC_NEGATIVE) {
+            throw new IOException("numeric符号位错误：0x" + Integer.toHexString(sign & 0xFFFF));
+        }
+        if (size != 8 + count * 2) throw new IOException("numeric字段长度错误：" + size);
+        // 各组按万进制拼成整数，再按最后一组的位置确定小数位数
+        long compact = 0;
+        BigInteger unscaled = null;
+        for (int i = 0; i < count; i++) {
+            require(2);
+            int group = buffer.getShort();
+            if (unscaled == null && compact <= (Long.MAX_VALUE - 9999) / 10000) {
+                compact = compact * 10000 + group;
+            } else {
+                if (unscaled == null) unscaled = BigInteger.valueOf(compact);
+                unscaled = unscaled.multiply(BigInteger.valueOf(10000)).add(BigInteger.valueOf(group));
+            }
+        }
+        int groupScale = (count - 1 - weight) * 4;
+        BigDecimal value = count == 0 ? BigDecimal.ZERO
+                : unscaled == null ? BigDecimal.valueOf(compact, groupScale) : new BigDecimal(unscaled, groupScale);
+        value = value.setScale(scale, RoundingMode.UNNECESSARY);
+        return sign == NUMERIC_NEGATIVE ? value.negate() : value;
+    }
+
+    private long readMicros() throws IOException {
+        take(8);
+        return buffer.getLong();
+    }
+
+    /**
+     * 消费当前字段的长度
+     */
+    private int take() {
+        if (length < 0) throw new IllegalStateException("须先调用readNull()且字段不为null");
+        int size = length;
+        length = -1;
+        return size;
+    }
+
+    private void take(int expected) throws IOException {
+        int size = take();
+        if (size != expected) throw new IOException("字段长度为" + size + "，期望" + expected);
+        require(expected);
+    }
+
+    /**
+     * 读取指定长度到复用缓冲的开头
+     */
+    private void readBytes(int size) throws IOException {
+        if (bytes.length < size) bytes = Arrays.copyOf(bytes, Math.max(size, bytes.length * 2));
+        int offset = 0;
+        while (offset < size) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), size - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private void skip(int size) throws IOException {
+        while (size > 0) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), size);
+            buffer.position(buffer.position() + chunk);
+            size -= chunk;
+        }
+    }
+
+    /**
+     * 保证缓冲区中至少有指定字节数可读，不超过缓冲区容量
+     */
+    private void require(int size) throws IOException {
+        if (buffer.remaining() >= size) return;
+        if (size > buffer.capacity()) throw new IOException("字段长度" + size + "超出缓冲区容量" + buffer.capacity());
+        buffer.compact();
+        while (buffer.position() < size) {
+            if (channel.read(buffer) < 0) throw new EOFException("COPY数据不完整");
+        }
+        buffer.flip();
+    }
+
+}
@@ -0,0 +1,362 @@
+package io.github.xiaochenxt.sql;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * 按PostgreSQL的COPY BINARY格式写出行，所有数据先写入一个复用的直接缓冲区，满后写出到通道
+ * <p>
+ * 每个字段的二进制格式须与表中字段的类型完全一致，如Long对应bigint、Integer对应integer，否则服务端报incorrect binary data format。
+ * 写完所有行后调用{@link #finish()}写出结束标记，不关闭底层的流
+ *
+ * @author xiaochen
+ */
+public final class PgCopyWriter implements Flushable {
+
+    /**
+     * 文件头的签名
+     */
+    static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    /**
+     * PostgreSQL时间的起点2000-01-01T00:00:00Z距1970-01-01的秒数
+     */
+    static final long PG_EPOCH_SECONDS = 946684800L;
+
+    /**
+     * 2000-01-01距1970-01-01的天数
+     */
+    static final long PG_EPOCH_DAYS = 10957L;
+
+    static final short NUMERIC_POSITIVE = 0x0000;
+
+    static final short NUMERIC_NEGATIVE = 0x4000;
+
+    static final short NUMERIC_NAN = (short) 0xC000;
+
+    /**
+     * PostgreSQL 14起numeric支持的Infinity、-Infinity
+     */
+    static final short NUMERIC_PINF = (short) 0xD000;
+
+    static final short NUMERIC_NINF = (short) 0xF000;
+
+    /**
+     * jsonb二进制格式的版本号
+     */
+    static final byte JSONB_VERSION = 1;
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 缓冲区的最小容量，保证任一定长字段可以一次写入
+     */
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private long rows;
+
+    private boolean finished;
+
+    public PgCopyWriter(OutputStream out) throws IOException {
+        this(Channels.newChannel(out), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建后立即写入文件头
+     *
+     * @param bufferSize 直接缓冲区的容量
+     */
+    public PgCopyWriter(WritableByteChannel channel, int bufferSize) throws IOException {
+        if (bufferSize < MIN_BUFFER_SIZE) throw new IllegalArgumentException("bufferSize不能小于" + MIN_BUFFER_SIZE + "：" + bufferSize);
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.put(SIGNATURE);
+        // 标志位和头部扩展区长度
+        buffer.putInt(0);
+        buffer.putInt(0);
+    }
+
+    /**
+     * 开始新的一行
+     *
+     * @param fieldCount 该行的字段数
+     */
+    public void startRow(int fieldCount) throws IOException {
+        if (finished) throw new IllegalStateException("已写出结束标记");
+        ensure(2);
+        buffer.putShort((short) fieldCount);
+        rows++;
+    }
+
+    /**
+     * 已写入的行数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public void writeNull() throws IOException {
+        ensure(4);
+        buffer.putInt(-1);
+    }
+
+    /**
+     * bigint
+     */
+    public void writeLong(long value) throws IOException {
+        ensure(12);
+        buffer.putInt(8).putLong(value);
+    }
+
+    /**
+     * integer
+     */
+    public void writeInt(int value) throws IOException {
+        ensure(8);
+        buffer.putInt(4).putInt(value);
+    }
+
+    /**
+     * smallint
+     */
+    public void writeShort(short value) throws IOException {
+        ensure(6);
+        buffer.putInt(2).putShort(value);
+    }
+
+    /**
+     * boolean
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        ensure(5);
+        buffer.putInt(1).put(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * double precision
+     */
+    public void writeDouble(double value) throws IOException {
+        ensure(12);
+        buffer.putInt(8).putDouble(value);
+    }
+
+    /**
+     * real
+     */
+    public void writeFloat(float value) throws IOException {
+        ensure(8);
+        buffer.putInt(4).putFloat(value);
+    }
+
+    /**
+     * text、varchar，按UTF-8直接编码到缓冲区
+     */
+    public void writeText(String value) throws IOException {
+        writeUtf8(value, false);
+    }
+
+    /**
+     * jsonb，版本号后接UTF-8编码的JSON文本
+     */
+    public void writeJsonb(String json) throws IOException {
+        writeUtf8(json, true);
+    }
+
+    /**
+     * bytea
+     */
+    public void writeBytes(byte[] value) throws IOException {
+        ensure(4);
+        buffer.putInt(value.length);
+        int offset = 0;
+        while (offset < value.length) {
+            if (!buffer.hasRemaining()) flush();
+            int length = Math.min(buffer.remaining(), value.length - offset);
+            buffer.put(value, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * uuid
+     */
+    public void writeUuid(UUID value) throws IOException {
+        ensure(20);
+        buffer.putInt(16).putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+    }
+
+    /**
+     * timestamp，精确到微秒
+     */
+    public void writeTimestamp(LocalDateTime value) throws IOException {
+        writeMicros(value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+    }
+
+    /**
+     * timestamp with time zone，精确到微秒
+     */
+    public void writeTimestamptz(Instant value) throws IOException {
+        writeMicros(value.getEpochSecond(), value.getNano());
+    }
+
+    /**
+     * date
+     */
+    public void writeDate(LocalDate value) throws IOException {
+        ensure(8);
+        buffer.putInt(4).putInt((int) (value.toEpochDay() - PG_EPOCH_DAYS));
+    }
+
+    /**
+     * time，精确到微秒
+     */
+    public void writeTime(LocalTime value) throws IOException {
+        ensure(12);
+        buffer.putInt(8).putLong(value.toNanoOfDay() / 1000);
+    }
+
+    /**
+     * numeric，小数位数取值本身的scale，服务端按字段声明的精度和小数位数处理
+     */
+    public void writeNumeric(BigDecimal value) throws IOException {
+        int scale = Math.max(value.scale(), 0);
+        String digits = value.setScale(scale).unscaledValue().abs().toString();
+        int intLength = digits.length() - scale;
+        int intGroups = intLength > 0 ? (intLength + 3) / 4 : 0;
+        int groups = intGroups + (scale + 3) / 4;
+        // 十进制数字按小数点对齐，每4位一组，去掉首尾为0的组
+        int lead = intGroups * 4 - intLength;
+        int first = 0;
+        while (first < groups && group(digits, lead, first) == 0) first++;
+        int last = groups - 1;
+        while (last >= first && group(digits, lead, last) == 0) last--;
+        int count = last - first + 1;
+        ensure(12 + count * 2);
+        buffer.putInt(8 + count * 2);
+        buffer.putShort((short) count);
+        buffer.putShort((short) (count == 0 ? 0 : intGroups - 1 - first));
+        buffer.putShort(value.signum() < 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+        buffer.putShort((short) scale);
+        for (int i = first; i <= last; i++) {
+            buffer.putShort((short) group(digits, lead, i));
+        }
+    }
+
+    /**
+     * numeric，小数位数为0
+     */
+    public void writeNumeric(BigInteger value) throws IOException {
+        writeNumeric(new BigDecimal(value));
+    }
+
+    /**
+     * 写出结束标记和缓冲区中的数据
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        ensure(2);
+        buffer.putShort((short) -1);
+        finished = true;
+        flush();
+    }
+
+    /**
+     * 将缓冲区中的数据写出到通道
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int length) throws IOException {
+        if (buffer.remaining() < length) flush();
+    }
+
+    private void writeMicros(long epochSecond, int nano) throws IOException {
+        ensure(12);
+        buffer.putInt(8).putLong((epochSecond - PG_EPOCH_SECONDS) * 1_000_000L + nano / 1000);
+    }
+
+    /**
+     * 按小数点对齐补0后第index组的4位十进制数
+     *
+     * @param lead 数字前补0的个数
+     */
+    private static int group(String digits, int lead, int index) {
+        int value = 0;
+        for (int p = index * 4; p < index * 4 + 4; p++) {
+            int i = p - lead;
+            value = value * 10 + (i >= 0 && i < digits.length() ? digits.charAt(i) - '0' : 0);
+        }
+        return value;
+    }
+
+    /**
+     * 先预留长度再编码，编码完成后回填长度；可能超出缓冲区容量的长字符串转为字节数组写入
+     */
+    private void writeUtf8(String value, boolean jsonb) throws IOException {
+        int extra = jsonb ? 1 : 0;
+        int maxLength = 4 + extra + value.length() * 3;
+        if (maxLength > buffer.capacity()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (!jsonb) {
+                writeBytes(bytes);
+                return;
+            }
+            ensure(5);
+            buffer.putInt(bytes.length + 1).put(JSONB_VERSION);
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) flush();
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+            return;
+        }
+        ensure(maxLength);
+        int start = buffer.position();
+        buffer.position(start + 4);
+        if (jsonb) buffer.put(JSONB_VERSION);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符与String.getBytes一致替换为?
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.Union;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 按分片创建Q类实例并缓存，同一分片复用同一个实例，不再每次查询重建字段元数据
+ * <p>
+ * 实例的变量名与默认实例相同，各分片的SQL只有表名或schema不同；缓存超出容量时淘汰最久未使用的分片
+ * <p>
+ * querydsl按表名和字段名查找字段类型，传入{@link Configuration}时每个分片实例创建后通过{@link JsonType#register}注册其JSON字段，
+ * 按表名后缀分片时JSON字段也能编解码
+ *
+ * @author xiaochen
+ */
+public class ShardFactory<Q extends RelationalPath<?>> {
+
+    /**
+     * 默认缓存的分片数
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final String variable;
+
+    private final String schema;
+
+    private final String table;
+
+    private final ShardNaming naming;
+
+    private final Creator<Q> creator;
+
+    private final LruCache<String, Q> cache;
+
+    private final Configuration configuration;
+
+    /**
+     * @param defaultInstance Q类的默认实例，提供变量名、schema和表名
+     * @param naming 分片命名规则
+     * @param maxSize 最多缓存的分片数
+     * @param creator Q类的构造方法，如 QEvent::new
+     */
+    public ShardFactory(Q defaultInstance, ShardNaming naming, int maxSize, Creator<Q> creator) {
+        this(defaultInstance, naming, maxSize, creator, null);
+    }
+
+    /**
+     * @param defaultInstance Q类的默认实例，提供变量名、schema和表名
+     * @param naming 分片命名规则
+     * @param maxSize 最多缓存的分片数
+     * @param creator Q类的构造方法，如 QEvent::new
+     * @param configuration 注册分片JSON字段的querydsl配置，为null时不注册
+     */
+    public ShardFactory(Q defaultInstance, ShardNaming naming, int maxSize, Creator<Q> creator, Configuration configuration) {
+        this.variable = defaultInstance.getMetadata().getName();
+        this.schema = defaultInstance.getSchemaName();
+        this.table = defaultInstance.getTableName();
+        this.naming = naming;
+        this.creator = creator;
+        this.cache = new LruCache<>(maxSize);
+        this.configuration = configuration;
+    }
+
+    /**
+     * 分片对应的Q类实例
+     */
+    public Q shard(String shard) {
+        return cache.computeIfAbsent(shard, this::create);
+    }
+
+    private Q create(String shard) {
+        Q q = creator.create(variable, naming.schema(schema, shard), naming.table(table, shard));
+        if (configuration != null) {
+            // Configuration中的类型映射不是线程安全的，并发创建分片时串行注册
+            synchronized (configuration) {
+                JsonType.register(configuration, q);
+            }
+        }
+        return q;
+    }
+
+    public List<Q> shards(Iterable<String> shards) {
+        List<Q> result = new ArrayList<>();
+        for (String shard : shards) {
+            result.add(shard(shard));
+        }
+        return result;
+    }
+
+    /**
+     * 对每个分片构建子查询，以UNION ALL合并
+     *
+     * @param query 根据分片的Q类实例构建子查询，如 q -> SQLExpressions.select(q.id).from(q).where(...)
+     */
+    public <T> Union<T> unionAll(SQLQueryFactory queryFactory, Iterable<String> shards, Function<? super Q, ? extends SubQueryExpression<T>> query) {
+        List<SubQueryExpression<T>> subQueries = new ArrayList<>();
+        for (String shard : shards) {
+            subQueries.add(query.apply(shard(shard)));
+        }
+        if (subQueries.isEmpty()) throw new IllegalArgumentException("分片不能为空");
+        return queryFactory.query().unionAll(subQueries);
+    }
+
+    /**
+     * 已缓存的分片数
+     */
+    public int cachedSize() {
+        return cache.size();
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * 起止月份（含）之间每月的分片标识，格式为 yyyy_MM，如 2026_09
+     */
+    public static List<String> months(YearMonth from, YearMonth to) {
+        List<String> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month.format(MONTH));
+        }
+        return months;
+    }
+
+    /**
+     * Q类中参数为变量名、schema和表名的构造方法
+     */
+    @FunctionalInterface
+    public interface Creator<Q> {
+
+        Q create(String variable, String schema, String table);
+
+    }
+
+}
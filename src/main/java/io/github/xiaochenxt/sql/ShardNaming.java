@@ -0,0 +1,58 @@
+package io.github.xiaochenxt.sql;
+
+/**
+ * 分片到schema和表名的命名规则
+ *
+ * @author xiaochen
+ */
+public interface ShardNaming {
+
+    /**
+     * @param schema 实体默认的schema
+     * @param shard 分片标识，如 2026_09、租户编号
+     */
+    String schema(String schema, String shard);
+
+    /**
+     * @param table 实体默认的表名
+     * @param shard 分片标识，如 2026_09、租户编号
+     */
+    String table(String table, String shard);
+
+    /**
+     * 表名加后缀，如 event + _ + 2026_09 为 event_2026_09，schema不变
+     */
+    static ShardNaming suffix(String separator) {
+        return new ShardNaming() {
+            @Override
+            public String schema(String schema, String shard) {
+                return schema;
+            }
+
+            @Override
+            public String table(String table, String shard) {
+                return table + separator + shard;
+            }
+        };
+    }
+
+    /**
+     * 每个租户一个schema，schema为前缀加分片标识，表名不变
+     *
+     * @param prefix schema前缀，可为空字符串
+     */
+    static ShardNaming schemaPerTenant(String prefix) {
+        return new ShardNaming() {
+            @Override
+            public String schema(String schema, String shard) {
+                return prefix + shard;
+            }
+
+            @Override
+            public String table(String table, String shard) {
+                return table;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,65 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.sql.RelationalPath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 汇总类路径上所有模块生成的{@link TableRegistry}，首次使用时通过ServiceLoader加载
+ *
+ * @author xiaochen
+ */
+public final class TableRegistries {
+
+    private static volatile List<TableRegistry> registries;
+
+    private TableRegistries() {
+    }
+
+    /**
+     * 类路径上的全部注册表
+     */
+    public static List<TableRegistry> registries() {
+        List<TableRegistry> loaded = registries;
+        if (loaded == null) {
+            synchronized (TableRegistries.class) {
+                loaded = registries;
+                if (loaded == null) {
+                    loaded = new ArrayList<>();
+                    for (TableRegistry registry : ServiceLoader.load(TableRegistry.class, TableRegistries.class.getClassLoader())) {
+                        loaded.add(registry);
+                    }
+                    registries = loaded = Collections.unmodifiableList(loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @param name 表名或 schema.表名
+     * @return 未找到时返回null
+     */
+    public static RelationalPath<?> forTable(String name) {
+        for (TableRegistry registry : registries()) {
+            RelationalPath<?> path = registry.forTable(name);
+            if (path != null) return path;
+        }
+        return null;
+    }
+
+    /**
+     * @return 未找到时返回null
+     */
+    public static RelationalPath<?> forEntity(Class<?> entityClass) {
+        for (TableRegistry registry : registries()) {
+            RelationalPath<?> path = registry.forEntity(entityClass);
+            if (path != null) return path;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.sql.RelationalPath;
+
+import java.util.List;
+
+/**
+ * 编译期生成的Q类注册表，按表名或实体类查找Q类的默认实例，Q类在首次查找时才初始化
+ * <p>
+ * 每个模块生成的注册表通过{@link java.util.ServiceLoader}发现，见{@link TableRegistries}
+ *
+ * @author xiaochen
+ */
+public interface TableRegistry {
+
+    /**
+     * @param name 表名或 schema.表名，表名在多个schema中重复时只能用 schema.表名 查找
+     * @return 未找到时返回null
+     */
+    RelationalPath<?> forTable(String name);
+
+    /**
+     * @return 未找到时返回null
+     */
+    RelationalPath<?> forEntity(Class<?> entityClass);
+
+    /**
+     * 全部表，格式为 schema.表名
+     */
+    List<String> tables();
+
+}
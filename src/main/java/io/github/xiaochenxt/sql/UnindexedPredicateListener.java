@@ -0,0 +1,152 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLBaseListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 检查查询、更新和删除的首个where条件是否命中主键或声明的索引，没有where时检查首个排序字段，
+ * 未命中时计数并记录日志，用于发现全表扫描
+ * <p>
+ * 只判断条件字段是否为主键或索引的第一个字段，未实现{@link IndexedPath}的Q类只按主键判断
+ *
+ * @author xiaochen
+ */
+public class UnindexedPredicateListener extends SQLBaseListener {
+
+    private static final Logger logger = Logger.getLogger(UnindexedPredicateListener.class.getName());
+
+    private final LongAdder unindexed = new LongAdder();
+
+    /**
+     * 日志级别，为null时只计数
+     */
+    private final Level level;
+
+    public UnindexedPredicateListener() {
+        this(Level.WARNING);
+    }
+
+    /**
+     * @param level 日志级别，为null时只计数不记录日志
+     */
+    public UnindexedPredicateListener(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * 未命中索引的语句数
+     */
+    public long getUnindexedCount() {
+        return unindexed.sum();
+    }
+
+    @Override
+    public void notifyQuery(QueryMetadata md) {
+        Predicate where = md.getWhere();
+        if (where != null) {
+            check(leading(where), "where");
+        } else if (!md.getOrderBy().isEmpty()) {
+            check(md.getOrderBy().get(0).getTarget(), "orderBy");
+        }
+    }
+
+    @Override
+    public void notifyDelete(RelationalPath<?> entity, QueryMetadata md) {
+        if (md.getWhere() != null) check(leading(md.getWhere()), "where");
+    }
+
+    @Override
+    public void notifyUpdate(RelationalPath<?> entity, QueryMetadata md, Map<Path<?>, Expression<?>> updates) {
+        if (md.getWhere() != null) check(leading(md.getWhere()), "where");
+    }
+
+    private void check(Expression<?> expression, String clause) {
+        if (isIndexed(expression)) return;
+        unindexed.increment();
+        if (level != null && logger.isLoggable(level)) {
+            List<Path<?>> columns = new ArrayList<>();
+            collectColumns(expression, columns);
+            RelationalPath<?> table = (RelationalPath<?>) columns.get(0).getMetadata().getParent();
+            logger.log(level, "{0}条件未命中索引，可能导致全表扫描：{1}，表：{2}", new Object[]{clause, expression, table.getTableName()});
+        }
+    }
+
+    /**
+     * or连接的条件须每个分支都命中索引，否则仍要全表扫描；其余条件中有任一字段命中索引即视为命中，
+     * 不包含表字段的条件不检查
+     */
+    private static boolean isIndexed(Expression<?> expression) {
+        if (expression instanceof Operation && ((Operation<?>) expression).getOperator() == Ops.OR) {
+            for (Expression<?> branch : ((Operation<?>) expression).getArgs()) {
+                if (!isIndexed(leading(branch))) return false;
+            }
+            return true;
+        }
+        List<Path<?>> columns = new ArrayList<>();
+        collectColumns(expression, columns);
+        if (columns.isEmpty()) return true;
+        for (Path<?> column : columns) {
+            if (isIndexedColumn(column)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 字段是否为主键或任一索引的第一个字段
+     */
+    private static boolean isIndexedColumn(Path<?> column) {
+        RelationalPath<?> table = (RelationalPath<?>) column.getMetadata().getParent();
+        ColumnMetadata metadata = table.getMetadata(column);
+        if (metadata == null) return true;
+        String name = metadata.getName();
+        PrimaryKey<?> primaryKey = table.getPrimaryKey();
+        if (primaryKey != null && !primaryKey.getLocalColumns().isEmpty()) {
+            ColumnMetadata leading = table.getMetadata(primaryKey.getLocalColumns().get(0));
+            if (leading != null && leading.getName().equals(name)) return true;
+        }
+        if (table instanceof IndexedPath) {
+            for (IndexMetadata index : ((IndexedPath) table).getIndexes()) {
+                if (index.getLeadingColumn().equals(name)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * and连接的条件取第一个
+     */
+    private static Expression<?> leading(Expression<?> predicate) {
+        while (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+            predicate = ((Operation<?>) predicate).getArg(0);
+        }
+        return predicate;
+    }
+
+    /**
+     * 收集表达式中属于表的字段，不进入子查询
+     */
+    private static void collectColumns(Expression<?> expression, List<Path<?>> columns) {
+        if (expression instanceof Path) {
+            Path<?> path = (Path<?>) expression;
+            if (path.getMetadata().getParent() instanceof RelationalPath) {
+                columns.add(path);
+            }
+        } else if (expression instanceof Operation) {
+            for (Expression<?> arg : ((Operation<?>) expression).getArgs()) {
+                collectColumns(arg, columns);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package io.github.xiaochenxt.processor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的批量写入器在内嵌H2的真实表上执行，每块3行，7行时最后一块不足一块
+ *
+ * @author xiaochen
+ */
+class BatchWriterH2Test {
+
+    private static final int CHUNK_SIZE = 3;
+
+    private static ClassLoader classLoader;
+
+    private Connection connection;
+
+    private Object writer;
+
+    @BeforeAll
+    static void compile() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("batch.Item", "package batch;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"item\")\n" +
+                "public class Item {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    String name;\n" +
+                "    Integer qty;\n\n" +
+                "    public Item(Long id, String name, Integer qty) {\n" +
+                "        this.id = id;\n" +
+                "        this.name = name;\n" +
+                "        this.qty = qty;\n" +
+                "    }\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.dialect=h2").option("querydsl.batchWriter=true").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        classLoader = result.classLoader();
+    }
+
+    @BeforeEach
+    void createTable() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table item (id bigint primary key, name varchar(64), qty int)");
+        }
+        writer = classLoader.loadClass("batch.ItemBatchWriter").getConstructor(int.class).newInstance(CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void insertExecutesFullAndPartialChunks() throws Exception {
+        assertEquals(7L, write("insert", items(1, 7, "a")));
+        assertEquals(expected(1, 7, "a"), rows());
+    }
+
+    @Test
+    void insertMultiRowExecutesFullAndPartialChunks() throws Exception {
+        assertEquals(7L, write("insertMultiRow", items(1, 7, "a")));
+        assertEquals(expected(1, 7, "a"), rows());
+    }
+
+    @Test
+    void upsertUpdatesExistingAndInsertsNewRows() throws Exception {
+        write("insert", items(1, 3, "a"));
+        write("upsert", items(2, 8, "b"));
+        List<String> expected = expected(1, 1, "a");
+        expected.addAll(expected(2, 8, "b"));
+        assertEquals(expected, rows());
+    }
+
+    @Test
+    void upsertMultiRowUpdatesExistingAndInsertsNewRows() throws Exception {
+        write("insert", items(1, 3, "a"));
+        write("upsertMultiRow", items(2, 8, "b"));
+        List<String> expected = expected(1, 1, "a");
+        expected.addAll(expected(2, 8, "b"));
+        assertEquals(expected, rows());
+    }
+
+    @Test
+    void writesNothingForEmptyCollection() throws Exception {
+        assertEquals(0L, write("insertMultiRow", new ArrayList<>()));
+        assertEquals(0L, write("upsert", new ArrayList<>()));
+        assertTrue(rows().isEmpty());
+    }
+
+    private Object write(String method, Collection<Object> items) throws Exception {
+        Method m = writer.getClass().getMethod(method, Connection.class, Collection.class);
+        return m.invoke(writer, connection, items);
+    }
+
+    /**
+     * id从from到to的实体，id为偶数时qty为null
+     */
+    private static List<Object> items(int from, int to, String prefix) throws Exception {
+        Class<?> type = classLoader.loadClass("batch.Item");
+        List<Object> items = new ArrayList<>();
+        for (int id = from; id <= to; id++) {
+            items.add(type.getConstructor(Long.class, String.class, Integer.class)
+                    .newInstance((long) id, prefix + id, id % 2 == 0 ? null : id * 10));
+        }
+        return items;
+    }
+
+    private static List<String> expected(int from, int to, String prefix) {
+        List<String> rows = new ArrayList<>();
+        for (int id = from; id <= to; id++) {
+            rows.add(id + "," + prefix + id + "," + (id % 2 == 0 ? null : id * 10));
+        }
+        return rows;
+    }
+
+    private List<String> rows() throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select id, name, qty from item order by id")) {
+            while (rs.next()) {
+                rows.add(rs.getLong(1) + "," + rs.getString(2) + "," + rs.getObject(3));
+            }
+        }
+        return rows;
+    }
+
+}
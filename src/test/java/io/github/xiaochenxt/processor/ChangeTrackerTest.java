@@ -0,0 +1,178 @@
+package io.github.xiaochenxt.processor;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLQueryFactory;
+import io.github.xiaochenxt.sql.JsonType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的变更记录：diff与快照对JSON字段都比较序列化后的文本，update只设置变更的字段
+ *
+ * @author xiaochen
+ */
+class ChangeTrackerTest {
+
+    private static ClassLoader classLoader;
+
+    private static Class<?> changes;
+
+    /**
+     * 未开启querydsl.jsonPath时生成的变更记录，JSON字段在Q类中是SimplePath
+     */
+    private static ClassLoader plainClassLoader;
+
+    private static Class<?> plainChanges;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        // 未实现equals，两份内容相同的对象按引用比较时总是不同
+        sources.put("tracker.Attrs", "package tracker;\n\npublic class Attrs {\n    public String color;\n}\n");
+        sources.put("tracker.Item", "package tracker;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"item\")\n" +
+                "public class Item {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    String name;\n" +
+                "    double price;\n" +
+                "    Attrs attrs;\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.changeTracker=true").option("querydsl.jsonPath=true")
+                .option("querydsl.jsonTypes=tracker.Attrs").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        classLoader = result.classLoader();
+        changes = classLoader.loadClass("tracker.ItemChanges");
+
+        InMemoryCompiler.Result plain = new InMemoryCompiler().option("querydsl.changeTracker=true")
+                .option("querydsl.jsonTypes=tracker.Attrs").compile(sources);
+        assertTrue(plain.isSuccess(), () -> plain.getDiagnostics().toString());
+        plainClassLoader = plain.classLoader();
+        plainChanges = plainClassLoader.loadClass("tracker.ItemChanges");
+    }
+
+    @Test
+    void diffComparesJsonText() throws Exception {
+        assertDiffComparesJsonText(classLoader, changes);
+    }
+
+    @Test
+    void diffComparesJsonTextWithoutJsonPath() throws Exception {
+        assertDiffComparesJsonText(plainClassLoader, plainChanges);
+    }
+
+    @Test
+    void snapshotDetectsInPlaceMutation() throws Exception {
+        assertSnapshotDetectsInPlaceMutation(classLoader, changes);
+    }
+
+    @Test
+    void snapshotDetectsInPlaceMutationWithoutJsonPath() throws Exception {
+        assertSnapshotDetectsInPlaceMutation(plainClassLoader, plainChanges);
+    }
+
+    private static void assertDiffComparesJsonText(ClassLoader loader, Class<?> changes) throws Exception {
+        Object before = item(loader, 1L, "a", 1.5, "red");
+        Object after = item(loader, 1L, "a", 1.5, "red");
+        Object diff = diff(changes, before, after);
+        assertTrue((Boolean) changes.getMethod("isEmpty").invoke(diff));
+
+        set(after, "price", 2.0);
+        set(get(after, "attrs"), "color", "blue");
+        diff = diff(changes, before, after);
+        assertEquals(2, changes.getMethod("count").invoke(diff));
+        assertTrue(isChanged(changes, diff, 3));
+        assertTrue(isChanged(changes, diff, 4));
+        assertFalse(isChanged(changes, diff, 2));
+    }
+
+    private static void assertSnapshotDetectsInPlaceMutation(ClassLoader loader, Class<?> changes) throws Exception {
+        Object item = item(loader, 1L, "a", 1.5, "red");
+        Object snapshot = changes.getMethod("snapshot", item.getClass()).invoke(null, item);
+        Object unchanged = snapshot.getClass().getMethod("changes", item.getClass()).invoke(snapshot, item);
+        assertTrue((Boolean) changes.getMethod("isEmpty").invoke(unchanged));
+
+        set(get(item, "attrs"), "color", "blue");
+        Object changed = snapshot.getClass().getMethod("changes", item.getClass()).invoke(snapshot, item);
+        assertEquals(1, changes.getMethod("count").invoke(changed));
+        assertTrue(isChanged(changes, changed, 4));
+    }
+
+    @Test
+    void updatesOnlyChangedColumns() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table item (id bigint primary key, name varchar(64), price double precision, attrs varchar(255))");
+                statement.execute("insert into item values (1, 'a', 1.5, '{\"color\":\"red\"}')");
+            }
+            RelationalPath<?> q = (RelationalPath<?>) classLoader.loadClass("tracker.QItem").getField("item").get(null);
+            Configuration configuration = new Configuration(H2Templates.DEFAULT);
+            JsonType.register(configuration, q);
+            SQLQueryFactory queryFactory = new SQLQueryFactory(configuration, () -> connection);
+
+            // 内存中的name与库中不同，但未标记变更，不应写回
+            Object item = item(classLoader, 1L, "stale", 1.5, "blue");
+            Object marked = changes.getConstructor().newInstance();
+            changes.getMethod("mark", int.class).invoke(marked, 4);
+            assertTrue((Boolean) changes.getMethod("hasUpdates").invoke(marked));
+            assertEquals(1L, changes.getMethod("update", SQLQueryFactory.class, item.getClass()).invoke(marked, queryFactory, item));
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select name, attrs from item where id = 1")) {
+                assertTrue(rs.next());
+                assertEquals("a", rs.getString(1));
+                assertEquals("{\"color\":\"blue\"}", rs.getString(2));
+            }
+
+            Object idOnly = changes.getConstructor().newInstance();
+            changes.getMethod("mark", int.class).invoke(idOnly, 1);
+            assertFalse((Boolean) changes.getMethod("hasUpdates").invoke(idOnly));
+            assertEquals(0L, changes.getMethod("update", SQLQueryFactory.class, item.getClass()).invoke(idOnly, queryFactory, item));
+        }
+    }
+
+    private static Object diff(Class<?> changes, Object before, Object after) throws Exception {
+        return changes.getMethod("diff", before.getClass(), after.getClass()).invoke(null, before, after);
+    }
+
+    private static boolean isChanged(Class<?> changes, Object diff, int ordinal) throws Exception {
+        return (Boolean) changes.getMethod("isChanged", int.class).invoke(diff, ordinal);
+    }
+
+    private static Object item(ClassLoader loader, Long id, String name, double price, String color) throws Exception {
+        Object attrs = loader.loadClass("tracker.Attrs").getConstructor().newInstance();
+        set(attrs, "color", color);
+        Object item = loader.loadClass("tracker.Item").getConstructor().newInstance();
+        set(item, "id", id);
+        set(item, "name", name);
+        set(item, "price", price);
+        set(item, "attrs", attrs);
+        return item;
+    }
+
+    private static Object get(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+}
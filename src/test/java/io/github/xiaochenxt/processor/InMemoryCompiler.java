@@ -0,0 +1,235 @@
+package io.github.xiaochenxt.processor;
+
+import javax.annotation.processing.Processor;
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 在当前进程内用JavaCompiler编译源码并运行注解处理器，源码和输出都保存在内存中
+ *
+ * @author xiaochen
+ */
+final class InMemoryCompiler {
+
+    private final List<String> options = new ArrayList<>();
+
+    InMemoryCompiler() {
+        options.add("-classpath");
+        options.add(classpath(
+                org.springframework.data.relational.core.mapping.Table.class,
+                org.springframework.data.annotation.Id.class,
+                com.querydsl.sql.RelationalPathBase.class,
+                com.querydsl.core.types.Path.class,
+                org.springframework.jdbc.core.RowMapper.class,
+                io.github.xiaochenxt.sql.IndexedPath.class));
+        options.add("-encoding");
+        options.add("UTF-8");
+    }
+
+    /**
+     * 处理器参数，如 querydsl.rowMapper=true
+     */
+    InMemoryCompiler option(String option) {
+        options.add("-A" + option);
+        return this;
+    }
+
+    /**
+     * 只运行注解处理器，不编译生成的源码
+     */
+    InMemoryCompiler procOnly() {
+        options.add("-proc:only");
+        return this;
+    }
+
+    /**
+     * @param sources 类的全限定名到源码
+     */
+    Result compile(Map<String, String> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<JavaFileObject> units = new ArrayList<>(sources.size());
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            units.add(new Source(source.getKey(), source.getValue()));
+        }
+        MemoryFileManager fileManager = new MemoryFileManager(compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, units);
+        QuerydslSqlSpringAnnotationProcessor processor = new QuerydslSqlSpringAnnotationProcessor();
+        task.setProcessors(Collections.<Processor>singletonList(processor));
+        boolean success = task.call();
+        return new Result(success, diagnostics.getDiagnostics(), fileManager.outputs);
+    }
+
+    private static String classpath(Class<?>... classes) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (Class<?> type : classes) {
+            try {
+                entries.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    static final class Result {
+
+        private final boolean success;
+
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+        /**
+         * 输出文件名到内容，生成的源码为 pkg/QName.java，类文件为 pkg/Name.class
+         */
+        private final Map<String, byte[]> outputs;
+
+        private Result(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Map<String, byte[]> outputs) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.outputs = outputs;
+        }
+
+        boolean isSuccess() {
+            return success;
+        }
+
+        List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+            return diagnostics;
+        }
+
+        List<Diagnostic<? extends JavaFileObject>> getDiagnostics(Diagnostic.Kind kind) {
+            List<Diagnostic<? extends JavaFileObject>> result = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == kind) result.add(diagnostic);
+            }
+            return result;
+        }
+
+        /**
+         * 生成的源码，不存在时返回null
+         */
+        String generatedSource(String className) {
+            byte[] bytes = outputs.get(className.replace('.', '/') + ".java");
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * 写出到类输出目录的资源文件，如 META-INF/services/xxx，不存在时返回null
+         */
+        String resource(String name) {
+            byte[] bytes = outputs.get(name);
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        boolean hasClass(String binaryName) {
+            return outputs.containsKey(binaryName.replace('.', '/') + ".class");
+        }
+
+        /**
+         * 加载编译输出中的类，其余类委托给测试的类加载器
+         */
+        ClassLoader classLoader() {
+            return new ClassLoader(InMemoryCompiler.class.getClassLoader()) {
+                @Override
+                protected Class<?> findClass(String name) throws ClassNotFoundException {
+                    byte[] bytes = outputs.get(name.replace('.', '/') + ".class");
+                    if (bytes == null) throw new ClassNotFoundException(name);
+                    return defineClass(name, bytes, 0, bytes.length);
+                }
+            };
+        }
+
+        int count(String suffix) {
+            int count = 0;
+            for (String name : outputs.keySet()) {
+                if (name.endsWith(suffix)) count++;
+            }
+            return count;
+        }
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        private Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * 生成的源码、类文件和资源都写入内存，生成的源码同时作为后续轮次的输入
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, byte[]> outputs = new HashMap<>();
+
+        private MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new Output(className.replace('.', '/') + kind.extension, kind);
+        }
+
+        @Override
+        public FileObject getFileForOutput(Location location, String packageName, String relativeName, FileObject sibling) {
+            String name = packageName.isEmpty() ? relativeName : packageName.replace('.', '/') + "/" + relativeName;
+            return new Output(name, JavaFileObject.Kind.OTHER);
+        }
+
+        @Override
+        public boolean isSameFile(FileObject a, FileObject b) {
+            return a.toUri().equals(b.toUri());
+        }
+
+        private final class Output extends SimpleJavaFileObject {
+
+            private final String name;
+
+            private Output(String name, Kind kind) {
+                super(URI.create("mem:///" + name), kind);
+                this.name = name;
+            }
+
+            @Override
+            public OutputStream openOutputStream() {
+                return new ByteArrayOutputStream() {
+                    @Override
+                    public void close() {
+                        outputs.put(name, toByteArray());
+                    }
+                };
+            }
+
+            /**
+             * 与-encoding一致使用UTF-8，不依赖平台默认字符集
+             */
+            @Override
+            public Writer openWriter() {
+                return new OutputStreamWriter(openOutputStream(), StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return new String(outputs.get(name), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+}
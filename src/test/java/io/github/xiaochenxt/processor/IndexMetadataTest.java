@@ -0,0 +1,56 @@
+package io.github.xiaochenxt.processor;
+
+import io.github.xiaochenxt.sql.IndexMetadata;
+import io.github.xiaochenxt.sql.IndexedPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 声明的索引只在开启querydsl.indexMetadata时生成到Q类中
+ *
+ * @author xiaochen
+ */
+class IndexMetadataTest {
+
+    private static final Map<String, String> SOURCES = Collections.singletonMap("index.Order", "package index;\n\n" +
+            "import io.github.xiaochenxt.annotation.Index;\n" +
+            "import org.springframework.data.annotation.Id;\n" +
+            "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+            "@Table(\"t_order\")\n" +
+            "@Index(columns = {\"tenant_id\", \"order_no\"})\n" +
+            "@Index(columns = \"order_no\", unique = true)\n" +
+            "public class Order {\n" +
+            "    @Id\n" +
+            "    Long id;\n" +
+            "    Long tenantId;\n" +
+            "    String orderNo;\n" +
+            "}\n");
+
+    @Test
+    void generatesIndexesWhenEnabled() throws Exception {
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.indexMetadata=true").compile(SOURCES);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> order = result.classLoader().loadClass("index.QOrder");
+        assertTrue(IndexedPath.class.isAssignableFrom(order));
+        @SuppressWarnings("unchecked")
+        List<IndexMetadata> indexes = (List<IndexMetadata>) order.getField("INDEXES").get(null);
+        assertEquals(2, indexes.size());
+        assertEquals("tenant_id", indexes.get(0).getLeadingColumn());
+        assertTrue(indexes.get(1).isUnique());
+    }
+
+    @Test
+    void omitsIndexesByDefault() throws Exception {
+        InMemoryCompiler.Result result = new InMemoryCompiler().compile(SOURCES);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> order = result.classLoader().loadClass("index.QOrder");
+        assertFalse(IndexedPath.class.isAssignableFrom(order));
+        assertFalse(result.generatedSource("index.QOrder").contains("io.github.xiaochenxt.sql"));
+    }
+
+}
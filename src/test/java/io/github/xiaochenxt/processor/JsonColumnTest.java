@@ -0,0 +1,56 @@
+package io.github.xiaochenxt.processor;
+
+import io.github.xiaochenxt.sql.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按JSON存储的非字符串字段只在开启querydsl.jsonPath时生成JsonPath
+ *
+ * @author xiaochen
+ */
+class JsonColumnTest {
+
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("json.Attrs", "package json;\n\npublic class Attrs {\n    public String color;\n}\n");
+        SOURCES.put("json.Product", "package json;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"product\")\n" +
+                "public class Product {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    Attrs attrs;\n" +
+                "    String tags;\n" +
+                "}\n");
+    }
+
+    @Test
+    void generatesJsonPathWhenEnabled() throws Exception {
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.jsonTypes=json.Attrs,java.lang.String")
+                .option("querydsl.jsonPath=true").option("querydsl.dialect=postgresql").compile(SOURCES);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> product = result.classLoader().loadClass("json.QProduct");
+        Object path = product.getField("product").get(null);
+        JsonPath<?> attrs = (JsonPath<?>) product.getField("attrs").get(path);
+        assertTrue(attrs.getJsonType().isJsonb());
+        assertEquals("product.attrs ->> color", attrs.text("color").toString());
+        assertEquals("com.querydsl.core.types.dsl.StringPath", product.getField("tags").getType().getName());
+    }
+
+    @Test
+    void keepsSimplePathByDefault() throws Exception {
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.jsonTypes=json.Attrs").compile(SOURCES);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> product = result.classLoader().loadClass("json.QProduct");
+        assertEquals("com.querydsl.core.types.dsl.SimplePath", product.getField("attrs").getType().getName());
+        assertFalse(result.generatedSource("json.QProduct").contains("io.github.xiaochenxt.sql"));
+    }
+
+}
@@ -0,0 +1,129 @@
+package io.github.xiaochenxt.processor;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的键集分页在内嵌H2上按主键和复合唯一索引翻页，复合键部分为null时拒绝
+ *
+ * @author xiaochen
+ */
+class KeysetTest {
+
+    private static Class<?> keyset;
+
+    private static RelationalPath<?> q;
+
+    private Connection connection;
+
+    private SQLQueryFactory queryFactory;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("keyset.Order", "package keyset;\n\n" +
+                "import io.github.xiaochenxt.annotation.Index;\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"t_order\")\n" +
+                "@Index(columns = {\"tenant_id\", \"order_no\"}, unique = true)\n" +
+                "public class Order {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    Long tenantId;\n" +
+                "    String orderNo;\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.keyset=true").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        keyset = result.classLoader().loadClass("keyset.OrderKeyset");
+        q = (RelationalPath<?>) result.classLoader().loadClass("keyset.QOrder").getField("order").get(null);
+    }
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_order (id bigint primary key, tenant_id bigint, order_no varchar(16), unique (tenant_id, order_no))");
+            statement.execute("insert into t_order values (1, 2, 'b'), (2, 1, 'b'), (3, 2, 'a'), (4, 1, 'a'), (5, 1, 'c')");
+        }
+        Connection current = connection;
+        queryFactory = new SQLQueryFactory(new Configuration(H2Templates.DEFAULT), () -> current);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void pagesByPrimaryKey() throws Exception {
+        Method after = keyset.getMethod("after", SQLQuery.class, Long.class, long.class);
+        assertEquals(Arrays.asList(1L, 2L), ids((SQLQuery<?>) after.invoke(null, select(), null, 2L)));
+        assertEquals(Arrays.asList(3L, 4L), ids((SQLQuery<?>) after.invoke(null, select(), 2L, 2L)));
+        assertEquals(Arrays.asList(5L), ids((SQLQuery<?>) after.invoke(null, select(), 4L, 2L)));
+    }
+
+    @Test
+    void pagesByCompositeKey() throws Exception {
+        Method after = keyset.getMethod("afterTenantIdAndOrderNo", SQLQuery.class, Long.class, String.class, long.class);
+        assertEquals(Arrays.asList(4L, 2L), ids((SQLQuery<?>) after.invoke(null, select(), null, null, 2L)));
+        assertEquals(Arrays.asList(5L, 3L), ids((SQLQuery<?>) after.invoke(null, select(), 1L, "b", 2L)));
+        assertEquals(Arrays.asList(1L), ids((SQLQuery<?>) after.invoke(null, select(), 2L, "a", 2L)));
+    }
+
+    @Test
+    void rejectsPartiallyNullCompositeKey() throws Exception {
+        Method after = keyset.getMethod("afterTenantIdAndOrderNo", SQLQuery.class, Long.class, String.class, long.class);
+        InvocationTargetException missingSecond = assertThrows(InvocationTargetException.class, () -> after.invoke(null, select(), 1L, null, 2L));
+        assertInstanceOf(IllegalArgumentException.class, missingSecond.getCause());
+        InvocationTargetException missingFirst = assertThrows(InvocationTargetException.class, () -> after.invoke(null, select(), null, "a", 2L));
+        assertInstanceOf(IllegalArgumentException.class, missingFirst.getCause());
+    }
+
+    @Test
+    void scansInChunks() throws Exception {
+        Method scan = keyset.getMethod("scanTenantIdAndOrderNo", SQLQueryFactory.class, Expression.class, Predicate.class, int.class, int.class, Consumer.class);
+        List<List<Object>> chunks = new ArrayList<>();
+        Consumer<List<Object>> consumer = chunks::add;
+        assertEquals(5L, scan.invoke(null, queryFactory, id(), null, 2, 0, consumer));
+        assertEquals(Arrays.asList(Arrays.asList(4L, 2L), Arrays.asList(5L, 3L), Arrays.asList(1L)), chunks);
+    }
+
+    private SQLQuery<?> select() {
+        return queryFactory.select(id()).from(q);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<Long> id() {
+        return (Expression<Long>) q.getPrimaryKey().getLocalColumns().get(0);
+    }
+
+    private static List<?> ids(SQLQuery<?> query) {
+        return query.fetch();
+    }
+
+}
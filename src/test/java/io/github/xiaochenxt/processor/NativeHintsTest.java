@@ -0,0 +1,116 @@
+package io.github.xiaochenxt.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的GraalVM反射配置覆盖实体、Q类和投影构造方法，声明的字段和方法在编译出的类中都存在
+ *
+ * @author xiaochen
+ */
+class NativeHintsTest {
+
+    private static final String DIR = QuerydslSqlSpringAnnotationProcessor.NATIVE_HINTS_DIR + "hints.AppTables/";
+
+    private static InMemoryCompiler.Result result;
+
+    private static Map<String, JsonNode> entries;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("hints.Base", "package hints;\n\n" +
+                "import org.springframework.data.annotation.Id;\n\n" +
+                "public abstract class Base {\n" +
+                "    @Id\n" +
+                "    private Long id;\n\n" +
+                "    public Long getId() {\n        return id;\n    }\n\n" +
+                "    public void setId(Long id) {\n        this.id = id;\n    }\n" +
+                "}\n");
+        sources.put("hints.Order", "package hints;\n\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"t_order\")\n" +
+                "public class Order extends Base {\n" +
+                "    String orderNo;\n" +
+                "    int qty;\n" +
+                "}\n");
+        sources.put("hints.OrderView", "package hints;\n\n" +
+                "import io.github.xiaochenxt.annotation.Projection;\n\n" +
+                "@Projection\n" +
+                "public class OrderView {\n" +
+                "    public OrderView(Long id, int qty) {\n    }\n" +
+                "}\n");
+        result = new InMemoryCompiler().option("querydsl.nativeHints=true").option("querydsl.registryClass=hints.AppTables").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        String reflectConfig = result.resource(DIR + "reflect-config.json");
+        assertNotNull(reflectConfig);
+        entries = new HashMap<>();
+        for (JsonNode entry : new ObjectMapper().readTree(reflectConfig)) {
+            assertNull(entries.put(entry.get("name").asText(), entry), () -> "重复的条目：" + entry);
+        }
+    }
+
+    @Test
+    void coversEntitiesQClassesAndProjections() {
+        assertTrue(entries.keySet().containsAll(Arrays.asList("hints.Base", "hints.Order", "hints.QOrder", "hints.OrderView")), entries.keySet()::toString);
+        // 有无参构造方法时只登记该构造方法
+        assertFalse(entries.get("hints.Order").path("allDeclaredConstructors").asBoolean());
+        assertTrue(entries.get("hints.Order").get("methods").toString().contains("{\"name\":\"<init>\",\"parameterTypes\":[]}"));
+        assertEquals("<init>", entries.get("hints.OrderView").get("methods").get(0).get("name").asText());
+        // 继承的字段登记在声明它的父类上
+        assertEquals("id", entries.get("hints.Base").get("fields").get(0).get("name").asText());
+    }
+
+    @Test
+    void declaredMembersExist() throws Exception {
+        ClassLoader classLoader = result.classLoader();
+        for (JsonNode entry : entries.values()) {
+            Class<?> type = classLoader.loadClass(entry.get("name").asText());
+            for (JsonNode field : entry.path("fields")) {
+                assertNotNull(type.getDeclaredField(field.get("name").asText()));
+            }
+            for (JsonNode method : entry.path("methods")) {
+                JsonNode parameterTypes = method.get("parameterTypes");
+                Class<?>[] parameters = new Class<?>[parameterTypes.size()];
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] = type(classLoader, parameterTypes.get(i).asText());
+                }
+                String name = method.get("name").asText();
+                if (name.equals("<init>")) {
+                    assertNotNull(type.getDeclaredConstructor(parameters));
+                } else {
+                    assertNotNull(type.getDeclaredMethod(name, parameters));
+                }
+            }
+        }
+    }
+
+    @Test
+    void includesRegistryIndex() {
+        String resourceConfig = result.resource(DIR + "resource-config.json");
+        assertNotNull(resourceConfig);
+        assertTrue(resourceConfig.contains(QuerydslSqlSpringAnnotationProcessor.REGISTRY_INDEX));
+        assertEquals("hints.QOrder\n", result.resource(QuerydslSqlSpringAnnotationProcessor.REGISTRY_INDEX));
+    }
+
+    private static Class<?> type(ClassLoader classLoader, String name) throws ClassNotFoundException {
+        switch (name) {
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            default:
+                return Class.forName(name, false, classLoader);
+        }
+    }
+
+}
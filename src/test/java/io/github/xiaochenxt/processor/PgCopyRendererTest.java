@@ -0,0 +1,139 @@
+package io.github.xiaochenxt.processor;
+
+import io.github.xiaochenxt.sql.PgCopyGolden;
+import io.github.xiaochenxt.sql.PgCopyReader;
+import io.github.xiaochenxt.sql.PgCopyWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的COPY BINARY编解码按字段顺序和类型写出的字节与手工编写的十六进制文件一致，并能读回实体和按列批量
+ *
+ * @author xiaochen
+ */
+class PgCopyRendererTest {
+
+    private static InMemoryCompiler.Result result;
+
+    private static ClassLoader classLoader;
+
+    @BeforeAll
+    static void compile() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("pgcopy.Level", "package pgcopy;\n\npublic enum Level { LOW, HIGH }\n");
+        sources.put("pgcopy.Event", "package pgcopy;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"event\")\n" +
+                "public class Event {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    int version;\n" +
+                "    String title;\n" +
+                "    java.math.BigDecimal amount;\n" +
+                "    java.time.LocalDate day;\n" +
+                "    Level level;\n" +
+                "}\n");
+        result = new InMemoryCompiler().option("querydsl.pgCopy=true").option("querydsl.rowType=true").compile(sources);
+        classLoader = result.classLoader();
+    }
+
+    @Test
+    void generatesCopyStatements() throws Exception {
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> copy = classLoader.loadClass("pgcopy.EventPgCopy");
+        assertEquals(6, copy.getField("COLUMN_COUNT").get(null));
+        assertEquals("copy event (id, version, title, amount, day, level) from stdin (format binary)", copy.getField("COPY_IN").get(null));
+        assertEquals("copy event (id, version, title, amount, day, level) to stdout (format binary)", copy.getField("COPY_OUT").get(null));
+    }
+
+    @Test
+    void writesEntitiesAsGolden() throws Exception {
+        Class<?> copy = classLoader.loadClass("pgcopy.EventPgCopy");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PgCopyWriter writer = new PgCopyWriter(out);
+        Object first = event(1L, 2, "标题", new BigDecimal("12.50"), LocalDate.of(2024, 2, 29), "HIGH");
+        Object second = event(2L, 0, null, null, null, null);
+        Method writeAll = copy.getMethod("writeAll", PgCopyWriter.class, Iterable.class);
+        assertEquals(2L, writeAll.invoke(null, writer, Arrays.asList(first, second)));
+        assertArrayEquals(PgCopyGolden.read("entity.hex"), out.toByteArray());
+    }
+
+    @Test
+    void readsEntitiesFromGolden() throws Exception {
+        Class<?> copy = classLoader.loadClass("pgcopy.EventPgCopy");
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(PgCopyGolden.read("entity.hex")));
+        List<Object> entities = new ArrayList<>();
+        Consumer<Object> consumer = entities::add;
+        Method readAll = copy.getMethod("readAll", PgCopyReader.class, Consumer.class);
+        assertEquals(2L, readAll.invoke(null, reader, consumer));
+        assertEquals(Arrays.asList(1L, 2, "标题", new BigDecimal("12.50"), LocalDate.of(2024, 2, 29), "HIGH"), values(entities.get(0)));
+        assertEquals(Arrays.asList(2L, 0, null, null, null, null), values(entities.get(1)));
+    }
+
+    @Test
+    void fillsRowBatchFromGolden() throws Exception {
+        Class<?> batchClass = classLoader.loadClass("pgcopy.EventRowBatch");
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(PgCopyGolden.read("entity.hex")));
+        Object batch = batchClass.getConstructor(int.class).newInstance(1);
+        Method fill = batchClass.getMethod("fill", PgCopyReader.class);
+        assertEquals(1, fill.invoke(batch, reader));
+        assertEquals(1L, batchClass.getMethod("getId", int.class).invoke(batch, 0));
+        assertEquals("标题", batchClass.getMethod("getTitle", int.class).invoke(batch, 0));
+        assertEquals(1, fill.invoke(batch, reader));
+        assertEquals(2L, batchClass.getMethod("getId", int.class).invoke(batch, 0));
+        assertNull(batchClass.getMethod("getAmount", int.class).invoke(batch, 0));
+        assertEquals(0, fill.invoke(batch, reader));
+    }
+
+    private static Object event(Long id, int version, String title, BigDecimal amount, LocalDate day, String level) throws Exception {
+        Class<?> type = classLoader.loadClass("pgcopy.Event");
+        Object event = type.getConstructor().newInstance();
+        set(event, "id", id);
+        set(event, "version", version);
+        set(event, "title", title);
+        set(event, "amount", amount);
+        set(event, "day", day);
+        if (level != null) {
+            Class<?> levelType = classLoader.loadClass("pgcopy.Level");
+            set(event, "level", levelType.getMethod("valueOf", String.class).invoke(null, level));
+        }
+        return event;
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * 按字段顺序的值，枚举取名称
+     */
+    private static List<Object> values(Object entity) throws Exception {
+        List<Object> values = new ArrayList<>();
+        for (String name : new String[]{"id", "version", "title", "amount", "day", "level"}) {
+            Field field = entity.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            Object value = field.get(entity);
+            values.add(value instanceof Enum ? ((Enum<?>) value).name() : value);
+        }
+        return values;
+    }
+
+}
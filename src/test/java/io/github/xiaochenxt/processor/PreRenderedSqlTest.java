@@ -0,0 +1,62 @@
+package io.github.xiaochenxt.processor;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按方言预渲染到Q类中的SQL常量
+ *
+ * @author xiaochen
+ */
+class PreRenderedSqlTest {
+
+    private static InMemoryCompiler.Result result;
+
+    @BeforeAll
+    static void compile() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("sql.Item", "package sql;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"item\")\n" +
+                "public class Item {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    String name;\n" +
+                "}\n");
+        sources.put("sql.Tag", "package sql;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"tag\")\n" +
+                "public class Tag {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "}\n");
+        result = new InMemoryCompiler().option("querydsl.dialect=postgresql").compile(sources);
+    }
+
+    @Test
+    void rendersStatementsByPrimaryKey() throws Exception {
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> item = result.classLoader().loadClass("sql.QItem");
+        assertEquals("update item set name = ? where id = ?", item.getField("SQL_UPDATE_BY_ID").get(null));
+        assertEquals("select id, name from item where id = ?", item.getField("SQL_SELECT_BY_ID").get(null));
+        assertEquals("delete from item where id = ?", item.getField("SQL_DELETE_BY_ID").get(null));
+    }
+
+    @Test
+    void skipsUpdateWhenOnlyPrimaryKey() throws Exception {
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        Class<?> tag = result.classLoader().loadClass("sql.QTag");
+        assertThrows(NoSuchFieldException.class, () -> tag.getField("SQL_UPDATE_BY_ID"));
+        assertEquals("select id from tag where id = ?", tag.getField("SQL_SELECT_BY_ID").get(null));
+        assertEquals("delete from tag where id = ?", tag.getField("SQL_DELETE_BY_ID").get(null));
+        assertEquals("insert into tag (id) values (?)", tag.getField("SQL_INSERT").get(null));
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.github.xiaochenxt.processor;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 合成实体生成的Q类：多层继承、泛型父类以及数据库字段重名
+ *
+ * @author xiaochen
+ */
+class ProcessorOutputTest {
+
+    private static SyntheticEntities entities;
+
+    private static InMemoryCompiler.Result result;
+
+    @BeforeAll
+    static void compile() {
+        entities = new SyntheticEntities(100);
+        result = new InMemoryCompiler().compile(entities.getSources());
+    }
+
+    @Test
+    void compilesWithoutErrors() {
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        assertEquals(0, result.getDiagnostics(Diagnostic.Kind.ERROR).size());
+        assertEquals(0, result.getDiagnostics(Diagnostic.Kind.WARNING).size(), () -> result.getDiagnostics().toString());
+    }
+
+    @Test
+    void generatesOneQClassPerEntity() {
+        assertEquals(entities.getExpectedColumns().size(), result.count(".java"));
+        for (String entity : entities.getExpectedColumns().keySet()) {
+            String qClass = SyntheticEntities.qClassName(entity);
+            assertNotNull(result.generatedSource(qClass), qClass);
+            assertTrue(result.hasClass(qClass), qClass);
+        }
+    }
+
+    @Test
+    void columnsFollowInheritanceOrderAndDeduplicate() {
+        for (Map.Entry<String, List<String>> entry : entities.getExpectedColumns().entrySet()) {
+            String source = result.generatedSource(SyntheticEntities.qClassName(entry.getKey()));
+            assertEquals(entry.getValue(), SyntheticEntities.columns(source), entry.getKey());
+        }
+    }
+
+    @Test
+    void resolvesGenericSuperclassFieldType() {
+        // Entity4继承Base3<Integer>，Entity5继承Base4即Base3<Long>
+        assertTrue(result.generatedSource("synthetic.p0.QEntity4").contains("createNumber(\"version\", Integer.class)"));
+        assertTrue(result.generatedSource("synthetic.p0.QEntity5").contains("createNumber(\"version\", Long.class)"));
+    }
+
+    @Test
+    void keepsJavadocOfEntityField() {
+        assertTrue(result.generatedSource("synthetic.p0.QEntity0").contains("名称"));
+    }
+
+}
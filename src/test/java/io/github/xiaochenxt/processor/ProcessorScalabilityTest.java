@@ -0,0 +1,141 @@
+package io.github.xiaochenxt.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.tools.Diagnostic;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实体数量增长时，处理器的耗时与内存分配应接近线性增长
+ * <p>
+ * 只运行注解处理器（-proc:only），生成的Q类能否编译由{@link ProcessorOutputTest}验证。
+ * 每个规模记录编译耗时、当前线程分配的字节数和编译后仍被输出引用的堆内存，
+ * 较大规模的单个实体开销超过较小规模的{@link #MAX_GROWTH}倍时视为超线性增长
+ * <p>
+ * 100到1000个实体默认运行；5000个实体耗时较长，通过
+ * {@code mvn test -Dtest=ProcessorScalabilityTest -Dquerydsl.scalability=true} 运行，
+ * 各规模的测量结果写入surefire报告
+ *
+ * @author xiaochen
+ */
+class ProcessorScalabilityTest {
+
+    /**
+     * 单个实体开销允许的增长倍数，线性增长时约为1，平方增长时为规模之比
+     */
+    private static final double MAX_GROWTH = 2.5;
+
+    @Test
+    void growsLinearlyWithEntityCount(TestReporter reporter) {
+        assertLinear(reporter, 100, 1000);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "querydsl.scalability", matches = "true")
+    void growsLinearlyUpToFiveThousandEntities(TestReporter reporter) {
+        assertLinear(reporter, 100, 1000, 5000);
+    }
+
+    /**
+     * 依次编译各规模，比较最大规模与次大规模的单个实体开销
+     */
+    private static void assertLinear(TestReporter reporter, int... sizes) {
+        // 预热编译器和处理器，避免JIT编译计入最小规模
+        compile(sizes[0]);
+        Map<Integer, Measurement> measurements = new LinkedHashMap<>();
+        for (int size : sizes) {
+            measurements.put(size, compile(size));
+        }
+        for (Map.Entry<Integer, Measurement> entry : measurements.entrySet()) {
+            reporter.publishEntry(entry.getKey() + " entities", entry.getValue().toString(entry.getKey()));
+        }
+        String summary = summary(measurements);
+        int middle = sizes[sizes.length - 2];
+        int largest = sizes[sizes.length - 1];
+        Measurement base = measurements.get(middle);
+        Measurement top = measurements.get(largest);
+        double timeGrowth = ((double) top.nanos / largest) / ((double) base.nanos / middle);
+        assertTrue(timeGrowth < MAX_GROWTH, String.format("单个实体的编译耗时从%d到%d个实体增长了%.2f倍%n%s", middle, largest, timeGrowth, summary));
+        if (base.allocatedBytes > 0) {
+            double allocationGrowth = ((double) top.allocatedBytes / largest) / ((double) base.allocatedBytes / middle);
+            assertTrue(allocationGrowth < MAX_GROWTH, String.format("单个实体的内存分配从%d到%d个实体增长了%.2f倍%n%s", middle, largest, allocationGrowth, summary));
+        }
+    }
+
+    private static String summary(Map<Integer, Measurement> measurements) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, Measurement> entry : measurements.entrySet()) {
+            sb.append(entry.getKey()).append("个实体：").append(entry.getValue().toString(entry.getKey())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Measurement compile(int size) {
+        SyntheticEntities entities = new SyntheticEntities(size);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        InMemoryCompiler.Result result = new InMemoryCompiler().procOnly().compile(entities.getSources());
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.gc();
+        long retained = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics(Diagnostic.Kind.ERROR).toString());
+        assertEquals(size, result.count(".java"), "每个实体生成一个Q类");
+        for (Map.Entry<String, List<String>> entry : entities.getExpectedColumns().entrySet()) {
+            String source = result.generatedSource(SyntheticEntities.qClassName(entry.getKey()));
+            assertNotNull(source, entry.getKey());
+            assertEquals(entry.getValue(), SyntheticEntities.columns(source), entry.getKey());
+        }
+        Measurement measurement = new Measurement(nanos, allocated, retained);
+        // 保持输出在测量堆内存之后才可回收
+        assertNotNull(result.generatedSource(SyntheticEntities.qClassName("synthetic.p0.Entity0")));
+        return measurement;
+    }
+
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回0
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    private static final class Measurement {
+
+        private final long nanos;
+
+        private final long allocatedBytes;
+
+        private final long retainedBytes;
+
+        private Measurement(long nanos, long allocatedBytes, long retainedBytes) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.retainedBytes = retainedBytes;
+        }
+
+        private String toString(int size) {
+            return String.format("time=%dms, allocated=%.1fMB, retained=%.1fMB, %.1fus/entity", nanos / 1_000_000,
+                    allocatedBytes / 1048576.0, retainedBytes / 1048576.0, nanos / 1000.0 / size);
+        }
+    }
+
+}
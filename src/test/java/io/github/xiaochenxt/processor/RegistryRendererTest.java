@@ -0,0 +1,93 @@
+package io.github.xiaochenxt.processor;
+
+import com.querydsl.sql.RelationalPath;
+import io.github.xiaochenxt.sql.TableRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数千个实体的注册表能编译通过，按表名、schema.表名和实体类都能查到Q类实例
+ *
+ * @author xiaochen
+ */
+class RegistryRendererTest {
+
+    private static final int SIZE = 2500;
+
+    private static InMemoryCompiler.Result result;
+
+    private static TableRegistry registry;
+
+    private static String source;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        // 直接由表模型渲染注册表，Q类用最简的手写类代替，避免数千个实体经过完整的注解处理
+        List<TableModel> models = new ArrayList<>(SIZE);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            String pkg = "registry.p" + (i % 30);
+            String table = "t_entity" + i;
+            models.add(new TableModel(pkg + ".Entity" + i, pkg, "Entity" + i, "public", false, table,
+                    new LinkedHashMap<>(), Collections.emptyList(), true, false));
+            sources.put(pkg + ".Entity" + i, "package " + pkg + ";\n\npublic class Entity" + i + " {\n}\n");
+            sources.put(pkg + ".QEntity" + i, "package " + pkg + ";\n\n" +
+                    "public final class QEntity" + i + " extends com.querydsl.sql.RelationalPathBase<Entity" + i + "> {\n" +
+                    "    public static final QEntity" + i + " entity" + i + " = new QEntity" + i + "();\n" +
+                    "    private QEntity" + i + "() {\n" +
+                    "        super(Entity" + i + ".class, \"entity" + i + "\", \"public\", \"" + table + "\");\n" +
+                    "    }\n" +
+                    "}\n");
+        }
+        models.sort(Comparator.comparing(TableModel::getEntityName));
+        sources.put("registry.AppTables", new RegistryRenderer(RegistryRendererTest.class.getName()).render("registry.AppTables", models));
+        result = new InMemoryCompiler().compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        ClassLoader classLoader = result.classLoader();
+        registry = (TableRegistry) classLoader.loadClass("registry.AppTables").getField("INSTANCE").get(null);
+        source = sources.get("registry.AppTables");
+    }
+
+    @Test
+    void splitsLookupIntoBuckets() {
+        // 每个实体有表名和 schema.表名 两个键
+        int tableBuckets = (2 * SIZE + RegistryRenderer.KEYS_PER_BUCKET - 1) / RegistryRenderer.KEYS_PER_BUCKET;
+        int entityBuckets = (SIZE + RegistryRenderer.KEYS_PER_BUCKET - 1) / RegistryRenderer.KEYS_PER_BUCKET;
+        assertTrue(source.contains("private static RelationalPath<?> table" + (tableBuckets - 1) + "(String key)"));
+        assertFalse(source.contains("private static RelationalPath<?> table" + tableBuckets + "(String key)"));
+        assertTrue(source.contains("private static RelationalPath<?> entity" + (entityBuckets - 1) + "(String key)"));
+    }
+
+    @Test
+    void findsEveryTable() throws Exception {
+        List<String> tables = registry.tables();
+        assertEquals(SIZE, tables.size());
+        for (int i = 0; i < SIZE; i++) {
+            RelationalPath<?> path = registry.forTable("t_entity" + i);
+            assertNotNull(path, "t_entity" + i);
+            assertEquals("t_entity" + i, path.getTableName());
+            assertSame(path, registry.forTable("public.t_entity" + i));
+            Class<?> entity = Class.forName("registry.p" + (i % 30) + ".Entity" + i, false, registry.getClass().getClassLoader());
+            assertSame(path, registry.forEntity(entity));
+        }
+        assertEquals("public.t_entity0", tables.get(0));
+    }
+
+    @Test
+    void returnsNullForUnknownNames() {
+        assertNull(registry.forTable("missing"));
+        assertNull(registry.forTable(null));
+        assertNull(registry.forEntity(String.class));
+        assertNull(registry.forEntity(null));
+    }
+
+}
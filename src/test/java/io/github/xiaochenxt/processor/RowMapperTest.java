@@ -0,0 +1,190 @@
+package io.github.xiaochenxt.processor;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.types.EnumByNameType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的行映射器、实体投影和@Projection构造方法投影在内嵌H2上读取的结果
+ *
+ * @author xiaochen
+ */
+class RowMapperTest {
+
+    private static ClassLoader classLoader;
+
+    private static RelationalPath<?> q;
+
+    private Connection connection;
+
+    private SQLQueryFactory queryFactory;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("mapper.Level", "package mapper;\n\npublic enum Level { LOW, HIGH }\n");
+        sources.put("mapper.Item", "package mapper;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"item\")\n" +
+                "public class Item {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    String name;\n" +
+                "    int qty;\n" +
+                "    Double price;\n" +
+                "    Level level;\n" +
+                "}\n");
+        sources.put("mapper.Series", "package mapper;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"series\")\n" +
+                "public class Series {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    int[] points;\n" +
+                "    String[] tags;\n" +
+                "}\n");
+        sources.put("mapper.ItemView", "package mapper;\n\n" +
+                "import io.github.xiaochenxt.annotation.Projection;\n\n" +
+                "@Projection\n" +
+                "public class ItemView {\n" +
+                "    final Long id;\n" +
+                "    final int qty;\n\n" +
+                "    public ItemView(Long id, int qty) {\n" +
+                "        this.id = id;\n" +
+                "        this.qty = qty;\n" +
+                "    }\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.rowMapper=true").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        classLoader = result.classLoader();
+        q = (RelationalPath<?>) classLoader.loadClass("mapper.QItem").getField("item").get(null);
+    }
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void createTable() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table item (id bigint primary key, name varchar(64), qty int, price double precision, level varchar(8))");
+            statement.execute("insert into item values (1, 'a', 3, 1.5, 'HIGH'), (2, null, null, null, null)");
+        }
+        Connection current = connection;
+        Configuration configuration = new Configuration(H2Templates.DEFAULT);
+        // querydsl默认不转换枚举，与生成的行映射器一样按名称读取
+        configuration.register(new EnumByNameType(classLoader.loadClass("mapper.Level")));
+        queryFactory = new SQLQueryFactory(configuration, () -> current);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mapsRowsByColumnIndex() throws Exception {
+        RowMapper<Object> mapper = (RowMapper<Object>) classLoader.loadClass("mapper.ItemRowMapper").getConstructor(int.class).newInstance(2);
+        List<Object> items = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select 'x', id, name, qty, price, level from item order by id")) {
+            while (rs.next()) {
+                items.add(mapper.mapRow(rs, rs.getRow()));
+            }
+        }
+        assertEquals(Arrays.asList(1L, "a", 3, 1.5, "HIGH"), values(items.get(0)));
+        assertEquals(Arrays.asList(2L, null, 0, null, null), values(items.get(1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mapsArrayColumns() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table series (id bigint primary key, points integer array, tags varchar(8) array)");
+            statement.execute("insert into series values (1, array[1, 2, 3], array['a', 'b']), (2, null, null)");
+        }
+        RowMapper<Object> mapper = (RowMapper<Object>) classLoader.loadClass("mapper.SeriesRowMapper").getField("INSTANCE").get(null);
+        List<Object> series = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select id, points, tags from series order by id")) {
+            while (rs.next()) {
+                series.add(mapper.mapRow(rs, rs.getRow()));
+            }
+        }
+        // H2返回Object[]，基本类型数组逐个拆箱，引用类型数组复制为字段类型
+        assertArrayEquals(new int[]{1, 2, 3}, (int[]) field(series.get(0), "points"));
+        assertArrayEquals(new String[]{"a", "b"}, (String[]) field(series.get(0), "tags"));
+        assertNull(field(series.get(1), "points"));
+        assertNull(field(series.get(1), "tags"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void projectsEntities() throws Exception {
+        Class<?> qClass = classLoader.loadClass("mapper.QItem");
+        FactoryExpression<Object> projection = (FactoryExpression<Object>) classLoader.loadClass("mapper.ItemRowMapper")
+                .getMethod("projection", qClass).invoke(null, q);
+        List<Object> items = queryFactory.select(projection).from(q).orderBy(id().asc()).fetch();
+        assertEquals(Arrays.asList(1L, "a", 3, 1.5, "HIGH"), values(items.get(0)));
+        assertEquals(Arrays.asList(2L, null, 0, null, null), values(items.get(1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void projectsDtoConstructorWithPrimitiveDefault() throws Exception {
+        Expression<?> qty = (Expression<?>) q.getClass().getField("qty").get(q);
+        Class<?> view = classLoader.loadClass("mapper.QItemView");
+        Expression<Object> projection = (Expression<Object>) view.getConstructors()[0].newInstance(id(), qty);
+        List<Object> views = queryFactory.select(projection).from(q).orderBy(id().asc()).fetch();
+        assertEquals(2, views.size());
+        assertEquals(1L, field(views.get(0), "id"));
+        assertEquals(3, field(views.get(0), "qty"));
+        // 数据库中为null的基本类型参数按默认值传入构造方法
+        assertEquals(0, field(views.get(1), "qty"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.querydsl.core.types.dsl.ComparableExpressionBase<Long> id() {
+        return (com.querydsl.core.types.dsl.ComparableExpressionBase<Long>) q.getPrimaryKey().getLocalColumns().get(0);
+    }
+
+    private static List<Object> values(Object item) throws Exception {
+        List<Object> values = new ArrayList<>();
+        for (String name : new String[]{"id", "name", "qty", "price", "level"}) {
+            Object value = field(item, name);
+            values.add(value instanceof Enum ? ((Enum<?>) value).name() : value);
+        }
+        return values;
+    }
+
+    private static Object field(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.github.xiaochenxt.processor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的行类型和列式批量在内嵌H2上读取，可空的基本类型字段按位记录空值
+ *
+ * @author xiaochen
+ */
+class RowTypeTest {
+
+    private static ClassLoader classLoader;
+
+    private Connection connection;
+
+    @BeforeAll
+    static void compile() {
+        Map<String, String> sources = Collections.singletonMap("rowtype.Metric", "package rowtype;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(\"metric\")\n" +
+                "public class Metric {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "    String name;\n" +
+                "    Double amount;\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.rowType=true").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        classLoader = result.classLoader();
+    }
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table metric (id bigint primary key, name varchar(64), amount double precision)");
+            statement.execute("insert into metric values (1, 'a', 1.5), (2, 'b', null), (3, null, 3.5)");
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void rowReusesInstanceAndTracksNulls() throws Exception {
+        Class<?> rowType = classLoader.loadClass("rowtype.MetricRow");
+        Object row = rowType.getConstructor().newInstance();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select id, name, amount from metric order by id")) {
+            assertTrue(rs.next());
+            assertSame(row, rowType.getMethod("read", ResultSet.class, int.class).invoke(row, rs, 1));
+            assertEquals(1L, rowType.getMethod("getId").invoke(row));
+            assertEquals("a", rowType.getMethod("getName").invoke(row));
+            assertEquals(1.5, rowType.getMethod("getAmount").invoke(row));
+            assertFalse((Boolean) rowType.getMethod("isAmountNull").invoke(row));
+            assertTrue(rs.next());
+            rowType.getMethod("read", ResultSet.class, int.class).invoke(row, rs, 1);
+            assertEquals(2L, rowType.getMethod("getId").invoke(row));
+            assertTrue((Boolean) rowType.getMethod("isAmountNull").invoke(row));
+            assertTrue(rs.next());
+            rowType.getMethod("read", ResultSet.class, int.class).invoke(row, rs, 1);
+            assertFalse((Boolean) rowType.getMethod("isAmountNull").invoke(row));
+            assertNull(rowType.getMethod("getName").invoke(row));
+        }
+    }
+
+    @Test
+    void batchFillsColumnsInChunks() throws Exception {
+        Class<?> batchType = classLoader.loadClass("rowtype.MetricRowBatch");
+        List<List<Object>> chunks = new ArrayList<>();
+        Consumer<Object> consumer = batch -> {
+            try {
+                int size = (Integer) batchType.getMethod("size").invoke(batch);
+                long[] ids = (long[]) batchType.getMethod("idValues").invoke(batch);
+                List<Object> chunk = new ArrayList<>();
+                for (int row = 0; row < size; row++) {
+                    boolean amountNull = (Boolean) batchType.getMethod("isAmountNull", int.class).invoke(batch, row);
+                    chunk.add(ids[row] + ":" + batchType.getMethod("getName", int.class).invoke(batch, row) + ":"
+                            + (amountNull ? "null" : batchType.getMethod("getAmount", int.class).invoke(batch, row)));
+                }
+                chunks.add(chunk);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select id, name, amount from metric order by id")) {
+            assertEquals(3L, batchType.getMethod("forEachChunk", ResultSet.class, int.class, int.class, Consumer.class).invoke(null, rs, 1, 2, consumer));
+        }
+        assertEquals(Arrays.asList(Arrays.asList("1:a:1.5", "2:b:null"), Collections.singletonList("3:null:3.5")), chunks);
+    }
+
+}
@@ -0,0 +1,57 @@
+package io.github.xiaochenxt.processor;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import io.github.xiaochenxt.sql.ShardFactory;
+import io.github.xiaochenxt.sql.ShardNaming;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成的分片工厂继承ShardFactory，按分片缓存Q类实例
+ *
+ * @author xiaochen
+ */
+class ShardsRendererTest {
+
+    @Test
+    void createsAndCachesShards() throws Exception {
+        Map<String, String> sources = Collections.singletonMap("shards.Event", "package shards;\n\n" +
+                "import org.springframework.data.annotation.Id;\n" +
+                "import org.springframework.data.relational.core.mapping.Table;\n\n" +
+                "@Table(value = \"event\", schema = \"app\")\n" +
+                "public class Event {\n" +
+                "    @Id\n" +
+                "    Long id;\n" +
+                "}\n");
+        InMemoryCompiler.Result result = new InMemoryCompiler().option("querydsl.shards=true").compile(sources);
+        assertTrue(result.isSuccess(), () -> result.getDiagnostics().toString());
+        ClassLoader classLoader = result.classLoader();
+        Class<?> shardsType = classLoader.loadClass("shards.EventShards");
+        Class<?> qType = classLoader.loadClass("shards.QEvent");
+        ShardFactory<?> shards = (ShardFactory<?>) shardsType.getConstructor(ShardNaming.class, int.class).newInstance(ShardNaming.suffix("_"), 1);
+
+        RelationalPath<?> january = shards.shard("2026_01");
+        assertSame(qType, january.getClass());
+        assertEquals("event_2026_01", january.getTableName());
+        assertEquals("app", january.getSchemaName());
+        assertEquals("event", january.getMetadata().getName());
+        assertSame(january, shards.shard("2026_01"));
+
+        List<?> months = shards.shards(Arrays.asList("2026_02", "2026_03"));
+        assertEquals(2, months.size());
+        // 容量为1，只保留最近使用的分片
+        assertEquals(1, shards.cachedSize());
+        assertSame(months.get(1), shards.shard("2026_03"));
+        assertNotSame(january, shards.shard("2026_01"));
+        // 传入querydsl配置时分片实例创建后注册JSON字段
+        assertNotNull(shardsType.getConstructor(ShardNaming.class, int.class, Configuration.class));
+    }
+
+}
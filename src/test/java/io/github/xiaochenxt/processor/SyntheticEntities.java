@@ -0,0 +1,155 @@
+package io.github.xiaochenxt.processor;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 生成指定数量的@Table实体源码，实体分布在多个包中，继承深度不同的父类链，并包含与父类及本类字段重名的数据库字段
+ *
+ * @author xiaochen
+ */
+final class SyntheticEntities {
+
+    /**
+     * 父类链的深度，Base0为最顶层
+     */
+    static final int DEPTH = 6;
+
+    /**
+     * 每个包中的实体数
+     */
+    private static final int PACKAGE_SIZE = 100;
+
+    private static final Pattern COLUMN = Pattern.compile("ColumnMetadata\\.named\\(\"([^\"]+)\"\\)");
+
+    private static final String BASE_PACKAGE = "synthetic.base";
+
+    /**
+     * 每层父类声明的数据库字段名
+     */
+    private static final String[] BASE_COLUMNS = {"id", "create_time", "tenant_id", "version", "update_time", "deleted"};
+
+    private final Map<String, String> sources = new LinkedHashMap<>();
+
+    /**
+     * 实体全限定名到期望的数据库字段，按Q类中的顺序排列
+     */
+    private final Map<String, List<String>> expectedColumns = new LinkedHashMap<>();
+
+    SyntheticEntities(int count) {
+        addBaseClasses();
+        for (int i = 0; i < count; i++) {
+            addEntity(i);
+        }
+    }
+
+    Map<String, String> getSources() {
+        return sources;
+    }
+
+    Map<String, List<String>> getExpectedColumns() {
+        return expectedColumns;
+    }
+
+    static String qClassName(String entityName) {
+        int dot = entityName.lastIndexOf('.');
+        return entityName.substring(0, dot + 1) + "Q" + entityName.substring(dot + 1);
+    }
+
+    /**
+     * Q类源码中按顺序声明的数据库字段
+     */
+    static List<String> columns(String qClassSource) {
+        List<String> columns = new ArrayList<>();
+        Matcher matcher = COLUMN.matcher(qClassSource);
+        while (matcher.find()) {
+            columns.add(matcher.group(1));
+        }
+        return columns;
+    }
+
+    private void addBaseClasses() {
+        sources.put(BASE_PACKAGE + ".Base0", "package " + BASE_PACKAGE + ";\n\n" +
+                "import org.springframework.data.annotation.Id;\n\n" +
+                "public abstract class Base0 {\n" +
+                "    @Id\n" +
+                "    private Long id;\n" +
+                "    public Long getId() { return id; }\n" +
+                "    public void setId(Long id) { this.id = id; }\n" +
+                "}\n");
+        sources.put(BASE_PACKAGE + ".Base1", "package " + BASE_PACKAGE + ";\n\n" +
+                "public abstract class Base1 extends Base0 {\n" +
+                "    private java.time.LocalDateTime createTime;\n" +
+                "}\n");
+        // 第二层声明的tenant_id与实体中 @Column("tenant_id") 的字段重名，父类优先
+        sources.put(BASE_PACKAGE + ".Base2", "package " + BASE_PACKAGE + ";\n\n" +
+                "public abstract class Base2 extends Base1 {\n" +
+                "    protected String tenantId;\n" +
+                "}\n");
+        // 泛型父类，字段类型由子类的类型参数决定
+        sources.put(BASE_PACKAGE + ".Base3", "package " + BASE_PACKAGE + ";\n\n" +
+                "public abstract class Base3<V extends Comparable<V>> extends Base2 {\n" +
+                "    private V version;\n" +
+                "}\n");
+        sources.put(BASE_PACKAGE + ".Base4", "package " + BASE_PACKAGE + ";\n\n" +
+                "public abstract class Base4 extends Base3<Long> {\n" +
+                "    private java.time.LocalDateTime updateTime;\n" +
+                "}\n");
+        sources.put(BASE_PACKAGE + ".Base5", "package " + BASE_PACKAGE + ";\n\n" +
+                "public abstract class Base5 extends Base4 {\n" +
+                "    private boolean deleted;\n" +
+                "}\n");
+    }
+
+    /**
+     * 实体继承的父类深度依次为0到DEPTH，0表示不继承
+     */
+    private void addEntity(int i) {
+        String packageName = "synthetic.p" + (i / PACKAGE_SIZE);
+        String className = "Entity" + i;
+        int depth = i % (DEPTH + 1);
+        List<String> columns = new ArrayList<>();
+        columns.addAll(Arrays.asList(BASE_COLUMNS).subList(0, depth));
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("import org.springframework.data.annotation.Id;\n");
+        sb.append("import org.springframework.data.annotation.Transient;\n");
+        sb.append("import org.springframework.data.relational.core.mapping.Column;\n");
+        sb.append("import org.springframework.data.relational.core.mapping.Table;\n\n");
+        sb.append("/**\n * 合成实体").append(i).append("\n */\n");
+        sb.append("@Table(\"t_entity_").append(i).append("\")\n");
+        sb.append("public class ").append(className);
+        if (depth > 0) {
+            String superclass = BASE_PACKAGE + ".Base" + (depth - 1);
+            sb.append(" extends ").append(depth == 4 ? superclass + "<Integer>" : superclass);
+        }
+        sb.append(" {\n\n");
+        if (depth == 0) {
+            sb.append("    @Id\n    private Long id;\n\n");
+            columns.add("id");
+        }
+        sb.append("    /**\n     * 名称\n     */\n");
+        sb.append("    private String name;\n\n");
+        columns.add("name");
+        // 与本类的name重名，保留先声明的字段
+        sb.append("    @Column(\"name\")\n    private String displayName;\n\n");
+        // 父类深度不足时是新的字段，否则与父类的tenant_id重名
+        sb.append("    @Column(\"tenant_id\")\n    private String tenant;\n\n");
+        if (depth < 3) columns.add("tenant_id");
+        for (int k = 0; k < 4 + i % 5; k++) {
+            sb.append("    private Integer amount").append(k).append(";\n\n");
+            columns.add("amount" + k);
+        }
+        sb.append("    private java.math.BigDecimal price;\n\n");
+        columns.add("price");
+        sb.append("    @Transient\n    private String ignored;\n\n");
+        sb.append("    public String getName() {\n        return name;\n    }\n\n");
+        sb.append("    public void setName(String name) {\n        this.name = name;\n    }\n");
+        sb.append("}\n");
+        String entityName = packageName + "." + className;
+        sources.put(entityName, sb.toString());
+        expectedColumns.put(entityName, columns);
+    }
+
+}
@@ -0,0 +1,55 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.types.PathMetadataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON路径共享按类型创建的编解码器，反序列化后重新获取
+ *
+ * @author xiaochen
+ */
+class JsonPathTest {
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void sharesJsonTypeAndCodec() {
+        JsonPath<Map> attrs = new JsonPath<>(Map.class, PathMetadataFactory.forVariable("attrs"), true);
+        assertSame(JsonType.of(Map.class, true), attrs.getJsonType());
+        assertSame(attrs.getJsonType().getCodec(), attrs.getCodec());
+        assertEquals("{\"color\":\"red\"}", attrs.getCodec().write(Collections.singletonMap("color", "red")));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void restoresCodecAfterDeserialization() throws Exception {
+        JsonPath<Map> attrs = new JsonPath<>(Map.class, PathMetadataFactory.forVariable("attrs"), true);
+        JsonPath<Map> copy = roundTrip(attrs);
+        assertEquals(attrs, copy);
+        assertSame(attrs.getCodec(), copy.getCodec());
+        assertEquals("{\"size\":1}", copy.getCodec().write(Collections.singletonMap("size", 1)));
+        assertEquals("attrs @> cast({\"size\":1} as jsonb)", copy.contains(Collections.singletonMap("size", 1)).toString());
+        assertTrue(copy.getJsonType().isJsonb());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+}
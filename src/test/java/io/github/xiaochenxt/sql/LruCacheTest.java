@@ -0,0 +1,88 @@
+package io.github.xiaochenxt.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分段LRU缓存的容量上限、淘汰顺序和并发下每个键只创建一次
+ *
+ * @author xiaochen
+ */
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        // 3个容量分为2段，每段2个，偶数键都在同一段
+        LruCache<Integer, String> cache = new LruCache<>(3);
+        AtomicInteger created = new AtomicInteger();
+        cache.computeIfAbsent(0, key -> "v" + created.incrementAndGet());
+        cache.computeIfAbsent(2, key -> "v" + created.incrementAndGet());
+        assertEquals("v1", cache.computeIfAbsent(0, key -> "unused"));
+        cache.computeIfAbsent(4, key -> "v" + created.incrementAndGet());
+        assertEquals(2, cache.size());
+        assertEquals("v1", cache.computeIfAbsent(0, key -> "unused"));
+        assertEquals("v4", cache.computeIfAbsent(2, key -> "v" + created.incrementAndGet()));
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        LruCache<Integer, Integer> cache = new LruCache<>(256);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, cache.computeIfAbsent(i, key -> key));
+        }
+        assertTrue(cache.size() <= 256, () -> "size: " + cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectsNonPositiveMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+
+    @Test
+    void createsEachKeyOnceUnderContention() throws Exception {
+        int threads = 8;
+        int keys = 100;
+        LruCache<Integer, Object> cache = new LruCache<>(256);
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Object[] values = new Object[keys];
+                    for (int i = 0; i < keys; i++) {
+                        values[i] = cache.computeIfAbsent(i, key -> {
+                            created.incrementAndGet();
+                            return new Object();
+                        });
+                    }
+                    return values;
+                }));
+            }
+            start.countDown();
+            Object[] first = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object[]> future : futures) {
+                assertArrayEquals(first, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(keys, created.get());
+        assertEquals(keys, cache.size());
+    }
+
+}
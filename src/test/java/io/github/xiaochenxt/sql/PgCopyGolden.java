@@ -0,0 +1,44 @@
+package io.github.xiaochenxt.sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 读取src/test/resources/pgcopy下按COPY BINARY格式手工编写的十六进制文件，#开头的行为注释，空白忽略
+ *
+ * @author xiaochen
+ */
+public final class PgCopyGolden {
+
+    private PgCopyGolden() {
+    }
+
+    public static byte[] read(String name) {
+        String text;
+        try (InputStream in = PgCopyGolden.class.getResourceAsStream("/pgcopy/" + name)) {
+            if (in == null) throw new IllegalArgumentException("找不到" + name);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+                content.write(buffer, 0, n);
+            }
+            text = new String(content.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (String line : text.split("\n")) {
+            if (line.trim().startsWith("#")) continue;
+            hex.append(line.replaceAll("\\s", ""));
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,257 @@
+package io.github.xiaochenxt.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按COPY BINARY格式文档手工编写的十六进制文件校验写出的字节，并从同一文件读回
+ *
+ * @author xiaochen
+ */
+class PgCopyTest {
+
+    private static final BigDecimal[] NUMERICS = {
+            new BigDecimal("0"), new BigDecimal("1"), new BigDecimal("-12345.678"), new BigDecimal("0.0001"),
+            new BigDecimal("10000"), new BigDecimal("1.50"), new BigDecimal("123456789012345678901234567890")};
+
+    private static final int DEFAULT = PgCopyWriter.DEFAULT_BUFFER_SIZE;
+
+    /**
+     * 小于部分字段长度的缓冲区，写出结果应与默认缓冲区一致
+     */
+    private static final int SMALL = 64;
+
+    @Test
+    void writesSingleInt() throws IOException {
+        assertArrayEquals(PgCopyGolden.read("int4.hex"), write(DEFAULT, writer -> {
+            writer.startRow(1);
+            writer.writeInt(1);
+        }));
+    }
+
+    @Test
+    void writesAndReadsScalars() throws IOException {
+        Rows rows = writer -> {
+            writer.startRow(7);
+            writer.writeLong(9000000000L);
+            writer.writeInt(-1);
+            writer.writeShort((short) -2);
+            writer.writeBoolean(true);
+            writer.writeDouble(1.5);
+            writer.writeFloat(-0.25F);
+            writer.writeText("a€😀é");
+            writer.startRow(7);
+            for (int i = 0; i < 7; i++) {
+                writer.writeNull();
+            }
+        };
+        byte[] golden = PgCopyGolden.read("scalars.hex");
+        assertArrayEquals(golden, write(DEFAULT, rows));
+        assertArrayEquals(golden, write(SMALL, rows));
+
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(golden));
+        assertEquals(7, reader.nextRow());
+        assertFalse(reader.readNull());
+        assertEquals(9000000000L, reader.readLong());
+        assertFalse(reader.readNull());
+        assertEquals(-1, reader.readInt());
+        assertFalse(reader.readNull());
+        assertEquals(-2, reader.readShort());
+        assertFalse(reader.readNull());
+        assertTrue(reader.readBoolean());
+        assertFalse(reader.readNull());
+        assertEquals(1.5, reader.readDouble());
+        assertFalse(reader.readNull());
+        assertEquals(-0.25F, reader.readFloat());
+        assertFalse(reader.readNull());
+        assertEquals("a€😀é", reader.readText());
+        assertEquals(7, reader.nextRow());
+        for (int i = 0; i < 7; i++) {
+            assertTrue(reader.readNull());
+        }
+        assertEquals(-1, reader.nextRow());
+        assertEquals(-1, reader.nextRow());
+    }
+
+    @Test
+    void writesAndReadsNumeric() throws IOException {
+        Rows rows = writer -> {
+            writer.startRow(NUMERICS.length);
+            for (BigDecimal value : NUMERICS) {
+                writer.writeNumeric(value);
+            }
+        };
+        byte[] golden = PgCopyGolden.read("numeric.hex");
+        assertArrayEquals(golden, write(DEFAULT, rows));
+        assertArrayEquals(golden, write(SMALL, rows));
+
+        PgCopyReader reader = new PgCopyReader(Channels.newChannel(new ByteArrayInputStream(golden)), 64);
+        assertEquals(NUMERICS.length, reader.nextRow());
+        for (BigDecimal value : NUMERICS) {
+            assertFalse(reader.readNull());
+            // 小数位数一致，1.50读回仍为1.50
+            assertEquals(value, reader.readNumeric());
+        }
+        assertEquals(-1, reader.nextRow());
+    }
+
+    @Test
+    void rejectsSpecialNumerics() throws IOException {
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(PgCopyGolden.read("numeric-special.hex")));
+        assertEquals(4, reader.nextRow());
+        reader.readNull();
+        assertThrows(ArithmeticException.class, reader::readNumeric);
+        reader.readNull();
+        ArithmeticException infinity = assertThrows(ArithmeticException.class, reader::readNumeric);
+        assertTrue(infinity.getMessage().contains("Infinity") && !infinity.getMessage().contains("-Infinity"));
+        reader.readNull();
+        assertTrue(assertThrows(ArithmeticException.class, reader::readNumeric).getMessage().contains("-Infinity"));
+        reader.readNull();
+        assertThrows(IOException.class, reader::readNumeric);
+    }
+
+    @Test
+    void writesBigIntegerAsNumeric() throws IOException {
+        byte[] bytes = write(DEFAULT, writer -> {
+            writer.startRow(1);
+            writer.writeNumeric(new BigInteger("-10000"));
+        });
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(bytes));
+        reader.nextRow();
+        reader.readNull();
+        assertEquals(new BigDecimal("-10000"), reader.readNumeric());
+    }
+
+    @Test
+    void writesAndReadsTemporal() throws IOException {
+        LocalDateTime timestamp = LocalDateTime.of(2000, 1, 1, 0, 0, 0, 1000);
+        LocalDateTime beforeEpoch = LocalDateTime.of(1999, 12, 31, 23, 59, 59, 500_000_000);
+        byte[] golden = PgCopyGolden.read("temporal.hex");
+        assertArrayEquals(golden, write(DEFAULT, writer -> {
+            writer.startRow(5);
+            writer.writeTimestamp(timestamp);
+            writer.writeTimestamp(beforeEpoch);
+            writer.writeTimestamptz(Instant.EPOCH);
+            writer.writeDate(LocalDate.of(1999, 12, 31));
+            writer.writeTime(LocalTime.NOON);
+        }));
+
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(golden));
+        assertEquals(5, reader.nextRow());
+        reader.readNull();
+        assertEquals(timestamp, reader.readTimestamp());
+        reader.readNull();
+        assertEquals(beforeEpoch, reader.readTimestamp());
+        reader.readNull();
+        assertEquals(Instant.EPOCH, reader.readTimestamptz());
+        reader.readNull();
+        assertEquals(LocalDate.of(1999, 12, 31), reader.readDate());
+        reader.readNull();
+        assertEquals(LocalTime.NOON, reader.readTime());
+        assertEquals(-1, reader.nextRow());
+    }
+
+    @Test
+    void writesAndReadsBinary() throws IOException {
+        UUID uuid = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+        byte[] bytea = {(byte) 0xDE, (byte) 0xAD, (byte) 0xBE, (byte) 0xEF};
+        byte[] golden = PgCopyGolden.read("binary.hex");
+        assertArrayEquals(golden, write(DEFAULT, writer -> {
+            writer.startRow(4);
+            writer.writeUuid(uuid);
+            writer.writeBytes(bytea);
+            writer.writeBytes(new byte[0]);
+            writer.writeJsonb("{\"a\":1}");
+        }));
+
+        PgCopyReader reader = new PgCopyReader(new ByteArrayInputStream(golden));
+        assertEquals(4, reader.nextRow());
+        reader.readNull();
+        assertEquals(uuid, reader.readUuid());
+        reader.readNull();
+        assertArrayEquals(bytea, reader.readBytes());
+        reader.readNull();
+        assertArrayEquals(new byte[0], reader.readBytes());
+        reader.readNull();
+        assertEquals("{\"a\":1}", reader.readJsonb());
+        assertEquals(-1, reader.nextRow());
+    }
+
+    @Test
+    void roundTripsValuesLargerThanBuffer() throws IOException {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, '汉');
+        String text = new String(chars);
+        String json = "{\"text\":\"" + text + "\"}";
+        byte[] bytes = new byte[500];
+        Arrays.fill(bytes, (byte) 7);
+        Rows rows = writer -> {
+            for (int i = 0; i < 3; i++) {
+                writer.startRow(4);
+                writer.writeText(text);
+                writer.writeJsonb(json);
+                writer.writeBytes(bytes);
+                writer.writeLong(i);
+            }
+        };
+        byte[] expected = write(DEFAULT, rows);
+        assertArrayEquals(expected, write(SMALL, rows));
+
+        PgCopyReader reader = new PgCopyReader(Channels.newChannel(new ByteArrayInputStream(expected)), 64);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(4, reader.nextRow());
+            reader.readNull();
+            assertEquals(text, reader.readText());
+            reader.readNull();
+            assertEquals(json, reader.readJsonb());
+            reader.readNull();
+            reader.skipField();
+            reader.readNull();
+            assertEquals(i, reader.readLong());
+        }
+        assertEquals(-1, reader.nextRow());
+    }
+
+    @Test
+    void rejectsInvalidData() throws IOException {
+        assertThrows(IOException.class, () -> new PgCopyReader(new ByteArrayInputStream(new byte[19])));
+        byte[] golden = PgCopyGolden.read("int4.hex");
+        PgCopyReader truncated = new PgCopyReader(new ByteArrayInputStream(Arrays.copyOf(golden, golden.length - 4)));
+        assertEquals(1, truncated.nextRow());
+        truncated.readNull();
+        assertThrows(EOFException.class, truncated::readInt);
+        PgCopyReader mismatched = new PgCopyReader(new ByteArrayInputStream(golden));
+        mismatched.nextRow();
+        mismatched.readNull();
+        assertThrows(IOException.class, mismatched::readLong);
+    }
+
+    private static byte[] write(int bufferSize, Rows rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PgCopyWriter writer = new PgCopyWriter(Channels.newChannel(out), bufferSize);
+        rows.write(writer);
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Rows {
+        void write(PgCopyWriter writer) throws IOException;
+    }
+
+}
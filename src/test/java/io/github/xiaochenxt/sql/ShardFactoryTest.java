@@ -0,0 +1,122 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.types.PathMetadataFactory;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQueryFactory;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分片实例的缓存、按月分片标识以及在内嵌H2上的UNION ALL
+ *
+ * @author xiaochen
+ */
+class ShardFactoryTest {
+
+    private static final QEvent event = new QEvent("event", "PUBLIC", "event");
+
+    @Test
+    void reusesInstancePerShard() {
+        ShardFactory<QEvent> factory = new ShardFactory<>(event, ShardNaming.suffix("_"), ShardFactory.DEFAULT_MAX_SIZE, QEvent::new);
+        QEvent shard = factory.shard("2026_01");
+        assertEquals("event_2026_01", shard.getTableName());
+        assertEquals("PUBLIC", shard.getSchemaName());
+        assertEquals("event", shard.getMetadata().getName());
+        assertSame(shard, factory.shard("2026_01"));
+        assertEquals(1, factory.cachedSize());
+        factory.clearCache();
+        assertEquals(0, factory.cachedSize());
+        assertNotSame(shard, factory.shard("2026_01"));
+    }
+
+    @Test
+    void namesSchemaPerTenant() {
+        ShardFactory<QEvent> factory = new ShardFactory<>(event, ShardNaming.schemaPerTenant("tenant_"), 16, QEvent::new);
+        QEvent shard = factory.shard("42");
+        assertEquals("tenant_42", shard.getSchemaName());
+        assertEquals("event", shard.getTableName());
+    }
+
+    @Test
+    void listsMonthsInclusive() {
+        assertEquals(Arrays.asList("2025_11", "2025_12", "2026_01", "2026_02"), ShardFactory.months(YearMonth.of(2025, 11), YearMonth.of(2026, 2)));
+        assertEquals(Collections.singletonList("2026_09"), ShardFactory.months(YearMonth.of(2026, 9), YearMonth.of(2026, 9)));
+        assertTrue(ShardFactory.months(YearMonth.of(2026, 2), YearMonth.of(2026, 1)).isEmpty());
+    }
+
+    @Test
+    void unionsAllShards() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table event_2026_01 (id bigint primary key)");
+                statement.execute("create table event_2026_02 (id bigint primary key)");
+                statement.execute("insert into event_2026_01 values (1), (2)");
+                statement.execute("insert into event_2026_02 values (2), (3)");
+            }
+            SQLQueryFactory queryFactory = new SQLQueryFactory(new Configuration(H2Templates.DEFAULT), () -> connection);
+            ShardFactory<QEvent> factory = new ShardFactory<>(event, ShardNaming.suffix("_"), 16, QEvent::new);
+            List<String> months = ShardFactory.months(YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+            List<Long> ids = factory.unionAll(queryFactory, months, q -> SQLExpressions.select(q.id).from(q)).fetch();
+            Collections.sort(ids);
+            assertEquals(Arrays.asList(1L, 2L, 2L, 3L), ids);
+            assertThrows(IllegalArgumentException.class,
+                    () -> factory.unionAll(queryFactory, Collections.<String>emptyList(), q -> SQLExpressions.select(q.id).from(q)));
+        }
+    }
+
+    @Test
+    void registersJsonColumnsOfShardTables() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table event_2026_01 (id bigint primary key, attrs varchar(255))");
+                statement.execute("insert into event_2026_01 values (1, '{\"color\":\"red\"}')");
+            }
+            Configuration configuration = new Configuration(H2Templates.DEFAULT);
+            // 只注册了默认实例的表event，分片表event_2026_01由工厂创建实例时注册
+            JsonType.register(configuration, event);
+            SQLQueryFactory queryFactory = new SQLQueryFactory(configuration, () -> connection);
+            ShardFactory<QEvent> factory = new ShardFactory<>(event, ShardNaming.suffix("_"), 16, QEvent::new, configuration);
+            QEvent shard = factory.shard("2026_01");
+            Attrs attrs = queryFactory.select(shard.attrs).from(shard).where(shard.id.eq(1L)).fetchOne();
+            assertNotNull(attrs);
+            assertEquals("red", attrs.color);
+        }
+    }
+
+    public static class Attrs {
+
+        public String color;
+
+    }
+
+    static class QEvent extends RelationalPathBase<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        final NumberPath<Long> id = createNumber("id", Long.class);
+
+        final JsonPath<Attrs> attrs = new JsonPath<>(Attrs.class, PathMetadataFactory.forProperty(this, "attrs"), false);
+
+        QEvent(String variable, String schema, String table) {
+            super(Object.class, variable, schema, table);
+            addMetadata(id, ColumnMetadata.named("id").withIndex(1));
+            addMetadata(attrs, ColumnMetadata.named("attrs").withIndex(2));
+        }
+
+    }
+
+}
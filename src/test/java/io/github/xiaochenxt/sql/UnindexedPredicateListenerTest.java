@@ -0,0 +1,96 @@
+package io.github.xiaochenxt.sql;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 按主键和声明的索引判断where和排序条件是否命中索引
+ *
+ * @author xiaochen
+ */
+class UnindexedPredicateListenerTest {
+
+    private static final QItem item = new QItem("item");
+
+    @Test
+    void primaryKeyAndIndexHit() {
+        assertEquals(0, where(item.id.eq(1L)));
+        assertEquals(0, where(item.code.eq("a")));
+        assertEquals(0, where(item.code.eq("a").and(item.name.eq("b"))));
+    }
+
+    @Test
+    void unindexedColumnCounts() {
+        assertEquals(1, where(item.name.eq("b")));
+        assertEquals(1, where(item.name.eq("b").and(item.code.eq("a"))));
+    }
+
+    @Test
+    void orRequiresEveryBranch() {
+        assertEquals(0, where(item.code.eq("a").or(item.id.eq(1L))));
+        assertEquals(0, where(item.code.eq("a").or(item.id.eq(1L).and(item.name.eq("b")))));
+        assertEquals(1, where(item.code.eq("a").or(item.name.eq("b"))));
+        assertEquals(1, where(item.name.eq("b").or(item.id.eq(1L))));
+    }
+
+    @Test
+    void orderByWithoutWhere() {
+        UnindexedPredicateListener listener = new UnindexedPredicateListener(null);
+        DefaultQueryMetadata md = new DefaultQueryMetadata();
+        md.addOrderBy(item.name.asc());
+        listener.notifyQuery(md);
+        md = new DefaultQueryMetadata();
+        md.addOrderBy(item.code.asc());
+        listener.notifyQuery(md);
+        assertEquals(1, listener.getUnindexedCount());
+    }
+
+    private static long where(Predicate predicate) {
+        UnindexedPredicateListener listener = new UnindexedPredicateListener(null);
+        DefaultQueryMetadata md = new DefaultQueryMetadata();
+        md.addWhere(predicate);
+        listener.notifyQuery(md);
+        return listener.getUnindexedCount();
+    }
+
+    static class QItem extends RelationalPathBase<Object> implements IndexedPath {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final List<IndexMetadata> INDEXES = Collections.singletonList(new IndexMetadata("idx_item_code", false, "code"));
+
+        final NumberPath<Long> id = createNumber("id", Long.class);
+
+        final StringPath code = createString("code");
+
+        final StringPath name = createString("name");
+
+        final PrimaryKey<Object> primary = createPrimaryKey(id);
+
+        QItem(String variable) {
+            super(Object.class, variable, null, "item");
+            addMetadata(id, ColumnMetadata.named("id").withIndex(1).ofType(Types.BIGINT));
+            addMetadata(code, ColumnMetadata.named("code").withIndex(2).ofType(Types.VARCHAR));
+            addMetadata(name, ColumnMetadata.named("name").withIndex(3).ofType(Types.VARCHAR));
+        }
+
+        @Override
+        public List<IndexMetadata> getIndexes() {
+            return INDEXES;
+        }
+
+    }
+
+}